@@ -0,0 +1,70 @@
+package com.vance.backend;
+
+import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.models.ExchangeRate;
+import com.vance.backend.models.Prices;
+import com.vance.backend.services.CurrencyPairRegistry;
+import com.vance.backend.services.ForexIngestService;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application for benchmarks: in-memory H2, no web server, no
+ * page cache and no startup scrape, so nothing touches the network or the
+ * real database file.
+ */
+public final class BenchmarkContext {
+
+    public static final String FROM = "GBP";
+    public static final String TO = "INR";
+
+    private static final int SEED_BATCH = 5000;
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String name) {
+        SpringApplication application = new SpringApplication(BackendApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        // command line arguments, so they win over application.properties
+        return application.run(
+            "--spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+            "--forex.page-cache.enabled=false",
+            "--forex.coverage.catch-up-on-startup=false",
+            "--spring.jpa.show-sql=false",
+            "--logging.level.root=WARN");
+    }
+
+    /** Daily rows for every day of the last {@code years} years up to today, ingested like scraped rows. */
+    public static CurrencyPair seedDaily(ConfigurableApplicationContext context, int years) {
+        CurrencyPair pair = context.getBean(CurrencyPairRegistry.class).getOrCreate(FROM, TO);
+        ForexIngestService ingest = context.getBean(ForexIngestService.class);
+        LocalDate end = LocalDate.now();
+        List<ExchangeRate> batch = new ArrayList<>(SEED_BATCH);
+        for (LocalDate date = end.minusYears(years); !date.isAfter(end); date = date.plusDays(1)) {
+            batch.add(syntheticRate(pair, date));
+            if (batch.size() == SEED_BATCH) {
+                ingest.saveDaily(batch);
+                batch = new ArrayList<>(SEED_BATCH);
+            }
+        }
+        if (!batch.isEmpty()) {
+            ingest.saveDaily(batch);
+        }
+        return pair;
+    }
+
+    // a smooth, deterministic walk around 100 so aggregates and rollups have something to do
+    public static ExchangeRate syntheticRate(CurrencyPair pair, LocalDate date) {
+        long day = date.toEpochDay();
+        long close = Prices.fromDouble(100 + 10 * Math.sin(day / 90.0) + (day % 7) * 0.01);
+        long open = close - Prices.ONE / 20;
+        return new ExchangeRate(null, pair, date, open, close + Prices.ONE / 5, open - Prices.ONE / 5, close);
+    }
+}
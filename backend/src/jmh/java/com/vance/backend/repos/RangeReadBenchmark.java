@@ -0,0 +1,92 @@
+package com.vance.backend.repos;
+
+import com.vance.backend.BenchmarkContext;
+import com.vance.backend.dto.PricePoint;
+import com.vance.backend.models.ExchangeRate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A 10,000-row daily range read two ways: as {@link PricePoint}
+ * projections, the way ranges are read now, and as managed
+ * {@link ExchangeRate} entities with their pair fetched, the way they were
+ * read before. Run with the profile's GC profiler, {@code gc.alloc.rate.norm}
+ * gives the bytes allocated per read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RangeReadBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private static final String ENTITY_RANGE = "select r from ExchangeRate r join fetch r.currencyPair "
+        + "where r.currencyPair.id = :pairId and r.date between :startDate and :endDate order by r.date";
+
+    private ConfigurableApplicationContext context;
+    private ExchangeRateRepository exchangeRateRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private Long pairId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start("range-read");
+        // 28 years of daily rows, a little more than the range read
+        pairId = BenchmarkContext.seedDaily(context, 28).getId();
+        exchangeRateRepository = context.getBean(ExchangeRateRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        endDate = LocalDate.now();
+        startDate = endDate.minusDays(ROWS - 1);
+        if (projections().size() != ROWS) {
+            throw new IllegalStateException("Expected a range of " + ROWS + " rows");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PricePoint> projections() {
+        return exchangeRateRepository.findPricePoints(pairId, startDate, endDate);
+    }
+
+    @Benchmark
+    public List<ExchangeRate> entities() {
+        return readOnly.execute(status -> entityManager.createQuery(ENTITY_RANGE, ExchangeRate.class)
+            .setParameter("pairId", pairId)
+            .setParameter("startDate", startDate)
+            .setParameter("endDate", endDate)
+            .getResultList());
+    }
+}
@@ -0,0 +1,87 @@
+package com.vance.backend.services;
+
+import com.vance.backend.BenchmarkContext;
+import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.models.ExchangeRate;
+import com.vance.backend.repos.ExchangeRateRepository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write throughput into H2 for one scrape's worth of daily rows, through
+ * the ingest path the scraper uses (batched upserts plus the ingest event
+ * listeners) and through a plain repository {@code saveAll}. Divide by
+ * {@code rows} for the per-row cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ForexIngestBenchmark {
+
+    @Param({"60", "1000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private ForexIngestService ingestService;
+    private ExchangeRateRepository exchangeRateRepository;
+    private JdbcTemplate jdbcTemplate;
+    private CurrencyPair pair;
+    private List<ExchangeRate> batch;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start("ingest");
+        ingestService = context.getBean(ForexIngestService.class);
+        exchangeRateRepository = context.getBean(ExchangeRateRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        pair = context.getBean(CurrencyPairRegistry.class).getOrCreate(BenchmarkContext.FROM, BenchmarkContext.TO);
+    }
+
+    // fresh entities and an empty table, so every invocation inserts
+    @Setup(Level.Invocation)
+    public void clear() {
+        jdbcTemplate.update("DELETE FROM exchange_rate WHERE currency_pair_id = ?", pair.getId());
+        batch = new ArrayList<>(rows);
+        LocalDate start = LocalDate.now().minusDays(rows);
+        for (int i = 0; i < rows; i++) {
+            batch.add(BenchmarkContext.syntheticRate(pair, start.plusDays(i)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ExchangeRate> ingestService() {
+        return ingestService.saveDaily(batch);
+    }
+
+    @Benchmark
+    public List<ExchangeRate> repositorySaveAll() {
+        return exchangeRateRepository.saveAll(batch);
+    }
+}
@@ -0,0 +1,68 @@
+package com.vance.backend.services;
+
+import com.vance.backend.BenchmarkContext;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PDF rendering: the default 30-day report as {@code generateForexReport}
+ * produces it, and daily reports over longer ranges.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ForexPdfBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Range {
+        @Param({"30", "365", "3650"})
+        public int days;
+    }
+
+    private ConfigurableApplicationContext context;
+    private ForexPdfService pdfService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start("pdf");
+        BenchmarkContext.seedDaily(context, 10);
+        pdfService = context.getBean(ForexPdfService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] generateForexReport() throws Exception {
+        return pdfService.generateForexReport(BenchmarkContext.FROM, BenchmarkContext.TO);
+    }
+
+    @Benchmark
+    public byte[] renderDailyReport(Range range) {
+        LocalDate end = LocalDate.now();
+        return pdfService.renderForexReport(BenchmarkContext.FROM, BenchmarkContext.TO,
+            end.minusDays(range.days), end, Frequency.DAILY);
+    }
+}
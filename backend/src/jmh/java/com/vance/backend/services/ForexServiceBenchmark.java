@@ -0,0 +1,81 @@
+package com.vance.backend.services;
+
+import com.vance.backend.BenchmarkContext;
+import com.vance.backend.dto.ForexDataResponse;
+import com.vance.backend.dto.ForexDataResponse.AggregateStatistics;
+import com.vance.backend.dto.ForexDataResponse.ForexDataPoint;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ForexService} reads over 20 years of daily rows for one pair, for
+ * periods from a week to the whole history. {@code calculateAggregates}
+ * is measured on its own over the period's daily points, as the database
+ * fallback computes it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ForexServiceBenchmark {
+
+    @Param({"1W", "1M", "3M", "6M", "1Y", "5Y", "20Y"})
+    public String period;
+
+    private ConfigurableApplicationContext context;
+    private ForexService forexService;
+    private List<ForexDataPoint> dailyPoints;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start("service");
+        BenchmarkContext.seedDaily(context, 20);
+        forexService = context.getBean(ForexService.class);
+        dailyPoints = forexService.getForexData(BenchmarkContext.FROM, BenchmarkContext.TO, period)
+            .getTimeSeriesData().getDailyData();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public ForexDataResponse getForexData() {
+        return forexService.getForexData(BenchmarkContext.FROM, BenchmarkContext.TO, period);
+    }
+
+    // a chart a few screens wide
+    @Benchmark
+    public ForexDataResponse getForexDataDownsampled() {
+        return forexService.getForexData(BenchmarkContext.FROM, BenchmarkContext.TO, period, 1000);
+    }
+
+    @Benchmark
+    public AggregateStatistics getAggregates() {
+        return forexService.getAggregates(BenchmarkContext.FROM, BenchmarkContext.TO, period);
+    }
+
+    @Benchmark
+    public AggregateStatistics calculateAggregates() {
+        return ForexService.calculateAggregates(dailyPoints);
+    }
+}
@@ -0,0 +1,86 @@
+package com.vance.backend.services.scrappers.impl;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row parsing of a recorded Yahoo history page (the 60-row test fixture):
+ * the streaming extractor the scraper uses against the Jsoup DOM walk it
+ * replaced. Run with {@code -prof gc} for bytes allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoryParsingBenchmark {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM d, yyyy");
+
+    private String html;
+
+    @Setup
+    public void loadPage() throws IOException {
+        try (InputStream in = HistoryParsingBenchmark.class.getResourceAsStream("/fixtures/yahoo/gbpinr-daily.html")) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture yahoo/gbpinr-daily.html");
+            }
+            html = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public int streamingExtractor(Blackhole blackhole) {
+        return HistoryTableExtractor.extract(html, (date, open, high, low, close) -> {
+            blackhole.consume(date);
+            blackhole.consume(open + high + low + close);
+        });
+    }
+
+    @Benchmark
+    public int jsoupDom(Blackhole blackhole) {
+        Document doc = Jsoup.parse(html);
+        Elements rows = doc.select("div.table-container.yf-h2urb6 table tbody tr");
+        int count = 0;
+        for (Element row : rows) {
+            Elements cells = row.select("td");
+            if (cells.size() >= 7) {
+                blackhole.consume(LocalDate.parse(cells.get(0).text(), DATE_FORMATTER));
+                for (int i = 1; i <= 4; i++) {
+                    blackhole.consume(parseDouble(cells.get(i).text()));
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Double parseDouble(String value) {
+        try {
+            return Double.parseDouble(value.replace(",", ""));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
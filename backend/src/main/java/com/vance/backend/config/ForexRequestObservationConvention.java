@@ -0,0 +1,75 @@
+package com.vance.backend.config;
+
+import com.vance.backend.services.ForexPdfService;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Adds a {@code period} tag to {@code http.server.requests}, so latency can
+ * be split by how much history a request asked for. The requested range,
+ * from {@code period} or from {@code startDate}/{@code endDate}, is rounded
+ * up to one of a few standard periods to keep the tag's cardinality fixed.
+ */
+@Component
+public class ForexRequestObservationConvention extends DefaultServerRequestObservationConvention {
+
+    private static final Pattern PERIOD = Pattern.compile("^([1-9][0-9]{0,5})([DWMY])$");
+
+    private static final String[] PERIOD_NAMES = {"1W", "1M", "3M", "6M", "1Y", "5Y", "20Y"};
+    // months and years count as 31 and 366 days, so "3M" or "20Y" lands in its own bucket
+    private static final long[] PERIOD_DAYS = {7, 31, 93, 186, 366, 1830, 7320};
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(KeyValue.of("period", period(context.getCarrier())));
+    }
+
+    private static String period(HttpServletRequest request) {
+        String period = request.getParameter("period");
+        if (period != null) {
+            Matcher m = PERIOD.matcher(period);
+            if (!m.matches()) {
+                return "invalid";
+            }
+            long amount = Long.parseLong(m.group(1));
+            return bucket(switch (m.group(2)) {
+                case "D" -> amount;
+                case "W" -> amount * 7;
+                case "M" -> amount * 31;
+                default -> amount * 366;
+            });
+        }
+        if (request.getRequestURI().endsWith("/forex-pdf")) {
+            try {
+                String start = request.getParameter("startDate");
+                String end = request.getParameter("endDate");
+                LocalDate endDate = end == null ? LocalDate.now() : LocalDate.parse(end);
+                LocalDate startDate = start == null ? endDate.minusDays(ForexPdfService.DEFAULT_REPORT_DAYS) : LocalDate.parse(start);
+                return bucket(ChronoUnit.DAYS.between(startDate, endDate));
+            } catch (DateTimeParseException e) {
+                return "invalid";
+            }
+        }
+        return "none";
+    }
+
+    private static String bucket(long days) {
+        for (int i = 0; i < PERIOD_DAYS.length; i++) {
+            if (days <= PERIOD_DAYS[i]) {
+                return PERIOD_NAMES[i];
+            }
+        }
+        return "max";
+    }
+}
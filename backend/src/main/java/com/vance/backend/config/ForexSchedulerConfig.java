@@ -1,36 +1,88 @@
 package com.vance.backend.config;
 
+import com.vance.backend.dto.ScrapeResult;
+import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.services.CurrencyPairRegistry;
+import com.vance.backend.services.ForexPdfService;
+import com.vance.backend.services.ScrapeCoverageService;
+import com.vance.backend.services.ScrapeCoverageService.DateRange;
+import com.vance.backend.services.cache.ForexReportCache;
+import com.vance.backend.services.scrappers.impl.ScrapeExecutor;
+import com.vance.backend.services.scrappers.impl.ScrapeExecutor.ScrapeTask;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
 import com.vance.backend.services.scrappers.interfaces.YahooFinanceScraper;
 
+import com.vance.backend.services.timeseries.ForexSeriesStore;
+import com.vance.backend.services.timeseries.PriceSeries;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.EnableRetry;
-import org.springframework.retry.annotation.Recover;
-import org.springframework.retry.annotation.Retryable;
+import org.springframework.retry.support.RetryTemplate;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Configuration
 @EnableScheduling
-@EnableRetry
 @RequiredArgsConstructor
 public class ForexSchedulerConfig {
 
     @Autowired
     private final YahooFinanceScraper yahooFinanceScraper;
+    private final ScrapeExecutor scrapeExecutor;
+    private final ForexPdfService forexPdfService;
+    private final ForexReportCache forexReportCache;
+    private final CurrencyPairRegistry currencyPairRegistry;
+    private final ScrapeCoverageService scrapeCoverageService;
+    private final TaskScheduler taskScheduler;
+    private final ForexSeriesStore seriesStore;
+    private final MeterRegistry meterRegistry;
+
+    // job -> epoch millis of the last run in which every task succeeded
+    private final Map<String, AtomicLong> lastSuccess = new ConcurrentHashMap<>();
 
     private static final String[] FROM_CURRENCIES = {"GBP", "AED"};
     private static final String TO_CURRENCY = "INR";
 
+    // 3 attempts, 5s then 10s apart; a Retry-After pause is waited out by the fetcher's rate controller
+    private static final RetryTemplate SCRAPE_RETRY = RetryTemplate.builder()
+        .maxAttempts(3)
+        .exponentialBackoff(5000, 2, 60000)
+        .retryOn(RuntimeException.class)
+        .build();
+
+    @Value("${forex.rollup.enabled:true}")
+    private boolean rollupEnabled;
+
+    // how far back each run looks for windows that were never fetched
+    @Value("${forex.coverage.catch-up-days:7}")
+    private int catchUpDays;
+
+    @Value("${forex.coverage.catch-up-on-startup:true}")
+    private boolean catchUpOnStartup;
+
     /* 
         testing the scheduler
         @Scheduled(cron = "0 * * * * *", zone = "Asia/Kolkata") 
@@ -44,98 +96,193 @@ public class ForexSchedulerConfig {
         log.info("Starting daily forex data scraping at {}", LocalDateTime.now());
         
         LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusDays(1);
-        
+        LocalDate startDate = endDate.minusDays(Math.max(catchUpDays, 1));
+
+        List<ScrapeTask> tasks = gapTasks("daily", Frequency.DAILY, startDate, endDate, this::scrapeDailyDataWithRetry);
+        runJob("daily", tasks);
+        prerenderReports(endDate);
+    }
+
+    // the default report is what most downloads ask for; render it once per new data version
+    private void prerenderReports(LocalDate endDate) {
+        LocalDate startDate = endDate.minusDays(ForexPdfService.DEFAULT_REPORT_DAYS);
         for (String fromCurrency : FROM_CURRENCIES) {
-            scrapeDailyDataWithRetry(
-                fromCurrency, 
-                TO_CURRENCY,
-                dateToUnixTimestamp(startDate),
-                dateToUnixTimestamp(endDate)
-            );
+            try {
+                forexReportCache.get(fromCurrency, TO_CURRENCY, startDate, endDate, Frequency.DAILY,
+                    () -> forexPdfService.renderForexReport(fromCurrency, TO_CURRENCY, startDate, endDate, Frequency.DAILY));
+            } catch (RuntimeException e) {
+                log.error("Error pre-rendering report for {}-{}: {}", fromCurrency, TO_CURRENCY, e.getMessage());
+            }
         }
     }
     
     @Scheduled(cron = "0 15 0 * * MON")
     public void scheduleWeeklyScraping() {
+        if (rollupEnabled) {
+            log.info("Skipping weekly scraping, weekly bars are rolled up from daily data");
+            return;
+        }
         log.info("Starting weekly forex data scraping at {}", LocalDateTime.now());
         
         LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusWeeks(1); 
-        
-        for (String fromCurrency : FROM_CURRENCIES) {
-            scrapeWeeklyDataWithRetry(
-                fromCurrency,
-                TO_CURRENCY,
-                dateToUnixTimestamp(startDate),
-                dateToUnixTimestamp(endDate)
-            );
-        }
+        LocalDate startDate = earliest(endDate.minusWeeks(1), endDate.minusDays(catchUpDays));
+
+        List<ScrapeTask> tasks = gapTasks("weekly", Frequency.WEEKLY, startDate, endDate, this::scrapeWeeklyDataWithRetry);
+        runJob("weekly", tasks);
     }
     
     @Scheduled(cron = "0 30 0 1 * *")
     public void scheduleMonthlyScraping() {
+        if (rollupEnabled) {
+            log.info("Skipping monthly scraping, monthly bars are rolled up from daily data");
+            return;
+        }
         log.info("Starting monthly forex data scraping at {}", LocalDateTime.now());
         
         LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusMonths(1); 
-        
+        LocalDate startDate = earliest(endDate.minusMonths(1), endDate.minusDays(catchUpDays));
+
+        List<ScrapeTask> tasks = gapTasks("monthly", Frequency.MONTHLY, startDate, endDate, this::scrapeMonthlyDataWithRetry);
+        runJob("monthly", tasks);
+    }
+    
+    /**
+     * Catches up on windows missed while the application was down. Runs on
+     * the scheduler thread once startup has finished, so it does not delay
+     * readiness.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleCatchUp() {
+        if (!catchUpOnStartup) {
+            return;
+        }
+        taskScheduler.schedule(() -> {
+            log.info("Catching up on forex data missed in the last {} days", catchUpDays);
+            scheduleDailyScraping();
+            if (!rollupEnabled) {
+                scheduleWeeklyScraping();
+                scheduleMonthlyScraping();
+            }
+        }, Instant.now());
+    }
+
+    @FunctionalInterface
+    private interface WindowScrape {
+        void scrape(String fromCurrency, String toCurrency, long fromDate, long toDate);
+    }
+
+    // one task per configured pair and not yet covered part of [startDate, endDate)
+    private List<ScrapeTask> gapTasks(String job, Frequency frequency, LocalDate startDate, LocalDate endDate, WindowScrape scrape) {
+        List<ScrapeTask> tasks = new ArrayList<>();
         for (String fromCurrency : FROM_CURRENCIES) {
-            scrapeMonthlyDataWithRetry(
-                fromCurrency,
-                TO_CURRENCY,
-                dateToUnixTimestamp(startDate),
-                dateToUnixTimestamp(endDate)
-            );
+            Optional<CurrencyPair> pair = currencyPairRegistry.find(fromCurrency, TO_CURRENCY);
+            List<DateRange> gaps = pair.isPresent()
+                ? scrapeCoverageService.gaps(pair.get().getId(), frequency, startDate, endDate.minusDays(1))
+                : List.of(new DateRange(startDate, endDate.minusDays(1)));
+            for (DateRange gap : gaps) {
+                long fromDate = dateToUnixTimestamp(gap.start());
+                long toDate = dateToUnixTimestamp(gap.end().plusDays(1));
+                tasks.add(new ScrapeTask(job + " " + fromCurrency + "-" + TO_CURRENCY + " " + gap.start() + ".." + gap.end(),
+                    YahooFinanceScraperService.HOST,
+                    () -> scrape.scrape(fromCurrency, TO_CURRENCY, fromDate, toDate)));
+            }
         }
+        return tasks;
     }
-    
-    @Retryable(
-        value = {RuntimeException.class},
-        maxAttempts = 3,
-        backoff = @Backoff(delay = 5000, multiplier = 2)
-    )
-    private void scrapeDailyDataWithRetry(String fromCurrency, String toCurrency, long fromDate, long toDate) {
-        try {
-            log.info("Scraping daily data for {}-{}", fromCurrency, toCurrency);
-            yahooFinanceScraper.scrapeDailyData(fromCurrency, toCurrency, fromDate, toDate);
-            log.info("Successfully scraped daily data for {}-{}", fromCurrency, toCurrency);
-        } catch (Exception e) {
-            log.error("Error scraping daily data for {}-{}: {}", fromCurrency, toCurrency, e.getMessage());
-            throw e; 
+
+    private static LocalDate earliest(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private void runJob(String job, List<ScrapeTask> tasks) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<ScrapeResult> results = scrapeExecutor.runAll(tasks);
+        long failed = results.stream().filter(result -> !result.isSuccess()).count();
+        String outcome = failed == 0 ? "success" : failed == results.size() ? "failure" : "partial";
+        sample.stop(Timer.builder("forex.scheduler.job")
+            .description("Scheduled scrape runs")
+            .tags("job", job, "outcome", outcome)
+            .register(meterRegistry));
+        if (failed == 0) {
+            lastSuccess(job).set(System.currentTimeMillis());
         }
+        log.info("Finished {} scraping: {} of {} tasks succeeded", job, results.size() - failed, results.size());
     }
-    
-    @Retryable(
-        value = {RuntimeException.class},
-        maxAttempts = 3,
-        backoff = @Backoff(delay = 5000, multiplier = 2)
-    )
-    private void scrapeWeeklyDataWithRetry(String fromCurrency, String toCurrency, long fromDate, long toDate) {
-        try {
-            log.info("Scraping weekly data for {}-{}", fromCurrency, toCurrency);
-            yahooFinanceScraper.scrapeWeeklyData(fromCurrency, toCurrency, fromDate, toDate);
-            log.info("Successfully scraped weekly data for {}-{}", fromCurrency, toCurrency);
-        } catch (Exception e) {
-            log.error("Error scraping weekly data for {}-{}: {}", fromCurrency, toCurrency, e.getMessage());
-            throw e;
+
+    private AtomicLong lastSuccess(String job) {
+        return lastSuccess.computeIfAbsent(job, key -> {
+            AtomicLong at = new AtomicLong(System.currentTimeMillis());
+            Gauge.builder("forex.scheduler.job.since.success", at, value -> (System.currentTimeMillis() - value.get()) / 1000.0)
+                .description("Seconds since the job last ran without a failed task, counted from startup until then")
+                .baseUnit("seconds")
+                .tag("job", key)
+                .register(meterRegistry);
+            return at;
+        });
+    }
+
+    /**
+     * Staleness gauges for alerting: how far the newest daily row of each
+     * scheduled pair is behind today, and how long ago each job last
+     * succeeded. A job that keeps running but stops producing rows shows up
+     * in the first.
+     */
+    @PostConstruct
+    public void registerLagGauges() {
+        for (String fromCurrency : FROM_CURRENCIES) {
+            Gauge.builder("forex.data.lag", this, config -> config.dataLagDays(fromCurrency))
+                .description("Days between today and the newest daily row")
+                .baseUnit("days")
+                .tag("pair", fromCurrency + "-" + TO_CURRENCY)
+                .register(meterRegistry);
+        }
+        lastSuccess("daily");
+        if (!rollupEnabled) {
+            lastSuccess("weekly");
+            lastSuccess("monthly");
         }
     }
-    
-    @Retryable(
-        value = {RuntimeException.class},
-        maxAttempts = 3,
-        backoff = @Backoff(delay = 5000, multiplier = 2)
-    )
-    private void scrapeMonthlyDataWithRetry(String fromCurrency, String toCurrency, long fromDate, long toDate) {
-        try {
-            log.info("Scraping monthly data for {}-{}", fromCurrency, toCurrency);
-            yahooFinanceScraper.scrapeMonthlyData(fromCurrency, toCurrency, fromDate, toDate);
-            log.info("Successfully scraped monthly data for {}-{}", fromCurrency, toCurrency);
-        } catch (Exception e) {
-            log.error("Error scraping monthly data for {}-{}: {}", fromCurrency, toCurrency, e.getMessage());
-            throw e; 
+
+    private double dataLagDays(String fromCurrency) {
+        Optional<CurrencyPair> pair = currencyPairRegistry.find(fromCurrency, TO_CURRENCY);
+        if (pair.isEmpty() || !seriesStore.isLoaded()) {
+            return Double.NaN;
+        }
+        PriceSeries daily = seriesStore.get(pair.get().getId(), Frequency.DAILY);
+        if (daily.size() == 0) {
+            return Double.NaN;
         }
+        return ChronoUnit.DAYS.between(daily.date(daily.size() - 1), LocalDate.now());
+    }
+
+    private void scrapeDailyDataWithRetry(String fromCurrency, String toCurrency, long fromDate, long toDate) {
+        scrapeWithRetry("daily", fromCurrency, toCurrency,
+            () -> yahooFinanceScraper.scrapeDailyData(fromCurrency, toCurrency, fromDate, toDate));
+    }
+
+    private void scrapeWeeklyDataWithRetry(String fromCurrency, String toCurrency, long fromDate, long toDate) {
+        scrapeWithRetry("weekly", fromCurrency, toCurrency,
+            () -> yahooFinanceScraper.scrapeWeeklyData(fromCurrency, toCurrency, fromDate, toDate));
+    }
+
+    private void scrapeMonthlyDataWithRetry(String fromCurrency, String toCurrency, long fromDate, long toDate) {
+        scrapeWithRetry("monthly", fromCurrency, toCurrency,
+            () -> yahooFinanceScraper.scrapeMonthlyData(fromCurrency, toCurrency, fromDate, toDate));
+    }
+
+    // explicit template: these methods are called from inside the class, which an @Retryable proxy never sees
+    private void scrapeWithRetry(String job, String fromCurrency, String toCurrency, Runnable scrape) {
+        SCRAPE_RETRY.execute(context -> {
+            try {
+                log.info("Scraping {} data for {}-{} (attempt {})", job, fromCurrency, toCurrency, context.getRetryCount() + 1);
+                scrape.run();
+                log.info("Successfully scraped {} data for {}-{}", job, fromCurrency, toCurrency);
+                return null;
+            } catch (RuntimeException e) {
+                log.error("Error scraping {} data for {}-{}: {}", job, fromCurrency, toCurrency, e.getMessage());
+                throw e;
+            }
+        });
     }
       
     private static long dateToUnixTimestamp(LocalDate date) {
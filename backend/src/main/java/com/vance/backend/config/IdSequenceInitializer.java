@@ -0,0 +1,45 @@
+package com.vance.backend.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * The rate tables used to be populated through identity columns. Hibernate
+ * creates the pooled sequences empty, so they are moved past the highest
+ * existing id on startup before anything is written.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class IdSequenceInitializer implements ApplicationRunner {
+
+    // must match allocationSize on the entities' @SequenceGenerator
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+        "exchange_rate", "exchange_rate_seq",
+        "weekly_exchange_rate", "weekly_exchange_rate_seq",
+        "monthly_exchange_rate", "monthly_exchange_rate_seq"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        SEQUENCES.forEach((table, sequence) -> {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            long restartWith = maxId + ALLOCATION_SIZE + 1;
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + restartWith);
+            log.info("Sequence {} restarted at {}", sequence, restartWith);
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.vance.backend.config;
+
+import com.vance.backend.models.Prices;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Prices used to be stored as nullable doubles in {@code *_price} columns.
+ * Hibernate adds the {@code *_micros} columns next to them with every row
+ * missing; this copies the old values across, rounded to the nearest
+ * micro-unit, and drops the old columns. A no-op once they are gone.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@RequiredArgsConstructor
+public class PriceColumnMigration implements ApplicationRunner {
+
+    private static final List<String> TABLES = List.of("exchange_rate", "weekly_exchange_rate", "monthly_exchange_rate");
+
+    private static final List<String> PRICES = List.of("open", "high", "low", "close");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (String table : TABLES) {
+            int rows = -1;
+            // column by column, so a run interrupted between two drops finishes the rest on the next start
+            for (String price : PRICES) {
+                if (!hasColumn(table, price + "_price")) {
+                    continue;
+                }
+                rows = jdbcTemplate.update("UPDATE " + table + " SET " + price + "_micros = COALESCE(CAST(ROUND("
+                    + price + "_price * " + Prices.ONE + ") AS BIGINT), " + Prices.MISSING + ")");
+                jdbcTemplate.execute("ALTER TABLE " + table + " DROP COLUMN " + price + "_price");
+            }
+            if (rows >= 0) {
+                log.info("Moved {} rows of {} to fixed-point prices", rows, table);
+            }
+        }
+    }
+
+    private boolean hasColumn(String table, String column) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE LOWER(TABLE_NAME) = ? AND LOWER(COLUMN_NAME) = ?",
+            Integer.class, table, column);
+        return count != null && count > 0;
+    }
+}
@@ -1,17 +1,33 @@
 package com.vance.backend.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.vance.backend.dto.BackfillJobStatus;
 import com.vance.backend.dto.ForexDataResponse;
+import com.vance.backend.dto.ForexIndicatorsResponse;
+import com.vance.backend.dto.ReplayResult;
+import com.vance.backend.services.BackfillJobService;
+import com.vance.backend.services.ForexIndicatorService;
 import com.vance.backend.services.ForexPdfService;
 import com.vance.backend.services.ForexService;
-import com.vance.backend.services.scrappers.interfaces.DataPopulation;
+import com.vance.backend.services.ForexService.ForexQuery;
+import com.vance.backend.services.ForexStreamingService;
+import com.vance.backend.services.cache.ForexReportCache;
+import com.vance.backend.services.cache.ForexResponseCache;
+import com.vance.backend.services.scrappers.impl.PageCacheReplayService;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.net.URI;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api")
@@ -20,14 +36,24 @@ public class ScrapeController {
     private static final Logger logger = LoggerFactory.getLogger(ScrapeController.class);
 
     @Autowired
-    private DataPopulation populationService;
+    private BackfillJobService backfillJobService;
     @Autowired
     private ForexService forexService;
     @Autowired
+    private ForexIndicatorService forexIndicatorService;
+    @Autowired
     private ForexPdfService forexPdfService;
+    @Autowired
+    private ForexResponseCache forexResponseCache;
+    @Autowired
+    private ForexStreamingService forexStreamingService;
+    @Autowired
+    private ForexReportCache forexReportCache;
+    @Autowired
+    private PageCacheReplayService pageCacheReplayService;
 
     @PostMapping("/populate")
-    public ResponseEntity<String> populateHistoricalData(
+    public ResponseEntity<BackfillJobStatus> populateHistoricalData(
             @RequestParam String fromCurrency,
             @RequestParam String toCurrency,
             @RequestParam String startDate,
@@ -35,24 +61,76 @@ public class ScrapeController {
         try {
             LocalDate start = LocalDate.parse(startDate);
             LocalDate end = LocalDate.parse(endDate);
-            populationService.populateHistoricalData(fromCurrency, toCurrency, start, end);
-            logger.info("Historical data population initiated successfully for pair: {} to {}", fromCurrency, toCurrency);
-            return ResponseEntity.ok("Historical data has been populated successfully for: " + fromCurrency + " to " + toCurrency);
+            BackfillJobStatus job = backfillJobService.submit(fromCurrency, toCurrency, start, end);
+            logger.info("Historical data population job {} submitted for pair: {} to {}", job.getJobId(), fromCurrency, toCurrency);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(URI.create("/api/populate/jobs/" + job.getJobId()))
+                    .body(job);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            logger.error("Invalid population request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error occurred while submitting historical data population: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/populate/jobs/{jobId}")
+    public ResponseEntity<BackfillJobStatus> getPopulationJob(@PathVariable Long jobId) {
+        try {
+            return ResponseEntity.ok(backfillJobService.status(jobId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/populate/jobs/{jobId}/retry")
+    public ResponseEntity<BackfillJobStatus> retryPopulationJob(@PathVariable Long jobId) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(backfillJobService.retryFailed(jobId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/page-cache/replay")
+    public ResponseEntity<ReplayResult> replayPageCache() {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(URI.create("/api/page-cache/replay"))
+                    .body(pageCacheReplayService.start());
+        } catch (IllegalStateException e) {
+            logger.error("Cannot replay page cache: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
-            logger.error("Error occurred while populating historical data: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Failed to populate historical data: " + e.getMessage());
+            logger.error("Error replaying page cache: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
         }
     }
 
+    @GetMapping("/page-cache/replay")
+    public ResponseEntity<ReplayResult> getPageCacheReplay() {
+        return pageCacheReplayService.latest()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/forex-data")
     public ResponseEntity<ForexDataResponse> getForexData(
             @RequestParam String from,
             @RequestParam String to,
-            @RequestParam String period) {
+            @RequestParam String period,
+            @RequestParam(required = false) Integer maxPoints,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            ForexDataResponse response = forexService.getForexData(from, to, period);
-            return ResponseEntity.ok(response);
+            // an invalid request or unknown pair is a 400 whatever the client claims to hold
+            ForexQuery query = forexService.resolve(from, to, period, maxPoints);
+            String etag = forexResponseCache.etag(query);
+            if (matchesEtag(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            ForexDataResponse response = forexResponseCache.get(etag, () -> forexService.getForexData(query));
+            return ResponseEntity.ok().eTag(etag).body(response);
         } catch (IllegalArgumentException e) {
             logger.error("Invalid request parameters: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
@@ -61,21 +139,119 @@ public class ScrapeController {
             return ResponseEntity.internalServerError().build();
         }
     }
+
+    @GetMapping("/forex-data/batch")
+    public ResponseEntity<List<ForexDataResponse>> getForexDataBatch(
+            @RequestParam List<String> pairs,
+            @RequestParam String period,
+            @RequestParam(required = false) Integer maxPoints) {
+        try {
+            return ResponseEntity.ok(forexService.getForexDataBatch(pairs, period, maxPoints));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid request parameters: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error fetching forex data batch: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/forex-data/stream")
+    public ResponseEntity<StreamingResponseBody> streamForexData(
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam String period) {
+        try {
+            StreamingResponseBody body = forexStreamingService.streamForexData(from, to, period);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid request parameters: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error streaming forex data: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/forex-aggregates")
+    public ResponseEntity<ForexDataResponse.AggregateStatistics> getForexAggregates(
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam String period) {
+        try {
+            return ResponseEntity.ok(forexService.getAggregates(from, to, period));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid request parameters: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error fetching forex aggregates: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/forex-indicators")
+    public ResponseEntity<ForexIndicatorsResponse> getForexIndicators(
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam String period) {
+        try {
+            return ResponseEntity.ok(forexIndicatorService.getIndicators(from, to, period));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid request parameters: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error fetching forex indicators: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     @GetMapping("/forex-pdf")
-    public ResponseEntity<byte[]> downloadForexPdf(
+    public ResponseEntity<StreamingResponseBody> downloadForexPdf(
             @RequestParam String fromCurrency,
-            @RequestParam String toCurrency) {
+            @RequestParam String toCurrency,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(defaultValue = "DAILY") String frequency) {
         try {
-            byte[] pdfBytes = forexPdfService.generateForexReport(fromCurrency, toCurrency);
-            
+            LocalDate end = endDate == null ? LocalDate.now() : LocalDate.parse(endDate);
+            LocalDate start = startDate == null
+                    ? end.minusDays(ForexPdfService.DEFAULT_REPORT_DAYS) : LocalDate.parse(startDate);
+            Frequency barFrequency = Frequency.valueOf(frequency.toUpperCase());
+            StreamingResponseBody body;
+            if (forexReportCache.isCacheable(start, end)) {
+                byte[] report = forexReportCache.get(fromCurrency, toCurrency, start, end, barFrequency,
+                        () -> forexPdfService.renderForexReport(fromCurrency, toCurrency, start, end, barFrequency));
+                body = out -> out.write(report);
+            } else {
+                body = forexPdfService.streamForexReport(fromCurrency, toCurrency, start, end, barFrequency);
+            }
+
             return ResponseEntity.ok()
                     .header("Content-Type", "application/pdf")
                     .header("Content-Disposition", 
                         "attachment; filename=\"" + fromCurrency + "_" + toCurrency + "_report.pdf\"")
-                    .body(pdfBytes);
+                    .body(body);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            logger.error("Invalid report parameters: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error generating PDF report: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
         }
     }
+
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,45 @@
+package com.vance.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillJobStatus {
+    private Long jobId;
+    private String fromCurrency;
+    private String toCurrency;
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate;
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate endDate;
+    private String status;
+    private int totalChunks;
+    private int succeededChunks;
+    private int failedChunks;
+    private int pendingChunks;
+    private int runningChunks;
+    private double progressPercent;
+    private double daysPerSecond;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private List<ChunkError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChunkError {
+        @JsonFormat(pattern = "yyyy-MM-dd")
+        private LocalDate startDate;
+        @JsonFormat(pattern = "yyyy-MM-dd")
+        private LocalDate endDate;
+        private int attempts;
+        private String error;
+    }
+}
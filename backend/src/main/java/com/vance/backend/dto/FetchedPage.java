@@ -0,0 +1,15 @@
+package com.vance.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FetchedPage {
+    private String url;
+    private int statusCode;
+    private String body;
+    private long elapsedMillis;
+}
@@ -1,49 +1,65 @@
 package com.vance.backend.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Value;
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
 
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
+/**
+ * Immutable, since built responses are cached and handed to concurrent
+ * requests as they are.
+ */
+@Value
 public class ForexDataResponse {
-    private String fromCurrency;
-    private String toCurrency;
-    private String period;
-    private AggregateStatistics aggregates;
-    private ForexTimeSeriesData timeSeriesData;
+    String fromCurrency;
+    String toCurrency;
+    String period;
+    AggregateStatistics aggregates;
+    ForexTimeSeriesData timeSeriesData;
+    /** Set only for pairs served from other pairs' data. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    PairDerivation derivation;
     
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
+    /** Prices are micro-units, see {@link com.vance.backend.models.Prices}. */
+    @Value
     public static class ForexDataPoint {
         @JsonFormat(pattern = "yyyy-MM-dd")
-        private LocalDate date;
-        private Double openPrice;
-        private Double highPrice;
-        private Double lowPrice;
-        private Double closePrice;
+        LocalDate date;
+        @JsonSerialize(using = PriceSerializer.class)
+        long openPrice;
+        @JsonSerialize(using = PriceSerializer.class)
+        long highPrice;
+        @JsonSerialize(using = PriceSerializer.class)
+        long lowPrice;
+        @JsonSerialize(using = PriceSerializer.class)
+        long closePrice;
     }
     
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
+    /** Close price statistics in micro-units; all zero when the range has no closes. */
+    @Value
     public static class AggregateStatistics {
-        private Double maximumPrice;
-        private Double minimumPrice;
-        private Double averagePrice;
+        @JsonSerialize(using = PriceSerializer.class)
+        long maximumPrice;
+        @JsonSerialize(using = PriceSerializer.class)
+        long minimumPrice;
+        @JsonSerialize(using = PriceSerializer.class)
+        long averagePrice;
     }
     
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
+    @Value
     public static class ForexTimeSeriesData {
-        private List<ForexDataPoint> dailyData;
-        private List<ForexDataPoint> weeklyData;
-        private List<ForexDataPoint> monthlyData;
+        List<ForexDataPoint> dailyData;
+        List<ForexDataPoint> weeklyData;
+        List<ForexDataPoint> monthlyData;
+
+        public ForexTimeSeriesData(List<ForexDataPoint> dailyData, List<ForexDataPoint> weeklyData,
+                                   List<ForexDataPoint> monthlyData) {
+            this.dailyData = Collections.unmodifiableList(dailyData);
+            this.weeklyData = Collections.unmodifiableList(weeklyData);
+            this.monthlyData = Collections.unmodifiableList(monthlyData);
+        }
     }
 }
\ No newline at end of file
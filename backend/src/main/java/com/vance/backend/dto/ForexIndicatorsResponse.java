@@ -0,0 +1,21 @@
+package com.vance.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Indicators for one pair: the values after the most recent day, and one
+ * point per day of the requested period.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ForexIndicatorsResponse {
+    private String fromCurrency;
+    private String toCurrency;
+    private String period;
+    private IndicatorPoint latest;
+    private List<IndicatorPoint> series;
+}
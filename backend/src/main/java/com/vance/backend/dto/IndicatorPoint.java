@@ -0,0 +1,34 @@
+package com.vance.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * Indicator values as of one day's close. Price-valued fields are
+ * micro-units, see {@link com.vance.backend.models.Prices}; missing ones
+ * (window not yet filled) are written as {@code null}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndicatorPoint {
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate date;
+    @JsonSerialize(using = PriceSerializer.class)
+    private long sma20;
+    @JsonSerialize(using = PriceSerializer.class)
+    private long sma50;
+    @JsonSerialize(using = PriceSerializer.class)
+    private long sma200;
+    @JsonSerialize(using = PriceSerializer.class)
+    private long ema12;
+    @JsonSerialize(using = PriceSerializer.class)
+    private long ema26;
+    @JsonSerialize(using = PriceSerializer.class)
+    private long atr14;
+    private Double volatility20;
+}
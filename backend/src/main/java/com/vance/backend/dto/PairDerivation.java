@@ -0,0 +1,22 @@
+package com.vance.backend.dto;
+
+import lombok.Value;
+import java.util.List;
+
+/**
+ * How a pair that is not scraped was derived from stored ones, given as
+ * {@code FROM-TO} codes. When {@code highLowBounds} is set, high and low are
+ * the widest range the legs allow rather than observed prices.
+ */
+@Value
+public class PairDerivation {
+
+    public enum Method {
+        INVERSE,
+        CROSS
+    }
+
+    Method method;
+    List<String> legs;
+    boolean highLowBounds;
+}
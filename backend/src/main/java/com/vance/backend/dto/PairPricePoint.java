@@ -0,0 +1,22 @@
+package com.vance.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * {@link PricePoint} tagged with its pair, for queries that read several
+ * pairs at once.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PairPricePoint {
+    private Long currencyPairId;
+    private LocalDate date;
+    private long openPrice;
+    private long highPrice;
+    private long lowPrice;
+    private long closePrice;
+}
@@ -0,0 +1,22 @@
+package com.vance.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of a daily, weekly or monthly rate row, filled
+ * directly from JPQL constructor expressions without hydrating entities.
+ * Prices are micro-units, see {@link com.vance.backend.models.Prices}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PricePoint {
+    private LocalDate date;
+    private long openPrice;
+    private long highPrice;
+    private long lowPrice;
+    private long closePrice;
+}
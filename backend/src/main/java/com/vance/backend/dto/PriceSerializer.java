@@ -0,0 +1,32 @@
+package com.vance.backend.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.vance.backend.models.Prices;
+
+import java.io.IOException;
+
+/**
+ * Writes a micro-unit price as a plain JSON number, or {@code null} when it
+ * is missing.
+ */
+public class PriceSerializer extends StdSerializer<Long> {
+
+    public PriceSerializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public void serialize(Long price, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        write(gen, price);
+    }
+
+    public static void write(JsonGenerator gen, long price) throws IOException {
+        if (Prices.isMissing(price)) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(Prices.toPlainString(price));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.vance.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/** Progress of a page cache replay; counts grow while it is RUNNING. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplayResult {
+    private String status;
+    private int pages;
+    private int skippedPages;
+    private long rows;
+    private long elapsedMillis;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -0,0 +1,15 @@
+package com.vance.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScrapeResult {
+    private String task;
+    private boolean success;
+    private String error;
+    private long durationMillis;
+}
@@ -0,0 +1,23 @@
+package com.vance.backend.events;
+
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.time.LocalDate;
+
+/**
+ * Published by the ingest service inside the write transaction whenever
+ * rows for a pair are stored. Dates are the first and last bucket written.
+ */
+@Data
+@AllArgsConstructor
+public class ForexDataIngestedEvent {
+    private Long currencyPairId;
+    private String fromCurrency;
+    private String toCurrency;
+    private Frequency frequency;
+    private LocalDate firstDate;
+    private LocalDate lastDate;
+    private int rowCount;
+}
@@ -0,0 +1,59 @@
+package com.vance.backend.models;
+
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "backfill_chunk", indexes = {
+    @Index(name = "idx_backfill_chunk_job", columnList = "job_id, start_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillChunk {
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "duration_millis")
+    private Long durationMillis;
+
+    public BackfillChunk(Long jobId, LocalDate startDate, LocalDate endDate) {
+        this.jobId = jobId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = Status.PENDING;
+    }
+}
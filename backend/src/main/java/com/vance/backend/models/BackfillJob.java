@@ -0,0 +1,55 @@
+package com.vance.backend.models;
+
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "backfill_job")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillJob {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "from_currency", nullable = false, length = 3)
+    private String fromCurrency;
+
+    @Column(name = "to_currency", nullable = false, length = 3)
+    private String toCurrency;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public BackfillJob(String fromCurrency, String toCurrency, LocalDate startDate, LocalDate endDate) {
+        this.fromCurrency = fromCurrency;
+        this.toCurrency = toCurrency;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = Status.RUNNING;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -7,7 +7,9 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "currency_pair")
+@Table(name = "currency_pair", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_currency_pair_codes", columnNames = {"from_currency", "to_currency"})
+})
 @Data 
 @NoArgsConstructor 
 @AllArgsConstructor 
@@ -0,0 +1,52 @@
+package com.vance.backend.models;
+
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Indicator values for one pair as of the close of one day, derived from
+ * the daily rates. Price-valued indicators are micro-units, see
+ * {@link Prices}, and {@link Prices#MISSING} until enough days have been
+ * seen to fill their window.
+ */
+@Entity
+@Table(name = "daily_indicator", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_daily_indicator_pair_date", columnNames = {"currency_pair_id", "date"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyIndicator {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "currency_pair_id", nullable = false)
+    private Long currencyPairId;
+
+    @Column(name = "date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "sma20", nullable = false)
+    private long sma20;
+
+    @Column(name = "sma50", nullable = false)
+    private long sma50;
+
+    @Column(name = "sma200", nullable = false)
+    private long sma200;
+
+    @Column(name = "ema12", nullable = false)
+    private long ema12;
+
+    @Column(name = "ema26", nullable = false)
+    private long ema26;
+
+    @Column(name = "atr14", nullable = false)
+    private long atr14;
+
+    // sample standard deviation of the last 20 daily log returns
+    @Column(name = "volatility20")
+    private Double volatility20;
+}
@@ -5,31 +5,35 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "exchange_rate")
+@Table(name = "exchange_rate", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_exchange_rate_pair_date", columnNames = {"currency_pair_id", "date"})
+})
 @Data 
 @NoArgsConstructor 
 @AllArgsConstructor
 public class ExchangeRate {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exchange_rate_seq")
+    @SequenceGenerator(name = "exchange_rate_seq", sequenceName = "exchange_rate_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "currency_pair_id", nullable = false)
     private CurrencyPair currencyPair;
 
     @Column(name = "date", nullable = false)
     private LocalDate date;
 
-    @Column(name = "open_price")
-    private Double openPrice;
+    // micro-units, see Prices
+    @Column(name = "open_micros", nullable = false, columnDefinition = Prices.COLUMN_DEFINITION)
+    private long openPrice;
 
-    @Column(name = "high_price")
-    private Double highPrice;
+    @Column(name = "high_micros", nullable = false, columnDefinition = Prices.COLUMN_DEFINITION)
+    private long highPrice;
 
-    @Column(name = "low_price")
-    private Double lowPrice;
+    @Column(name = "low_micros", nullable = false, columnDefinition = Prices.COLUMN_DEFINITION)
+    private long lowPrice;
 
-    @Column(name = "close_price")
-    private Double closePrice;
+    @Column(name = "close_micros", nullable = false, columnDefinition = Prices.COLUMN_DEFINITION)
+    private long closePrice;
 }
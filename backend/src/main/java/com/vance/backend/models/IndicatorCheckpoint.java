@@ -0,0 +1,38 @@
+package com.vance.backend.models;
+
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Serialized indicator state for a pair after folding in every daily rate
+ * up to and including {@code date}. Every pair keeps one checkpoint per
+ * {@code rowCount} multiple of the checkpoint interval plus its newest one,
+ * so a restart resumes from the newest and a rewrite of older days replays
+ * from the nearest earlier checkpoint.
+ */
+@Entity
+@Table(name = "indicator_checkpoint", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_indicator_checkpoint_pair_date", columnNames = {"currency_pair_id", "date"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndicatorCheckpoint {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "currency_pair_id", nullable = false)
+    private Long currencyPairId;
+
+    @Column(name = "date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "row_count", nullable = false)
+    private long rowCount;
+
+    @Lob
+    @Column(name = "state", nullable = false)
+    private byte[] state;
+}
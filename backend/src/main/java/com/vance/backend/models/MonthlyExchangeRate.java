@@ -7,32 +7,36 @@ import java.time.LocalDate;
 @Entity
 @Table(name = "monthly_exchange_rate", indexes = {
     @Index(name = "idx_month_start_currency_pair", columnList = "month_start, currency_pair_id")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_monthly_exchange_rate_pair_month_start", columnNames = {"currency_pair_id", "month_start"})
 })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class MonthlyExchangeRate {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "monthly_exchange_rate_seq")
+    @SequenceGenerator(name = "monthly_exchange_rate_seq", sequenceName = "monthly_exchange_rate_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "currency_pair_id", nullable = false)
     private CurrencyPair currencyPair;
 
     @Column(name = "month_start", nullable = false)
     private LocalDate monthStart;
 
-    @Column(name = "open_price")
-    private Double openPrice;
+    // micro-units, see Prices
+    @Column(name = "open_micros", nullable = false, columnDefinition = Prices.COLUMN_DEFINITION)
+    private long openPrice;
 
-    @Column(name = "high_price")
-    private Double highPrice;
+    @Column(name = "high_micros", nullable = false, columnDefinition = Prices.COLUMN_DEFINITION)
+    private long highPrice;
 
-    @Column(name = "low_price")
-    private Double lowPrice;
+    @Column(name = "low_micros", nullable = false, columnDefinition = Prices.COLUMN_DEFINITION)
+    private long lowPrice;
 
-    @Column(name = "close_price")
-    private Double closePrice;
+    @Column(name = "close_micros", nullable = false, columnDefinition = Prices.COLUMN_DEFINITION)
+    private long closePrice;
 
 }
@@ -0,0 +1,174 @@
+package com.vance.backend.models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Prices are fixed-point {@code long}s in micro-units, millionths of the
+ * quote currency, from the scraped page through storage, the in-memory
+ * series and aggregation. They only become decimals at the edges: JSON
+ * responses and PDF reports. {@link #MISSING} stands for a price the source
+ * left blank.
+ */
+public final class Prices {
+
+    /** Decimal places carried. */
+    public static final int SCALE = 6;
+
+    public static final long ONE = 1_000_000L;
+
+    public static final long MISSING = Long.MIN_VALUE;
+
+    /** Column type for price columns; rows that predate a column read as missing until migrated. */
+    public static final String COLUMN_DEFINITION = "bigint default " + MISSING;
+
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L};
+
+    // more integer digits than this cannot be scaled without overflowing a long
+    private static final int MAX_DIGITS = 18;
+
+    private Prices() {
+    }
+
+    public static boolean isMissing(long price) {
+        return price == MISSING;
+    }
+
+    /** Rounds to the nearest micro-unit; {@code NaN} becomes {@link #MISSING}. */
+    public static long fromDouble(double value) {
+        return Double.isNaN(value) ? MISSING : Math.round(value * ONE);
+    }
+
+    /**
+     * Plain decimal numbers with optional thousands separators, rounded half
+     * up past {@link #SCALE} places; {@link #MISSING} for anything else,
+     * including "-".
+     */
+    public static long parse(CharSequence s) {
+        int n = s.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < n && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            negative = s.charAt(i) == '-';
+            i++;
+        }
+        long value = 0;
+        int digits = 0;
+        int scale = -1;
+        boolean roundUp = false;
+        for (; i < n; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (scale < SCALE) {
+                    if (++digits > MAX_DIGITS) {
+                        return MISSING;
+                    }
+                    value = value * 10 + (c - '0');
+                    if (scale >= 0) {
+                        scale++;
+                    }
+                } else if (scale == SCALE) {
+                    // only the first dropped digit decides the rounding
+                    roundUp = c >= '5';
+                    scale++;
+                }
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
+            } else if (c != ',' || scale >= 0) {
+                return MISSING;
+            }
+        }
+        if (digits == 0) {
+            return MISSING;
+        }
+        try {
+            value = Math.multiplyExact(value, POWERS_OF_TEN[SCALE - Math.min(Math.max(scale, 0), SCALE)]);
+        } catch (ArithmeticException e) {
+            return MISSING;
+        }
+        if (roundUp) {
+            value++;
+        }
+        return negative ? -value : value;
+    }
+
+    /** {@code sum / count} rounded half to even, so the same rows always give the same average. */
+    public static long average(long sum, long count) {
+        long quotient = Math.floorDiv(sum, count);
+        long twiceRemainder = 2 * Math.floorMod(sum, count);
+        if (twiceRemainder > count || (twiceRemainder == count && (quotient & 1) != 0)) {
+            quotient++;
+        }
+        return quotient;
+    }
+
+    /**
+     * {@code numerator / denominator} as a price, rounded half up;
+     * {@link #MISSING} if either is missing or the denominator is not
+     * positive.
+     */
+    public static long ratio(long numerator, long denominator) {
+        if (isMissing(numerator) || isMissing(denominator) || denominator <= 0) {
+            return MISSING;
+        }
+        long scaled;
+        try {
+            scaled = Math.multiplyExact(numerator, ONE);
+        } catch (ArithmeticException e) {
+            return BigDecimal.valueOf(numerator).multiply(BigDecimal.valueOf(ONE))
+                .divide(BigDecimal.valueOf(denominator), 0, RoundingMode.HALF_UP).longValueExact();
+        }
+        long quotient = Math.floorDiv(scaled, denominator);
+        if (2 * Math.floorMod(scaled, denominator) >= denominator) {
+            quotient++;
+        }
+        return quotient;
+    }
+
+    /**
+     * Shortest plain decimal with at least one fractional digit, e.g.
+     * {@code 108.1429} or {@code 100.0}, the way a double would print.
+     */
+    public static String toPlainString(long price) {
+        StringBuilder sb = new StringBuilder(24);
+        long abs = Math.abs(price);
+        if (price < 0) {
+            sb.append('-');
+        }
+        sb.append(abs / ONE).append('.');
+        long fraction = abs % ONE;
+        if (fraction == 0) {
+            return sb.append('0').toString();
+        }
+        int places = SCALE;
+        while (fraction % 10 == 0) {
+            fraction /= 10;
+            places--;
+        }
+        for (int p = places - 1; p > 0 && fraction < POWERS_OF_TEN[p]; p--) {
+            sb.append('0');
+        }
+        return sb.append(fraction).toString();
+    }
+
+    /** Exactly {@code places} decimals (at most {@link #SCALE}), rounded half up. */
+    public static String format(long price, int places) {
+        long unit = POWERS_OF_TEN[SCALE - places];
+        long scaled = (Math.abs(price) + unit / 2) / unit;
+        long divisor = POWERS_OF_TEN[places];
+        StringBuilder sb = new StringBuilder(24);
+        if (price < 0 && scaled != 0) {
+            sb.append('-');
+        }
+        sb.append(scaled / divisor);
+        if (places == 0) {
+            return sb.toString();
+        }
+        sb.append('.');
+        long fraction = scaled % divisor;
+        for (int p = places - 1; p > 0 && fraction < POWERS_OF_TEN[p]; p--) {
+            sb.append('0');
+        }
+        return sb.append(fraction).toString();
+    }
+}
@@ -0,0 +1,45 @@
+package com.vance.backend.models;
+
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
+
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * A date range, inclusive on both ends, that has already been fetched for
+ * a pair at one frequency. Ranges of the same pair and frequency never
+ * overlap or touch; they are merged when recorded.
+ */
+@Entity
+@Table(name = "scrape_coverage", indexes = {
+    @Index(name = "idx_scrape_coverage_pair_frequency", columnList = "currency_pair_id, frequency, start_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScrapeCoverage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "currency_pair_id", nullable = false)
+    private Long currencyPairId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "frequency", nullable = false, length = 16)
+    private Frequency frequency;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    public ScrapeCoverage(Long currencyPairId, Frequency frequency, LocalDate startDate, LocalDate endDate) {
+        this.currencyPairId = currencyPairId;
+        this.frequency = frequency;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+}
@@ -7,32 +7,36 @@ import java.time.LocalDate;
 @Entity
 @Table(name = "weekly_exchange_rate", indexes = {
     @Index(name = "idx_week_start_currency_pair", columnList = "week_start, currency_pair_id")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_weekly_exchange_rate_pair_week_start", columnNames = {"currency_pair_id", "week_start"})
 })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class WeeklyExchangeRate {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "weekly_exchange_rate_seq")
+    @SequenceGenerator(name = "weekly_exchange_rate_seq", sequenceName = "weekly_exchange_rate_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "currency_pair_id", nullable = false)
     private CurrencyPair currencyPair;
 
     @Column(name = "week_start", nullable = false)
     private LocalDate weekStart;
 
-    @Column(name = "open_price")
-    private Double openPrice;
+    // micro-units, see Prices
+    @Column(name = "open_micros", nullable = false, columnDefinition = Prices.COLUMN_DEFINITION)
+    private long openPrice;
 
-    @Column(name = "high_price")
-    private Double highPrice;
+    @Column(name = "high_micros", nullable = false, columnDefinition = Prices.COLUMN_DEFINITION)
+    private long highPrice;
 
-    @Column(name = "low_price")
-    private Double lowPrice;
+    @Column(name = "low_micros", nullable = false, columnDefinition = Prices.COLUMN_DEFINITION)
+    private long lowPrice;
 
-    @Column(name = "close_price")
-    private Double closePrice;
+    @Column(name = "close_micros", nullable = false, columnDefinition = Prices.COLUMN_DEFINITION)
+    private long closePrice;
 
 }
@@ -0,0 +1,15 @@
+package com.vance.backend.repos;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.Collection;
+import java.util.List;
+
+import com.vance.backend.models.BackfillChunk;
+
+public interface BackfillChunkRepository extends JpaRepository<BackfillChunk, Long> {
+    List<BackfillChunk> findByJobIdOrderByStartDate(Long jobId);
+
+    List<BackfillChunk> findByJobIdAndStatus(Long jobId, BackfillChunk.Status status);
+
+    List<BackfillChunk> findByStatusIn(Collection<BackfillChunk.Status> statuses);
+}
@@ -0,0 +1,8 @@
+package com.vance.backend.repos;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.vance.backend.models.BackfillJob;
+
+public interface BackfillJobRepository extends JpaRepository<BackfillJob, Long> {
+}
@@ -0,0 +1,21 @@
+package com.vance.backend.repos;
+
+import com.vance.backend.dto.IndicatorPoint;
+import com.vance.backend.models.DailyIndicator;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyIndicatorRepository extends JpaRepository<DailyIndicator, Long> {
+
+    @Query("select new com.vance.backend.dto.IndicatorPoint(i.date, i.sma20, i.sma50, i.sma200, i.ema12, i.ema26, i.atr14, i.volatility20) "
+        + "from DailyIndicator i where i.currencyPairId = :pairId and i.date between :startDate and :endDate order by i.date")
+    @Transactional(readOnly = true)
+    List<IndicatorPoint> findPoints(@Param("pairId") Long pairId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
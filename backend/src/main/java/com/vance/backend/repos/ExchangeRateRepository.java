@@ -1,14 +1,44 @@
 package com.vance.backend.repos;
 
 import com.vance.backend.models.ExchangeRate;
-import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.dto.PairPricePoint;
+import com.vance.backend.dto.PricePoint;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, Long> {
-    List<ExchangeRate> findByCurrencyPairAndDateBetween(CurrencyPair currencyPair, LocalDate startDate, LocalDate endDate);
+    String PRICE_POINTS = "select new com.vance.backend.dto.PricePoint(r.date, r.openPrice, r.highPrice, r.lowPrice, r.closePrice) "
+        + "from ExchangeRate r where r.currencyPair.id = :pairId ";
+    String ORDERED = " order by r.date";
+
+    @Query(PRICE_POINTS + ORDERED)
+    @Transactional(readOnly = true)
+    List<PricePoint> findAllPricePoints(@Param("pairId") Long pairId);
+
+    @Query(PRICE_POINTS + "and r.date between :startDate and :endDate" + ORDERED)
+    @Transactional(readOnly = true)
+    List<PricePoint> findPricePoints(@Param("pairId") Long pairId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query(PRICE_POINTS + "and r.date between :startDate and :endDate" + ORDERED)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<PricePoint> streamPricePoints(@Param("pairId") Long pairId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("select new com.vance.backend.dto.PairPricePoint(r.currencyPair.id, r.date, r.openPrice, r.highPrice, r.lowPrice, r.closePrice) "
+        + "from ExchangeRate r where r.currencyPair.id in :pairIds and r.date between :startDate and :endDate "
+        + "order by r.currencyPair.id, r.date")
+    @Transactional(readOnly = true)
+    List<PairPricePoint> findPricePointsForPairs(@Param("pairIds") Collection<Long> pairIds, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 }
@@ -2,14 +2,44 @@ package com.vance.backend.repos;
 
 import com.vance.backend.models.ExchangeRate;
 import com.vance.backend.models.MonthlyExchangeRate;
-import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.dto.PairPricePoint;
+import com.vance.backend.dto.PricePoint;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface MonthlyExchangeRateRepository extends JpaRepository<MonthlyExchangeRate, Long> {
-    List<MonthlyExchangeRate> findByCurrencyPairAndMonthStartBetween(CurrencyPair currencyPair, LocalDate startDate, LocalDate endDate);
-}
\ No newline at end of file
+    String PRICE_POINTS = "select new com.vance.backend.dto.PricePoint(r.monthStart, r.openPrice, r.highPrice, r.lowPrice, r.closePrice) "
+        + "from MonthlyExchangeRate r where r.currencyPair.id = :pairId ";
+    String ORDERED = " order by r.monthStart";
+
+    @Query(PRICE_POINTS + ORDERED)
+    @Transactional(readOnly = true)
+    List<PricePoint> findAllPricePoints(@Param("pairId") Long pairId);
+
+    @Query(PRICE_POINTS + "and r.monthStart between :startDate and :endDate" + ORDERED)
+    @Transactional(readOnly = true)
+    List<PricePoint> findPricePoints(@Param("pairId") Long pairId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query(PRICE_POINTS + "and r.monthStart between :startDate and :endDate" + ORDERED)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<PricePoint> streamPricePoints(@Param("pairId") Long pairId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("select new com.vance.backend.dto.PairPricePoint(r.currencyPair.id, r.monthStart, r.openPrice, r.highPrice, r.lowPrice, r.closePrice) "
+        + "from MonthlyExchangeRate r where r.currencyPair.id in :pairIds and r.monthStart between :startDate and :endDate "
+        + "order by r.currencyPair.id, r.monthStart")
+    @Transactional(readOnly = true)
+    List<PairPricePoint> findPricePointsForPairs(@Param("pairIds") Collection<Long> pairIds, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,19 @@
+package com.vance.backend.repos;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.vance.backend.models.ScrapeCoverage;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
+
+import java.time.LocalDate;
+
+public interface ScrapeCoverageRepository extends JpaRepository<ScrapeCoverage, Long> {
+    @Modifying
+    @Query("delete from ScrapeCoverage c where c.currencyPairId = :pairId and c.frequency = :frequency "
+        + "and c.startDate between :from and :to")
+    void deleteStartingBetween(@Param("pairId") Long pairId, @Param("frequency") Frequency frequency,
+                               @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
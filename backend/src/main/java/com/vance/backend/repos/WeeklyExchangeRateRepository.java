@@ -1,14 +1,44 @@
 package com.vance.backend.repos;
 
 import com.vance.backend.models.WeeklyExchangeRate;
-import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.dto.PairPricePoint;
+import com.vance.backend.dto.PricePoint;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface WeeklyExchangeRateRepository extends JpaRepository<WeeklyExchangeRate, Long> {
-    List<WeeklyExchangeRate> findByCurrencyPairAndWeekStartBetween(CurrencyPair currencyPair, LocalDate startDate, LocalDate endDate);
+    String PRICE_POINTS = "select new com.vance.backend.dto.PricePoint(r.weekStart, r.openPrice, r.highPrice, r.lowPrice, r.closePrice) "
+        + "from WeeklyExchangeRate r where r.currencyPair.id = :pairId ";
+    String ORDERED = " order by r.weekStart";
+
+    @Query(PRICE_POINTS + ORDERED)
+    @Transactional(readOnly = true)
+    List<PricePoint> findAllPricePoints(@Param("pairId") Long pairId);
+
+    @Query(PRICE_POINTS + "and r.weekStart between :startDate and :endDate" + ORDERED)
+    @Transactional(readOnly = true)
+    List<PricePoint> findPricePoints(@Param("pairId") Long pairId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query(PRICE_POINTS + "and r.weekStart between :startDate and :endDate" + ORDERED)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<PricePoint> streamPricePoints(@Param("pairId") Long pairId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("select new com.vance.backend.dto.PairPricePoint(r.currencyPair.id, r.weekStart, r.openPrice, r.highPrice, r.lowPrice, r.closePrice) "
+        + "from WeeklyExchangeRate r where r.currencyPair.id in :pairIds and r.weekStart between :startDate and :endDate "
+        + "order by r.currencyPair.id, r.weekStart")
+    @Transactional(readOnly = true)
+    List<PairPricePoint> findPricePointsForPairs(@Param("pairIds") Collection<Long> pairIds, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 }
@@ -0,0 +1,260 @@
+package com.vance.backend.services;
+
+import com.vance.backend.dto.BackfillJobStatus;
+import com.vance.backend.dto.BackfillJobStatus.ChunkError;
+import com.vance.backend.models.BackfillChunk;
+import com.vance.backend.models.BackfillJob;
+import com.vance.backend.repos.BackfillChunkRepository;
+import com.vance.backend.repos.BackfillJobRepository;
+import com.vance.backend.services.scrappers.interfaces.DataPopulation;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs historical backfills in the background. A job's range is split into
+ * chunks of {@code forex.backfill.chunk-days} days that are populated
+ * independently on a bounded pool; chunk state is persisted so progress can
+ * be reported, failed chunks can be retried on their own, and chunks left
+ * unfinished by a restart are resumed on startup.
+ */
+@Slf4j
+@Service
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class BackfillJobService implements ApplicationRunner {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final DataPopulation populationService;
+    private final BackfillJobRepository jobRepository;
+    private final BackfillChunkRepository chunkRepository;
+    private final int chunkDays;
+    private final ExecutorService executor;
+
+    public BackfillJobService(DataPopulation populationService,
+                              BackfillJobRepository jobRepository,
+                              BackfillChunkRepository chunkRepository,
+                              @Value("${forex.backfill.chunk-days:90}") int chunkDays,
+                              @Value("${forex.backfill.pool-size:4}") int poolSize) {
+        this.populationService = populationService;
+        this.jobRepository = jobRepository;
+        this.chunkRepository = chunkRepository;
+        this.chunkDays = chunkDays;
+        this.executor = Executors.newFixedThreadPool(poolSize, new CustomizableThreadFactory("backfill-"));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<BackfillChunk> unfinished = chunkRepository.findByStatusIn(
+            List.of(BackfillChunk.Status.PENDING, BackfillChunk.Status.RUNNING));
+        if (!unfinished.isEmpty()) {
+            log.info("Resuming {} unfinished backfill chunks", unfinished.size());
+            unfinished.forEach(this::enqueue);
+        }
+    }
+
+    public BackfillJobStatus submit(String fromCurrency, String toCurrency, LocalDate startDate, LocalDate endDate) {
+        if (fromCurrency == null || fromCurrency.length() != 3 || toCurrency == null || toCurrency.length() != 3) {
+            throw new IllegalArgumentException("Invalid currency pair");
+        }
+        if (!startDate.isBefore(endDate)) {
+            throw new IllegalArgumentException("Start date must be before end date");
+        }
+        BackfillJob job = jobRepository.save(new BackfillJob(fromCurrency, toCurrency, startDate, endDate));
+
+        // each chunk ends where the next starts: the end date is the exclusive upper bound of the scrape
+        List<BackfillChunk> chunks = new ArrayList<>();
+        for (LocalDate chunkStart = startDate; chunkStart.isBefore(endDate); chunkStart = chunkStart.plusDays(chunkDays)) {
+            LocalDate chunkEnd = chunkStart.plusDays(chunkDays);
+            chunks.add(new BackfillChunk(job.getId(), chunkStart, chunkEnd.isAfter(endDate) ? endDate : chunkEnd));
+        }
+        chunks = chunkRepository.saveAll(chunks);
+        log.info("Backfill job {} for {}-{} split into {} chunks", job.getId(), fromCurrency, toCurrency, chunks.size());
+
+        chunks.forEach(this::enqueue);
+        return status(job.getId());
+    }
+
+    /** Re-runs only the chunks of a job that failed. */
+    public BackfillJobStatus retryFailed(Long jobId) {
+        BackfillJob job = findJob(jobId);
+        List<BackfillChunk> failed = chunkRepository.findByJobIdAndStatus(jobId, BackfillChunk.Status.FAILED);
+        if (failed.isEmpty()) {
+            return status(jobId);
+        }
+        for (BackfillChunk chunk : failed) {
+            chunk.setStatus(BackfillChunk.Status.PENDING);
+        }
+        chunkRepository.saveAll(failed);
+        job.setStatus(BackfillJob.Status.RUNNING);
+        job.setFinishedAt(null);
+        jobRepository.save(job);
+        log.info("Retrying {} failed chunks of backfill job {}", failed.size(), jobId);
+
+        failed.forEach(this::enqueue);
+        return status(jobId);
+    }
+
+    public BackfillJobStatus status(Long jobId) {
+        BackfillJob job = findJob(jobId);
+        List<BackfillChunk> chunks = chunkRepository.findByJobIdOrderByStartDate(jobId);
+
+        int succeeded = 0, failed = 0, pending = 0, running = 0;
+        long succeededDays = 0;
+        long totalDays = ChronoUnit.DAYS.between(job.getStartDate(), job.getEndDate());
+        List<ChunkError> errors = new ArrayList<>();
+        for (BackfillChunk chunk : chunks) {
+            switch (chunk.getStatus()) {
+                case SUCCEEDED -> {
+                    succeeded++;
+                    succeededDays += ChronoUnit.DAYS.between(chunk.getStartDate(), chunk.getEndDate());
+                }
+                case FAILED -> {
+                    failed++;
+                    errors.add(new ChunkError(chunk.getStartDate(), chunk.getEndDate(), chunk.getAttempts(), chunk.getError()));
+                }
+                case PENDING -> pending++;
+                case RUNNING -> running++;
+            }
+        }
+
+        double elapsedSeconds = Math.max(busyMillis(chunks, LocalDateTime.now()), 1) / 1000.0;
+        return new BackfillJobStatus(
+            job.getId(),
+            job.getFromCurrency(),
+            job.getToCurrency(),
+            job.getStartDate(),
+            job.getEndDate(),
+            job.getStatus().name(),
+            chunks.size(),
+            succeeded,
+            failed,
+            pending,
+            running,
+            totalDays == 0 ? 100.0 : 100.0 * succeededDays / totalDays,
+            succeededDays / elapsedSeconds,
+            job.getCreatedAt(),
+            job.getFinishedAt(),
+            errors
+        );
+    }
+
+    /**
+     * Wall-clock time during which at least one chunk was running, so time
+     * spent waiting for a retry does not count against the throughput.
+     * Chunks only keep their latest attempt.
+     */
+    static long busyMillis(List<BackfillChunk> chunks, LocalDateTime now) {
+        List<long[]> spans = new ArrayList<>();
+        for (BackfillChunk chunk : chunks) {
+            if (chunk.getStartedAt() == null) {
+                continue;
+            }
+            long start = chunk.getStartedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            // a running chunk's duration is still the previous attempt's
+            long end = chunk.getStatus() == BackfillChunk.Status.RUNNING || chunk.getDurationMillis() == null
+                ? now.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : start + chunk.getDurationMillis();
+            spans.add(new long[] {start, Math.max(start, end)});
+        }
+        spans.sort(Comparator.comparingLong(span -> span[0]));
+        long busy = 0;
+        long coveredUntil = Long.MIN_VALUE;
+        for (long[] span : spans) {
+            long from = Math.max(span[0], coveredUntil);
+            if (span[1] > from) {
+                busy += span[1] - from;
+                coveredUntil = span[1];
+            }
+        }
+        return busy;
+    }
+
+    private BackfillJob findJob(Long jobId) {
+        return jobRepository.findById(jobId)
+            .orElseThrow(() -> new IllegalArgumentException("Backfill job not found: " + jobId));
+    }
+
+    private void enqueue(BackfillChunk chunk) {
+        executor.submit(() -> {
+            try {
+                runChunk(chunk.getId());
+            } catch (RuntimeException e) {
+                log.error("Backfill chunk {} could not be run: {}", chunk.getId(), e.getMessage());
+            }
+        });
+    }
+
+    private void runChunk(Long chunkId) {
+        BackfillChunk chunk = chunkRepository.findById(chunkId).orElse(null);
+        if (chunk == null || chunk.getStatus() == BackfillChunk.Status.SUCCEEDED) {
+            return;
+        }
+        BackfillJob job = findJob(chunk.getJobId());
+
+        chunk.setStatus(BackfillChunk.Status.RUNNING);
+        chunk.setAttempts(chunk.getAttempts() + 1);
+        chunk.setStartedAt(LocalDateTime.now());
+        chunk.setError(null);
+        chunk = chunkRepository.save(chunk);
+
+        long started = System.currentTimeMillis();
+        try {
+            populationService.populateHistoricalData(job.getFromCurrency(), job.getToCurrency(),
+                chunk.getStartDate(), chunk.getEndDate());
+            chunk.setStatus(BackfillChunk.Status.SUCCEEDED);
+        } catch (RuntimeException e) {
+            log.error("Backfill job {} chunk {} to {} failed: {}", job.getId(), chunk.getStartDate(), chunk.getEndDate(), e.getMessage());
+            chunk.setStatus(BackfillChunk.Status.FAILED);
+            chunk.setError(truncate(e.getMessage()));
+        }
+        chunk.setDurationMillis(System.currentTimeMillis() - started);
+        chunkRepository.save(chunk);
+        finishIfDone(job.getId());
+    }
+
+    // chunks of the same job finish on different workers
+    private synchronized void finishIfDone(Long jobId) {
+        List<BackfillChunk> chunks = chunkRepository.findByJobIdOrderByStartDate(jobId);
+        boolean done = chunks.stream().allMatch(chunk ->
+            chunk.getStatus() == BackfillChunk.Status.SUCCEEDED || chunk.getStatus() == BackfillChunk.Status.FAILED);
+        if (!done) {
+            return;
+        }
+        BackfillJob job = findJob(jobId);
+        boolean anyFailed = chunks.stream().anyMatch(chunk -> chunk.getStatus() == BackfillChunk.Status.FAILED);
+        job.setStatus(anyFailed ? BackfillJob.Status.FAILED : BackfillJob.Status.COMPLETED);
+        job.setFinishedAt(LocalDateTime.now());
+        jobRepository.save(job);
+        log.info("Backfill job {} finished as {}", jobId, job.getStatus());
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,168 @@
+package com.vance.backend.services;
+
+import com.vance.backend.dto.PairDerivation;
+import com.vance.backend.dto.PairDerivation.Method;
+import com.vance.backend.dto.PricePoint;
+import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.repos.ExchangeRateRepository;
+import com.vance.backend.repos.MonthlyExchangeRateRepository;
+import com.vance.backend.repos.WeeklyExchangeRateRepository;
+import com.vance.backend.services.cache.ForexDataVersions;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
+import com.vance.backend.services.timeseries.CrossRates;
+import com.vance.backend.services.timeseries.ForexSeriesStore;
+import com.vance.backend.services.timeseries.PriceSeries;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves pairs that are not scraped from ones that are: the inverse of a
+ * stored pair, or the cross of two stored pairs with a common quote
+ * currency (GBP/AED from GBP/INR and AED/INR) or a common base currency.
+ * N pairs quoted against one currency so cover every pair among their N + 1
+ * currencies without any extra scraping.
+ *
+ * Derivations are cached per requested pair until the registry learns of
+ * a new pair. Derived series are cached per pair and resolution together
+ * with their legs' data versions; an ingest for either leg bumps its
+ * version and the entry is rebuilt on the next read.
+ */
+@Service
+@RequiredArgsConstructor
+public class CrossRateService {
+
+    /** A pair derived from {@code base} alone (inverse) or {@code base / quote} (cross). */
+    public record CrossRate(String fromCurrency, String toCurrency, Method method, CurrencyPair base, CurrencyPair quote) {
+
+        public PairDerivation derivation() {
+            return method == Method.INVERSE
+                ? new PairDerivation(method, List.of(code(base)), false)
+                : new PairDerivation(method, List.of(code(base), code(quote)), true);
+        }
+    }
+
+    private record CacheKey(String fromCurrency, String toCurrency, Frequency frequency) {
+    }
+
+    private record CachedSeries(String legVersions, PriceSeries series) {
+    }
+
+    private record CachedDerivation(long registryGeneration, Optional<CrossRate> rate) {
+    }
+
+    // bounded, since the codes come straight from requests
+    private static final int MAX_DERIVATIONS = 10_000;
+
+    private final CurrencyPairRegistry currencyPairRegistry;
+    private final ForexSeriesStore seriesStore;
+    private final ForexDataVersions dataVersions;
+    private final ExchangeRateRepository exchangeRateRepository;
+    private final WeeklyExchangeRateRepository weeklyExchangeRateRepository;
+    private final MonthlyExchangeRateRepository monthlyExchangeRateRepository;
+
+    private final Map<CacheKey, CachedSeries> cache = new ConcurrentHashMap<>();
+    private final Map<String, CachedDerivation> derivations = new ConcurrentHashMap<>();
+
+    /**
+     * Derivation of a pair from stored ones, preferring the inverse, then a
+     * common quote currency, then a common base currency. Empty for stored
+     * pairs and pairs that cannot be derived.
+     */
+    public Optional<CrossRate> find(String fromCurrency, String toCurrency) {
+        if (fromCurrency.equals(toCurrency)) {
+            return Optional.empty();
+        }
+        // read before the pairs: a pair added meanwhile still invalidates what is cached here
+        long generation = currencyPairRegistry.generation();
+        String code = code(fromCurrency, toCurrency);
+        CachedDerivation cached = derivations.get(code);
+        if (cached != null && cached.registryGeneration() == generation) {
+            return cached.rate();
+        }
+        Optional<CrossRate> rate = derive(fromCurrency, toCurrency);
+        if (derivations.size() >= MAX_DERIVATIONS) {
+            derivations.clear();
+        }
+        derivations.put(code, new CachedDerivation(generation, rate));
+        return rate;
+    }
+
+    private Optional<CrossRate> derive(String fromCurrency, String toCurrency) {
+        Map<String, CurrencyPair> stored = new HashMap<>();
+        List<CurrencyPair> pairs = currencyPairRegistry.pairs();
+        pairs.forEach(pair -> stored.put(code(pair), pair));
+        if (stored.containsKey(code(fromCurrency, toCurrency))) {
+            return Optional.empty();
+        }
+
+        CurrencyPair inverse = stored.get(code(toCurrency, fromCurrency));
+        if (inverse != null) {
+            return Optional.of(new CrossRate(fromCurrency, toCurrency, Method.INVERSE, inverse, null));
+        }
+        for (CurrencyPair base : pairs) {
+            CurrencyPair quote = stored.get(code(toCurrency, base.getToCurrency()));
+            if (base.getFromCurrency().equals(fromCurrency) && quote != null) {
+                return Optional.of(new CrossRate(fromCurrency, toCurrency, Method.CROSS, base, quote));
+            }
+        }
+        // A/B = (C/B) / (C/A)
+        for (CurrencyPair base : pairs) {
+            CurrencyPair quote = stored.get(code(base.getFromCurrency(), fromCurrency));
+            if (base.getToCurrency().equals(toCurrency) && quote != null) {
+                return Optional.of(new CrossRate(fromCurrency, toCurrency, Method.CROSS, base, quote));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public PriceSeries series(CrossRate rate, Frequency frequency) {
+        // read before the legs: a leg merged in after this still changes the version seen next time
+        String legVersions = dataVersion(rate);
+        CacheKey key = new CacheKey(rate.fromCurrency(), rate.toCurrency(), frequency);
+        CachedSeries cached = cache.get(key);
+        if (cached != null && cached.legVersions().equals(legVersions)) {
+            return cached.series();
+        }
+        PriceSeries series = rate.method() == Method.INVERSE
+            ? CrossRates.inverse(leg(rate.base(), frequency))
+            : CrossRates.cross(leg(rate.base(), frequency), leg(rate.quote(), frequency));
+        cache.put(key, new CachedSeries(legVersions, series));
+        return series;
+    }
+
+    /** A derived pair's data version, made of its legs' versions. */
+    public String dataVersion(CrossRate rate) {
+        String base = code(rate.base()) + "." + dataVersions.version(rate.base().getFromCurrency(), rate.base().getToCurrency());
+        if (rate.quote() == null) {
+            return base;
+        }
+        return base + "+" + code(rate.quote()) + "." + dataVersions.version(rate.quote().getFromCurrency(), rate.quote().getToCurrency());
+    }
+
+    private PriceSeries leg(CurrencyPair pair, Frequency frequency) {
+        if (seriesStore.isLoaded()) {
+            return seriesStore.get(pair.getId(), frequency);
+        }
+        List<PricePoint> points = switch (frequency) {
+            case DAILY -> exchangeRateRepository.findAllPricePoints(pair.getId());
+            case WEEKLY -> weeklyExchangeRateRepository.findAllPricePoints(pair.getId());
+            case MONTHLY -> monthlyExchangeRateRepository.findAllPricePoints(pair.getId());
+        };
+        return ForexSeriesStore.toSeries(points);
+    }
+
+    private static String code(CurrencyPair pair) {
+        return code(pair.getFromCurrency(), pair.getToCurrency());
+    }
+
+    private static String code(String fromCurrency, String toCurrency) {
+        return fromCurrency + "-" + toCurrency;
+    }
+}
@@ -0,0 +1,153 @@
+package com.vance.backend.services;
+
+import com.vance.backend.models.CurrencyPair;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process map of pair codes to {@code currency_pair} ids, warmed on
+ * startup (after compaction has merged duplicate pairs) so resolving a pair
+ * does not query the database. Creation relies on the unique index on
+ * (from_currency, to_currency): a concurrent insert of the same pair loses
+ * with a duplicate key and reads back the winner's id.
+ *
+ * Pairs are only ever created through {@link #getOrCreate}, so a pair the
+ * database does not have is remembered as missing until it is created,
+ * and requests for unknown pairs do not query the database either.
+ *
+ * Returned pairs are fresh, detached instances carrying only the id and
+ * codes; they can be used as references when writing rates.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 15)
+@RequiredArgsConstructor
+public class CurrencyPairRegistry implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // bounded, since the codes come straight from requests
+    private static final int MAX_MISSING = 10_000;
+
+    private final Map<String, Long> ids = new ConcurrentHashMap<>();
+    private final Set<String> missing = ConcurrentHashMap.newKeySet();
+    private final AtomicLong generation = new AtomicLong();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        jdbcTemplate.query("SELECT id, from_currency, to_currency FROM currency_pair",
+            rs -> {
+                ids.put(key(rs.getString("from_currency"), rs.getString("to_currency")), rs.getLong("id"));
+            });
+        generation.incrementAndGet();
+        log.info("Currency pair registry warmed with {} pairs", ids.size());
+    }
+
+    /** Resolves an existing pair. */
+    public Optional<CurrencyPair> find(String fromCurrency, String toCurrency) {
+        String key = key(fromCurrency, toCurrency);
+        Long id = ids.get(key);
+        if (id == null) {
+            if (missing.contains(key)) {
+                return Optional.empty();
+            }
+            id = selectId(fromCurrency, toCurrency);
+            if (id == null) {
+                if (missing.size() >= MAX_MISSING) {
+                    missing.clear();
+                }
+                missing.add(key);
+                // created while this lookup ran
+                if (ids.containsKey(key)) {
+                    missing.remove(key);
+                }
+                return Optional.empty();
+            }
+            if (ids.putIfAbsent(key, id) == null) {
+                generation.incrementAndGet();
+            }
+        }
+        return Optional.of(pair(id, fromCurrency, toCurrency));
+    }
+
+    /** Changes whenever a pair is added to {@link #pairs()}; lets callers cache what they derive from it. */
+    public long generation() {
+        return generation.get();
+    }
+
+    /** Every pair resolved or created so far, lowest id first. */
+    public List<CurrencyPair> pairs() {
+        List<CurrencyPair> pairs = new ArrayList<>(ids.size());
+        ids.forEach((key, id) -> {
+            String[] codes = key.split("/");
+            pairs.add(pair(id, codes[0], codes[1]));
+        });
+        pairs.sort(Comparator.comparing(CurrencyPair::getId));
+        return pairs;
+    }
+
+    public CurrencyPair getOrCreate(String fromCurrency, String toCurrency) {
+        String key = key(fromCurrency, toCurrency);
+        Long id = ids.get(key);
+        if (id == null) {
+            // outside the map, so a slow insert does not block lookups of other pairs; racing callers read back one id
+            id = selectOrInsertId(fromCurrency, toCurrency);
+            Long existing = ids.putIfAbsent(key, id);
+            if (existing != null) {
+                id = existing;
+            } else {
+                generation.incrementAndGet();
+            }
+            missing.remove(key);
+        }
+        return pair(id, fromCurrency, toCurrency);
+    }
+
+    private Long selectOrInsertId(String fromCurrency, String toCurrency) {
+        Long id = selectId(fromCurrency, toCurrency);
+        if (id != null) {
+            return id;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO currency_pair (from_currency, to_currency) VALUES (?, ?)",
+                fromCurrency, toCurrency);
+            log.info("Created currency pair {}/{}", fromCurrency, toCurrency);
+        } catch (DuplicateKeyException e) {
+            log.debug("Currency pair {}/{} was created concurrently", fromCurrency, toCurrency);
+        }
+        return selectId(fromCurrency, toCurrency);
+    }
+
+    private Long selectId(String fromCurrency, String toCurrency) {
+        List<Long> found = jdbcTemplate.queryForList(
+            "SELECT id FROM currency_pair WHERE from_currency = ? AND to_currency = ?",
+            Long.class, fromCurrency, toCurrency);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    private static CurrencyPair pair(Long id, String fromCurrency, String toCurrency) {
+        return new CurrencyPair(id, fromCurrency, toCurrency, new HashSet<>());
+    }
+
+    private static String key(String fromCurrency, String toCurrency) {
+        return fromCurrency + "/" + toCurrency;
+    }
+}
@@ -0,0 +1,76 @@
+package com.vance.backend.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Removes rows that were inserted more than once for the same natural key
+ * before the unique constraints existed, keeping the most recently scraped
+ * copy, and then adds the constraints. Duplicate currency pairs are merged
+ * into the oldest one first: their rates are treated as rows of that pair
+ * and repointed to it. Safe to run repeatedly; once the tables are clean it
+ * only costs the duplicate scans.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "forex.maintenance.compact-on-startup", havingValue = "true", matchIfMissing = true)
+public class ForexDataCompactor implements ApplicationRunner {
+
+    // the oldest row of each set of pairs sharing the same codes
+    private static final String CANONICAL_PAIR_IDS =
+        "SELECT MIN(id) FROM currency_pair GROUP BY from_currency, to_currency";
+
+    // ids of every pair with the same codes as t's pair, t's own included
+    private static final String SAME_CODES_AS_T =
+        "SELECT s.id FROM currency_pair s JOIN currency_pair p "
+            + "ON s.from_currency = p.from_currency AND s.to_currency = p.to_currency WHERE p.id = t.currency_pair_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        compact();
+    }
+
+    public int compact() {
+        int removed = compactTable("exchange_rate", "date", "uk_exchange_rate_pair_date")
+            + compactTable("weekly_exchange_rate", "week_start", "uk_weekly_exchange_rate_pair_week_start")
+            + compactTable("monthly_exchange_rate", "month_start", "uk_monthly_exchange_rate_pair_month_start");
+        int mergedPairs = jdbcTemplate.update(
+            "DELETE FROM currency_pair WHERE id NOT IN (" + CANONICAL_PAIR_IDS + ")");
+        jdbcTemplate.execute("ALTER TABLE currency_pair ADD CONSTRAINT IF NOT EXISTS uk_currency_pair_codes "
+            + "UNIQUE (from_currency, to_currency)");
+        if (mergedPairs > 0) {
+            log.info("Merged {} duplicate currency pairs", mergedPairs);
+        }
+        log.info("Compaction removed {} duplicate rate rows", removed);
+        return removed;
+    }
+
+    private int compactTable(String table, String dateColumn, String constraint) {
+        int removed = jdbcTemplate.update(
+            "DELETE FROM " + table + " t WHERE EXISTS (SELECT 1 FROM " + table + " d "
+                + "WHERE d.currency_pair_id IN (" + SAME_CODES_AS_T + ") AND d." + dateColumn + " = t." + dateColumn + " "
+                + "AND d.id > t.id)");
+        jdbcTemplate.update(
+            "UPDATE " + table + " t SET currency_pair_id = (SELECT MIN(s.id) FROM currency_pair s "
+                + "JOIN currency_pair p ON s.from_currency = p.from_currency AND s.to_currency = p.to_currency "
+                + "WHERE p.id = t.currency_pair_id) "
+                + "WHERE t.currency_pair_id NOT IN (" + CANONICAL_PAIR_IDS + ")");
+        jdbcTemplate.execute("ALTER TABLE " + table + " ADD CONSTRAINT IF NOT EXISTS " + constraint
+            + " UNIQUE (currency_pair_id, " + dateColumn + ")");
+        if (removed > 0) {
+            log.info("Removed {} duplicate rows from {}", removed, table);
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,265 @@
+package com.vance.backend.services;
+
+import com.vance.backend.dto.ForexIndicatorsResponse;
+import com.vance.backend.dto.IndicatorPoint;
+import com.vance.backend.events.ForexDataIngestedEvent;
+import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.repos.DailyIndicatorRepository;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
+import com.vance.backend.services.timeseries.ForexSeriesStore;
+import com.vance.backend.services.timeseries.IndicatorState;
+import com.vance.backend.services.timeseries.PriceSeries;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps SMA, EMA, ATR and log-return volatility for every pair's daily
+ * series current as rates are ingested. Each pair's {@link IndicatorState}
+ * is held in memory and only the new days are folded in; the values for
+ * every day go to {@code daily_indicator} and the state itself to
+ * {@code indicator_checkpoint}, so a restart resumes where it left off
+ * instead of rescanning the history.
+ *
+ * An ingest that rewrites days already folded in replays from the nearest
+ * checkpoint before them. Checkpoints are kept every
+ * {@link #CHECKPOINT_INTERVAL} closes, plus the newest one. Checkpoints
+ * from the first ingested day on are dropped in the ingest's own
+ * transaction and the pair is marked dirty from that day, so a replay that
+ * fails, or never runs because of a restart, is redone by the next update
+ * or on startup.
+ */
+@Slf4j
+@Service
+@Order(Ordered.HIGHEST_PRECEDENCE + 25)
+public class ForexIndicatorService implements ApplicationRunner {
+
+    static final int CHECKPOINT_INTERVAL = 250;
+
+    private static final String INDICATOR_UPSERT = "MERGE INTO daily_indicator t "
+        + "USING (SELECT CAST(? AS BIGINT) AS currency_pair_id, CAST(? AS DATE) AS date, "
+        + "CAST(? AS BIGINT) AS sma20, CAST(? AS BIGINT) AS sma50, CAST(? AS BIGINT) AS sma200, "
+        + "CAST(? AS BIGINT) AS ema12, CAST(? AS BIGINT) AS ema26, CAST(? AS BIGINT) AS atr14, "
+        + "CAST(? AS DOUBLE PRECISION) AS volatility20) s "
+        + "ON t.currency_pair_id = s.currency_pair_id AND t.date = s.date "
+        + "WHEN MATCHED THEN "
+        + "UPDATE SET sma20 = s.sma20, sma50 = s.sma50, sma200 = s.sma200, "
+        + "ema12 = s.ema12, ema26 = s.ema26, atr14 = s.atr14, volatility20 = s.volatility20 "
+        + "WHEN NOT MATCHED THEN "
+        + "INSERT (currency_pair_id, date, sma20, sma50, sma200, ema12, ema26, atr14, volatility20) "
+        + "VALUES (s.currency_pair_id, s.date, s.sma20, s.sma50, s.sma200, s.ema12, s.ema26, s.atr14, s.volatility20)";
+
+    private final ForexService forexService;
+    private final CurrencyPairRegistry currencyPairRegistry;
+    private final ForexSeriesStore seriesStore;
+    private final DailyIndicatorRepository dailyIndicatorRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate writeTransaction;
+
+    private final Map<Long, IndicatorState> states = new ConcurrentHashMap<>();
+    private final Map<Long, IndicatorPoint> latest = new ConcurrentHashMap<>();
+    // first day ingested since the pair's indicators were last written
+    private final Map<Long, LocalDate> dirtyFrom = new ConcurrentHashMap<>();
+
+    @Value("${forex.ingest.batch-size:50}")
+    private int batchSize;
+
+    public ForexIndicatorService(ForexService forexService,
+                                 CurrencyPairRegistry currencyPairRegistry,
+                                 ForexSeriesStore seriesStore,
+                                 DailyIndicatorRepository dailyIndicatorRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager) {
+        this.forexService = forexService;
+        this.currencyPairRegistry = currencyPairRegistry;
+        this.seriesStore = seriesStore;
+        this.dailyIndicatorRepository = dailyIndicatorRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        // ingest events arrive after their transaction has committed
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long started = System.currentTimeMillis();
+        List<Long> pairIds = jdbcTemplate.queryForList("SELECT id FROM currency_pair", Long.class);
+        for (Long pairId : pairIds) {
+            update(pairId, null);
+        }
+        log.info("Caught up indicators for {} pairs in {} ms", pairIds.size(), System.currentTimeMillis() - started);
+    }
+
+    // part of the ingest: once it commits, no checkpoint includes the rewritten days
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void beforeIngestCommit(ForexDataIngestedEvent event) {
+        if (event.getFrequency() != Frequency.DAILY) {
+            return;
+        }
+        dirtyFrom.merge(event.getCurrencyPairId(), event.getFirstDate(), (a, b) -> a.isBefore(b) ? a : b);
+        jdbcTemplate.update("DELETE FROM indicator_checkpoint WHERE currency_pair_id = ? AND date >= ?",
+            event.getCurrencyPairId(), event.getFirstDate());
+    }
+
+    // runs after ForexSeriesStore has merged the same event
+    @Order(50)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIngest(ForexDataIngestedEvent event) {
+        if (event.getFrequency() != Frequency.DAILY || !seriesStore.isLoaded()) {
+            return;
+        }
+        try {
+            update(event.getCurrencyPairId(), event.getFirstDate());
+        } catch (RuntimeException e) {
+            log.warn("Indicator update failed for pair {}; it is redone on the next ingest or restart",
+                event.getCurrencyPairId(), e);
+        }
+    }
+
+    public ForexIndicatorsResponse getIndicators(String fromCurrency, String toCurrency, String period) {
+        forexService.validateInputs(fromCurrency, toCurrency, period);
+        CurrencyPair currencyPair = currencyPairRegistry.find(fromCurrency, toCurrency)
+            .orElseThrow(() -> new IllegalArgumentException("Currency pair not found"));
+
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = forexService.calculateStartDate(endDate, period);
+        return new ForexIndicatorsResponse(fromCurrency, toCurrency, period,
+            latest.get(currencyPair.getId()),
+            dailyIndicatorRepository.findPoints(currencyPair.getId(), startDate, endDate));
+    }
+
+    /**
+     * Folds the pair's daily rows after its current state into it, first
+     * rewinding to the checkpoint before {@code changedFrom}, or the pair's
+     * dirty day if earlier, if that day has already been folded in.
+     */
+    private synchronized void update(Long pairId, LocalDate changedFrom) {
+        LocalDate dirty = dirtyFrom.get(pairId);
+        if (dirty != null && (changedFrom == null || dirty.isBefore(changedFrom))) {
+            changedFrom = dirty;
+        }
+        IndicatorState state = states.get(pairId);
+        if (state == null) {
+            state = loadCheckpoint(pairId, null);
+        }
+        boolean rewound = changedFrom != null && state.lastDay() >= changedFrom.toEpochDay();
+        if (rewound) {
+            state = loadCheckpoint(pairId, changedFrom);
+        }
+
+        PriceSeries daily = seriesStore.get(pairId, Frequency.DAILY);
+        int from = daily.lowerBound(LocalDate.ofEpochDay(state.lastDay() + 1L));
+        // days replayed before changedFrom come out as already stored
+        long writeFrom = rewound ? changedFrom.toEpochDay() : Long.MIN_VALUE;
+        List<IndicatorPoint> points = new ArrayList<>();
+        List<Checkpoint> checkpoints = new ArrayList<>();
+        for (int i = from; i < daily.size(); i++) {
+            long before = state.count();
+            state.fold(daily.day(i), daily.high(i), daily.low(i), daily.close(i));
+            if (daily.day(i) < writeFrom) {
+                continue;
+            }
+            points.add(point(state));
+            if (state.count() != before && state.count() % CHECKPOINT_INTERVAL == 0) {
+                checkpoints.add(new Checkpoint(daily.date(i), state.count(), state.toBytes()));
+            }
+        }
+        if (!points.isEmpty()) {
+            LocalDate newest = LocalDate.ofEpochDay(state.lastDay());
+            if (checkpoints.isEmpty() || !checkpoints.get(checkpoints.size() - 1).date().equals(newest)) {
+                checkpoints.add(new Checkpoint(newest, state.count(), state.toBytes()));
+            }
+            try {
+                write(pairId, points, checkpoints);
+            } catch (RuntimeException e) {
+                states.remove(pairId);
+                throw e;
+            }
+        }
+
+        states.put(pairId, state);
+        if (dirty != null) {
+            // unless an ingest marked it again meanwhile
+            dirtyFrom.remove(pairId, dirty);
+        }
+        if (state.lastDay() >= 0) {
+            latest.put(pairId, point(state));
+        }
+    }
+
+    private void write(Long pairId, List<IndicatorPoint> points, List<Checkpoint> checkpoints) {
+        writeTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INDICATOR_UPSERT, points, batchSize, (ps, point) -> {
+                ps.setLong(1, pairId);
+                ps.setObject(2, point.getDate());
+                ps.setLong(3, point.getSma20());
+                ps.setLong(4, point.getSma50());
+                ps.setLong(5, point.getSma200());
+                ps.setLong(6, point.getEma12());
+                ps.setLong(7, point.getEma26());
+                ps.setLong(8, point.getAtr14());
+                if (point.getVolatility20() == null) {
+                    ps.setNull(9, Types.DOUBLE);
+                } else {
+                    ps.setDouble(9, point.getVolatility20());
+                }
+            });
+            // drops the previous newest checkpoint and any the written days made stale
+            jdbcTemplate.update("DELETE FROM indicator_checkpoint WHERE currency_pair_id = ? "
+                + "AND (date >= ? OR MOD(row_count, ?) <> 0)", pairId, points.get(0).getDate(), CHECKPOINT_INTERVAL);
+            jdbcTemplate.batchUpdate("INSERT INTO indicator_checkpoint (currency_pair_id, date, row_count, state) "
+                + "VALUES (?, ?, ?, ?)", checkpoints, batchSize, (ps, checkpoint) -> {
+                ps.setLong(1, pairId);
+                ps.setObject(2, checkpoint.date());
+                ps.setLong(3, checkpoint.rowCount());
+                ps.setBytes(4, checkpoint.state());
+            });
+        });
+        log.debug("Stored indicators for {} days of pair {}", points.size(), pairId);
+    }
+
+    /** Newest checkpoint before {@code before} (any if null), or a fresh state. */
+    private IndicatorState loadCheckpoint(Long pairId, LocalDate before) {
+        List<byte[]> found = before == null
+            ? jdbcTemplate.query("SELECT state FROM indicator_checkpoint WHERE currency_pair_id = ? "
+                + "ORDER BY date DESC LIMIT 1", (rs, rowNum) -> rs.getBytes("state"), pairId)
+            : jdbcTemplate.query("SELECT state FROM indicator_checkpoint WHERE currency_pair_id = ? AND date < ? "
+                + "ORDER BY date DESC LIMIT 1", (rs, rowNum) -> rs.getBytes("state"), pairId, before);
+        if (found.isEmpty()) {
+            return new IndicatorState();
+        }
+        try {
+            return IndicatorState.fromBytes(found.get(0));
+        } catch (IllegalArgumentException e) {
+            log.warn("Discarding unreadable indicator checkpoint for pair {}: {}", pairId, e.getMessage());
+            return new IndicatorState();
+        }
+    }
+
+    private static IndicatorPoint point(IndicatorState state) {
+        return new IndicatorPoint(LocalDate.ofEpochDay(state.lastDay()),
+            state.sma(0), state.sma(1), state.sma(2),
+            state.ema(0), state.ema(1), state.atr(), state.volatility());
+    }
+
+    private record Checkpoint(LocalDate date, long rowCount, byte[] state) {
+    }
+}
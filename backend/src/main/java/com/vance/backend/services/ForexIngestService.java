@@ -0,0 +1,204 @@
+package com.vance.backend.services;
+
+import com.vance.backend.events.ForexDataIngestedEvent;
+import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.models.ExchangeRate;
+import com.vance.backend.models.MonthlyExchangeRate;
+import com.vance.backend.models.WeeklyExchangeRate;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Write path for scraped rows. Each call runs in a single transaction and
+ * sends rows to the database in batches of {@code forex.ingest.batch-size}.
+ *
+ * In {@link Mode#UPSERT} (the default) rows are merged on their natural key,
+ * (pair, date), (pair, week_start) or (pair, month_start), so re-ingesting an
+ * overlapping range only touches rows whose prices changed. {@link Mode#INSERT}
+ * persists through Hibernate and expects the rows to be new.
+ *
+ * Every save publishes a {@link ForexDataIngestedEvent} within the same
+ * transaction.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ForexIngestService {
+
+    public enum Mode {
+        INSERT,
+        UPSERT
+    }
+
+    private static final String DAILY_UPSERT = upsertSql("exchange_rate", "date", "exchange_rate_seq");
+    private static final String WEEKLY_UPSERT = upsertSql("weekly_exchange_rate", "week_start", "weekly_exchange_rate_seq");
+    private static final String MONTHLY_UPSERT = upsertSql("monthly_exchange_rate", "month_start", "monthly_exchange_rate_seq");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${forex.ingest.batch-size:50}")
+    private int batchSize;
+
+    @Value("${forex.ingest.mode:upsert}")
+    private Mode mode;
+
+    @Transactional
+    public List<ExchangeRate> saveDaily(List<ExchangeRate> rates) {
+        if (mode == Mode.INSERT) {
+            persistAll(rates);
+        } else {
+            upsertDaily(rates);
+        }
+        publish(rates, Frequency.DAILY, ExchangeRate::getCurrencyPair, ExchangeRate::getDate);
+        return rates;
+    }
+
+    @Transactional
+    public List<WeeklyExchangeRate> saveWeekly(List<WeeklyExchangeRate> rates) {
+        if (mode == Mode.INSERT) {
+            persistAll(rates);
+        } else {
+            upsertWeekly(rates);
+        }
+        publish(rates, Frequency.WEEKLY, WeeklyExchangeRate::getCurrencyPair, WeeklyExchangeRate::getWeekStart);
+        return rates;
+    }
+
+    @Transactional
+    public List<MonthlyExchangeRate> saveMonthly(List<MonthlyExchangeRate> rates) {
+        if (mode == Mode.INSERT) {
+            persistAll(rates);
+        } else {
+            upsertMonthly(rates);
+        }
+        publish(rates, Frequency.MONTHLY, MonthlyExchangeRate::getCurrencyPair, MonthlyExchangeRate::getMonthStart);
+        return rates;
+    }
+
+    /**
+     * Merges weekly buckets regardless of the configured mode. Used for
+     * rollups, which rewrite buckets that may already exist.
+     */
+    @Transactional
+    public List<WeeklyExchangeRate> upsertWeeklyBuckets(List<WeeklyExchangeRate> rates) {
+        upsertWeekly(rates);
+        publish(rates, Frequency.WEEKLY, WeeklyExchangeRate::getCurrencyPair, WeeklyExchangeRate::getWeekStart);
+        return rates;
+    }
+
+    /**
+     * Monthly counterpart of {@link #upsertWeeklyBuckets(List)}.
+     */
+    @Transactional
+    public List<MonthlyExchangeRate> upsertMonthlyBuckets(List<MonthlyExchangeRate> rates) {
+        upsertMonthly(rates);
+        publish(rates, Frequency.MONTHLY, MonthlyExchangeRate::getCurrencyPair, MonthlyExchangeRate::getMonthStart);
+        return rates;
+    }
+
+    private void upsertDaily(List<ExchangeRate> rates) {
+        jdbcTemplate.batchUpdate(DAILY_UPSERT, rates, batchSize, (ps, rate) -> {
+            ps.setLong(1, rate.getCurrencyPair().getId());
+            ps.setObject(2, rate.getDate());
+            setPrices(ps, rate.getOpenPrice(), rate.getHighPrice(), rate.getLowPrice(), rate.getClosePrice());
+        });
+        log.debug("Upserted {} daily rows", rates.size());
+    }
+
+    private void upsertWeekly(List<WeeklyExchangeRate> rates) {
+        jdbcTemplate.batchUpdate(WEEKLY_UPSERT, rates, batchSize, (ps, rate) -> {
+            ps.setLong(1, rate.getCurrencyPair().getId());
+            ps.setObject(2, rate.getWeekStart());
+            setPrices(ps, rate.getOpenPrice(), rate.getHighPrice(), rate.getLowPrice(), rate.getClosePrice());
+        });
+        log.debug("Upserted {} weekly rows", rates.size());
+    }
+
+    private void upsertMonthly(List<MonthlyExchangeRate> rates) {
+        jdbcTemplate.batchUpdate(MONTHLY_UPSERT, rates, batchSize, (ps, rate) -> {
+            ps.setLong(1, rate.getCurrencyPair().getId());
+            ps.setObject(2, rate.getMonthStart());
+            setPrices(ps, rate.getOpenPrice(), rate.getHighPrice(), rate.getLowPrice(), rate.getClosePrice());
+        });
+        log.debug("Upserted {} monthly rows", rates.size());
+    }
+
+    private <T> void publish(List<T> rates, Frequency frequency,
+                             Function<T, CurrencyPair> pairOf, Function<T, LocalDate> dateOf) {
+        if (rates.isEmpty()) {
+            return;
+        }
+        LocalDate first = rates.stream().map(dateOf).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate last = rates.stream().map(dateOf).max(Comparator.naturalOrder()).orElseThrow();
+        CurrencyPair pair = pairOf.apply(rates.get(0));
+        eventPublisher.publishEvent(new ForexDataIngestedEvent(
+            pair.getId(), pair.getFromCurrency(), pair.getToCurrency(), frequency, first, last, rates.size()));
+    }
+
+    @Transactional
+    public <T> List<T> persistAll(List<T> rows) {
+        for (int i = 0; i < rows.size(); i++) {
+            entityManager.persist(rows.get(i));
+            if ((i + 1) % batchSize == 0) {
+                flushBatch();
+            }
+        }
+        flushBatch();
+        log.debug("Persisted {} rows in batches of {}", rows.size(), batchSize);
+        return rows;
+    }
+
+    private void flushBatch() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static void setPrices(PreparedStatement ps, long open, long high, long low, long close)
+            throws SQLException {
+        ps.setLong(3, open);
+        ps.setLong(4, high);
+        ps.setLong(5, low);
+        ps.setLong(6, close);
+    }
+
+    /*
+        Unchanged rows fall through the MATCHED branch without a write, which
+        keeps repeated ingestion of the same range close to free.
+    */
+    private static String upsertSql(String table, String dateColumn, String sequence) {
+        return "MERGE INTO " + table + " t "
+            + "USING (SELECT CAST(? AS BIGINT) AS currency_pair_id, CAST(? AS DATE) AS " + dateColumn + ", "
+            + "CAST(? AS BIGINT) AS open_micros, CAST(? AS BIGINT) AS high_micros, "
+            + "CAST(? AS BIGINT) AS low_micros, CAST(? AS BIGINT) AS close_micros) s "
+            + "ON t.currency_pair_id = s.currency_pair_id AND t." + dateColumn + " = s." + dateColumn + " "
+            + "WHEN MATCHED AND (t.open_micros <> s.open_micros "
+            + "OR t.high_micros <> s.high_micros "
+            + "OR t.low_micros <> s.low_micros "
+            + "OR t.close_micros <> s.close_micros) THEN "
+            + "UPDATE SET open_micros = s.open_micros, high_micros = s.high_micros, "
+            + "low_micros = s.low_micros, close_micros = s.close_micros "
+            + "WHEN NOT MATCHED THEN "
+            + "INSERT (id, currency_pair_id, " + dateColumn + ", open_micros, high_micros, low_micros, close_micros) "
+            + "VALUES (NEXT VALUE FOR " + sequence + ", s.currency_pair_id, s." + dateColumn + ", "
+            + "s.open_micros, s.high_micros, s.low_micros, s.close_micros)";
+    }
+}
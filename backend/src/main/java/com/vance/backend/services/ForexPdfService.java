@@ -2,59 +2,135 @@ package com.vance.backend.services;
 
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.*;
+import com.vance.backend.dto.PricePoint;
 import com.vance.backend.models.CurrencyPair;
-import com.vance.backend.models.ExchangeRate;
+import com.vance.backend.models.Prices;
 import com.vance.backend.repos.ExchangeRateRepository;
-import com.vance.backend.repos.CurrencyPairRepository; 
+import com.vance.backend.repos.MonthlyExchangeRateRepository;
+import com.vance.backend.repos.WeeklyExchangeRateRepository;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
 
-import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Iterator;
 import java.util.stream.Stream;
 
+/**
+ * Renders exchange rate reports. Rows are read from a cursor-backed stream
+ * and the table is handed to the document every {@link #FLUSH_ROWS} rows
+ * with {@code setComplete(false)}, so finished pages go straight to the
+ * output stream and memory does not grow with the range.
+ */
 @Service
-@RequiredArgsConstructor
 public class ForexPdfService {
 
+    public static final int DEFAULT_REPORT_DAYS = 30;
+
+    private static final int FLUSH_ROWS = 200;
+
+    private static final Font TITLE_FONT = new Font(Font.FontFamily.HELVETICA, 24, Font.BOLD);
+    private static final Font SUBTITLE_FONT = new Font(Font.FontFamily.HELVETICA, 16);
+    private static final Font DATE_FONT = new Font(Font.FontFamily.HELVETICA, 12, Font.ITALIC);
+    private static final Font HEADER_FONT = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
+    private static final Font DATA_FONT = new Font(Font.FontFamily.HELVETICA, 10);
+    private static final DateTimeFormatter GENERATED_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     private final ExchangeRateRepository exchangeRateRepository;
-    private final CurrencyPairRepository currencyPairRepository; 
+    private final WeeklyExchangeRateRepository weeklyExchangeRateRepository;
+    private final MonthlyExchangeRateRepository monthlyExchangeRateRepository;
+    private final CurrencyPairRegistry currencyPairRegistry;
+    private final TransactionTemplate readOnlyTransaction;
 
-    public List<ExchangeRate> getLast30DaysExchangeRates(CurrencyPair currencyPair) {
-        LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusDays(30);
-        return exchangeRateRepository.findByCurrencyPairAndDateBetween(currencyPair, startDate, endDate);
+    public ForexPdfService(ExchangeRateRepository exchangeRateRepository,
+                           WeeklyExchangeRateRepository weeklyExchangeRateRepository,
+                           MonthlyExchangeRateRepository monthlyExchangeRateRepository,
+                           CurrencyPairRegistry currencyPairRegistry,
+                           PlatformTransactionManager transactionManager) {
+        this.exchangeRateRepository = exchangeRateRepository;
+        this.weeklyExchangeRateRepository = weeklyExchangeRateRepository;
+        this.monthlyExchangeRateRepository = monthlyExchangeRateRepository;
+        this.currencyPairRegistry = currencyPairRegistry;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
+    /** The default 30-day daily report, fully rendered. */
     public byte[] generateForexReport(String fromCurrency, String toCurrency) throws Exception {
-        CurrencyPair currencyPair = currencyPairRepository.findByFromCurrencyAndToCurrency(fromCurrency, toCurrency);
-        
-        if (currencyPair == null) {
-            currencyPair = new CurrencyPair(fromCurrency, toCurrency);
-            currencyPairRepository.save(currencyPair);
+        LocalDate endDate = LocalDate.now();
+        return renderForexReport(fromCurrency, toCurrency, endDate.minusDays(DEFAULT_REPORT_DAYS), endDate, Frequency.DAILY);
+    }
+
+    public byte[] renderForexReport(String fromCurrency, String toCurrency,
+                                    LocalDate startDate, LocalDate endDate, Frequency frequency) {
+        CurrencyPair currencyPair = resolve(fromCurrency, toCurrency, startDate, endDate);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        readOnlyTransaction.executeWithoutResult(status ->
+            writeReport(baos, currencyPair, startDate, endDate, frequency));
+        return baos.toByteArray();
+    }
+
+    /**
+     * Validates the range and resolves the pair up front, so bad requests
+     * fail before the response is committed.
+     */
+    public StreamingResponseBody streamForexReport(String fromCurrency, String toCurrency,
+                                                   LocalDate startDate, LocalDate endDate, Frequency frequency) {
+        CurrencyPair currencyPair = resolve(fromCurrency, toCurrency, startDate, endDate);
+        return out -> readOnlyTransaction.executeWithoutResult(status ->
+            writeReport(out, currencyPair, startDate, endDate, frequency));
+    }
+
+    private CurrencyPair resolve(String fromCurrency, String toCurrency, LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
         }
+        return currencyPairRegistry.find(fromCurrency, toCurrency)
+            .orElseThrow(() -> new IllegalArgumentException("Currency pair not found"));
+    }
 
-        List<ExchangeRate> exchangeRates = getLast30DaysExchangeRates(currencyPair);
+    private void writeReport(OutputStream out, CurrencyPair currencyPair,
+                             LocalDate startDate, LocalDate endDate, Frequency frequency) {
+        Document document = new Document(PageSize.A4);
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            // the caller owns the stream
+            writer.setCloseStream(false);
 
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            Document document = new Document(PageSize.A4);
-            PdfWriter writer = PdfWriter.getInstance(document, baos);
-            
             document.open();
             addMetaData(document);
-            addTitlePage(document, fromCurrency, toCurrency);
-            addContent(document, exchangeRates);
+            addTitlePage(document, currencyPair, startDate, endDate, frequency);
+            try (Stream<PricePoint> points = streamPricePoints(currencyPair.getId(), startDate, endDate, frequency)) {
+                addContent(document, points.iterator());
+            }
             document.close();
-            
-            return baos.toByteArray();
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Failed to render forex report", e);
+        } catch (ExceptionConverter e) {
+            if (e.getException() instanceof IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+            throw e;
         }
     }
 
+    private Stream<PricePoint> streamPricePoints(Long pairId, LocalDate startDate, LocalDate endDate, Frequency frequency) {
+        return switch (frequency) {
+            case DAILY -> exchangeRateRepository.streamPricePoints(pairId, startDate, endDate);
+            case WEEKLY -> weeklyExchangeRateRepository.streamPricePoints(pairId, startDate, endDate);
+            case MONTHLY -> monthlyExchangeRateRepository.streamPricePoints(pairId, startDate, endDate);
+        };
+    }
+
     private void addMetaData(Document document) {
         document.addTitle("Forex Data Report");
         document.addSubject("Forex Exchange Rate Data");
@@ -62,60 +138,70 @@ public class ForexPdfService {
         document.addCreator("Vance Forex System");
     }
 
-    private void addTitlePage(Document document, String fromCurrency, String toCurrency) throws DocumentException {
+    private void addTitlePage(Document document, CurrencyPair currencyPair,
+                              LocalDate startDate, LocalDate endDate, Frequency frequency) throws DocumentException {
         Paragraph title = new Paragraph();
         title.setAlignment(Element.ALIGN_CENTER);
 
-        Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 24);
-        title.add(new Chunk("Forex Exchange Rate Report", titleFont));
+        title.add(new Chunk("Forex Exchange Rate Report", TITLE_FONT));
         title.add(Chunk.NEWLINE);
         title.add(Chunk.NEWLINE);
-        
+
         // Add subtitle
-        Font subtitleFont = FontFactory.getFont(FontFactory.HELVETICA, 16);
-        title.add(new Chunk(String.format("%s to %s", fromCurrency, toCurrency), subtitleFont));
+        title.add(new Chunk(currencyPair.getFromCurrency() + " to " + currencyPair.getToCurrency(), SUBTITLE_FONT));
         title.add(Chunk.NEWLINE);
+        title.add(new Chunk(startDate + " to " + endDate + ", " + frequency.name().toLowerCase(), DATE_FONT));
         title.add(Chunk.NEWLINE);
-        
+        title.add(Chunk.NEWLINE);
+
         // Add date
-        Font dateFont = FontFactory.getFont(FontFactory.HELVETICA_OBLIQUE, 12);
-        String currentDate = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-        title.add(new Chunk("Generated on: " + currentDate, dateFont));
-        
+        String currentDate = LocalDateTime.now().format(GENERATED_FORMATTER);
+        title.add(new Chunk("Generated on: " + currentDate, DATE_FONT));
+
         document.add(title);
         document.add(Chunk.NEWLINE);
     }
 
-    private void addContent(Document document, List<ExchangeRate> exchangeRates) throws DocumentException {
-        if (exchangeRates == null || exchangeRates.isEmpty()) {
+    private void addContent(Document document, Iterator<PricePoint> points) throws DocumentException {
+        if (!points.hasNext()) {
             document.add(new Paragraph("No data available for the selected currencies."));
             return;
         }
 
         PdfPTable table = new PdfPTable(5); // Date, Open, High, Low, Close
         table.setWidthPercentage(100);
-        
+        table.setHeaderRows(1);
+        table.setComplete(false);
+
         // Add table headers
-        Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
-        Stream.of("Date", "Open", "High", "Low", "Close")
-            .forEach(columnTitle -> {
-                PdfPCell header = new PdfPCell();
-                header.setPhrase(new Phrase(columnTitle, headerFont));
-                header.setHorizontalAlignment(Element.ALIGN_CENTER);
-                header.setPadding(5);
-                table.addCell(header);
-            });
-
-        // Add data rows
-        Font dataFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
-        for (ExchangeRate rate : exchangeRates) {
-            table.addCell(new Phrase(rate.getDate().toString(), dataFont));
-            table.addCell(new Phrase(String.format("%.4f", rate.getOpenPrice()), dataFont));
-            table.addCell(new Phrase(String.format("%.4f", rate.getHighPrice()), dataFont));
-            table.addCell(new Phrase(String.format("%.4f", rate.getLowPrice()), dataFont));
-            table.addCell(new Phrase(String.format("%.4f", rate.getClosePrice()), dataFont));
+        for (String columnTitle : new String[] {"Date", "Open", "High", "Low", "Close"}) {
+            PdfPCell header = new PdfPCell();
+            header.setPhrase(new Phrase(columnTitle, HEADER_FONT));
+            header.setHorizontalAlignment(Element.ALIGN_CENTER);
+            header.setPadding(5);
+            table.addCell(header);
+        }
+
+        // Add data rows, handing full chunks to the document as we go
+        int rows = 0;
+        while (points.hasNext()) {
+            PricePoint point = points.next();
+            table.addCell(new Phrase(point.getDate().toString(), DATA_FONT));
+            table.addCell(new Phrase(formatPrice(point.getOpenPrice()), DATA_FONT));
+            table.addCell(new Phrase(formatPrice(point.getHighPrice()), DATA_FONT));
+            table.addCell(new Phrase(formatPrice(point.getLowPrice()), DATA_FONT));
+            table.addCell(new Phrase(formatPrice(point.getClosePrice()), DATA_FONT));
+            if (++rows % FLUSH_ROWS == 0) {
+                document.add(table);
+            }
         }
-        
+
+        table.setComplete(true);
         document.add(table);
     }
+
+    /** Four decimal places, rounded half up. */
+    static String formatPrice(long price) {
+        return Prices.isMissing(price) ? "-" : Prices.format(price, 4);
+    }
 }
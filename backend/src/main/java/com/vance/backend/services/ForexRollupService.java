@@ -0,0 +1,128 @@
+package com.vance.backend.services;
+
+import com.vance.backend.dto.PricePoint;
+import com.vance.backend.events.ForexDataIngestedEvent;
+import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.models.MonthlyExchangeRate;
+import com.vance.backend.models.Prices;
+import com.vance.backend.models.WeeklyExchangeRate;
+import com.vance.backend.repos.CurrencyPairRepository;
+import com.vance.backend.repos.ExchangeRateRepository;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Derives weekly and monthly OHLC bars from stored daily rows. When daily
+ * rows are ingested only the weeks and months they fall into are rebuilt:
+ * open from the first day, close from the last, high and low as the max and
+ * min across the bucket. Weeks start on Monday, matching Yahoo's weekly bars.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "forex.rollup.enabled", havingValue = "true", matchIfMissing = true)
+public class ForexRollupService {
+
+    private final ExchangeRateRepository exchangeRateRepository;
+    private final CurrencyPairRepository currencyPairRepository;
+    private final ForexIngestService forexIngestService;
+
+    @EventListener
+    public void onIngest(ForexDataIngestedEvent event) {
+        if (event.getFrequency() == Frequency.DAILY) {
+            rebuild(event.getCurrencyPairId(), event.getFirstDate(), event.getLastDate());
+        }
+    }
+
+    @Transactional
+    public void rebuild(Long currencyPairId, LocalDate firstDay, LocalDate lastDay) {
+        LocalDate firstWeek = weekStart(firstDay);
+        LocalDate lastWeekEnd = weekStart(lastDay).plusDays(6);
+        LocalDate firstMonth = monthStart(firstDay);
+        LocalDate lastMonthEnd = lastDay.with(TemporalAdjusters.lastDayOfMonth());
+
+        LocalDate from = firstWeek.isBefore(firstMonth) ? firstWeek : firstMonth;
+        LocalDate to = lastWeekEnd.isAfter(lastMonthEnd) ? lastWeekEnd : lastMonthEnd;
+        List<PricePoint> days = exchangeRateRepository.findPricePoints(currencyPairId, from, to);
+        CurrencyPair pair = currencyPairRepository.getReferenceById(currencyPairId);
+
+        List<WeeklyExchangeRate> weeks = new ArrayList<>();
+        bucket(days, ForexRollupService::weekStart).forEach((weekStart, bucket) -> {
+            if (!weekStart.isBefore(firstWeek) && !weekStart.isAfter(lastWeekEnd)) {
+                Bar bar = Bar.of(bucket);
+                weeks.add(new WeeklyExchangeRate(null, pair, weekStart, bar.open, bar.high, bar.low, bar.close));
+            }
+        });
+        List<MonthlyExchangeRate> months = new ArrayList<>();
+        bucket(days, ForexRollupService::monthStart).forEach((monthStart, bucket) -> {
+            if (!monthStart.isBefore(firstMonth) && !monthStart.isAfter(lastMonthEnd)) {
+                Bar bar = Bar.of(bucket);
+                months.add(new MonthlyExchangeRate(null, pair, monthStart, bar.open, bar.high, bar.low, bar.close));
+            }
+        });
+
+        forexIngestService.upsertWeeklyBuckets(weeks);
+        forexIngestService.upsertMonthlyBuckets(months);
+        log.debug("Rolled up {} weeks and {} months for pair {}", weeks.size(), months.size(), currencyPairId);
+    }
+
+    private static Map<LocalDate, List<PricePoint>> bucket(List<PricePoint> days, Function<LocalDate, LocalDate> bucketOf) {
+        Map<LocalDate, List<PricePoint>> buckets = new LinkedHashMap<>();
+        for (PricePoint day : days) {
+            buckets.computeIfAbsent(bucketOf.apply(day.getDate()), key -> new ArrayList<>()).add(day);
+        }
+        return buckets;
+    }
+
+    static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    static LocalDate monthStart(LocalDate date) {
+        return date.withDayOfMonth(1);
+    }
+
+    private static class Bar {
+        private long open = Prices.MISSING;
+        private long high = Prices.MISSING;
+        private long low = Prices.MISSING;
+        private long close = Prices.MISSING;
+
+        // days are in date order
+        static Bar of(List<PricePoint> days) {
+            Bar bar = new Bar();
+            for (PricePoint day : days) {
+                if (Prices.isMissing(bar.open)) {
+                    bar.open = day.getOpenPrice();
+                }
+                long high = day.getHighPrice();
+                if (!Prices.isMissing(high) && (Prices.isMissing(bar.high) || high > bar.high)) {
+                    bar.high = high;
+                }
+                long low = day.getLowPrice();
+                if (!Prices.isMissing(low) && (Prices.isMissing(bar.low) || low < bar.low)) {
+                    bar.low = low;
+                }
+                if (!Prices.isMissing(day.getClosePrice())) {
+                    bar.close = day.getClosePrice();
+                }
+            }
+            return bar;
+        }
+    }
+}
@@ -2,21 +2,44 @@ package com.vance.backend.services;
 
 import com.vance.backend.dto.ForexDataResponse;
 import com.vance.backend.dto.ForexDataResponse.*;
+import com.vance.backend.dto.PairDerivation;
+import com.vance.backend.dto.PairPricePoint;
+import com.vance.backend.dto.PricePoint;
 import com.vance.backend.models.*;
 import com.vance.backend.repos.*;
+import com.vance.backend.services.CrossRateService.CrossRate;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
+import com.vance.backend.services.timeseries.Downsampler;
+import com.vance.backend.services.timeseries.ForexSeriesStore;
+import com.vance.backend.services.timeseries.PriceSeries;
+import com.vance.backend.services.timeseries.RangeAggregateIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.DoubleSummaryStatistics;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class ForexService {
+
+    /**
+     * A validated {@code /forex-data} request for a pair that can be served:
+     * stored ({@code currencyPair} set) or derived ({@code crossRate} set).
+     */
+    public record ForexQuery(String fromCurrency, String toCurrency, String period, Integer maxPoints,
+                             CurrencyPair currencyPair, CrossRate crossRate) {
+    }
     
     @Autowired
-    private CurrencyPairRepository currencyPairRepository;
+    private CurrencyPairRegistry currencyPairRegistry;
     
     @Autowired
     private ExchangeRateRepository exchangeRateRepository;
@@ -27,70 +50,329 @@ public class ForexService {
     @Autowired
     private MonthlyExchangeRateRepository monthlyExchangeRateRepository;
 
+    @Autowired
+    private ForexSeriesStore seriesStore;
+
+    @Autowired
+    private CrossRateService crossRateService;
+
+    @Value("${forex.batch.max-pairs:50}")
+    private int maxBatchPairs;
+
     public ForexDataResponse getForexData(String fromCurrency, String toCurrency, String period) {
+        return getForexData(fromCurrency, toCurrency, period, null);
+    }
+
+    /**
+     * With {@code maxPoints} set, each series is downsampled to at most that
+     * many points, keeping the extremes reported in the aggregates. Pairs
+     * that are not stored are derived from ones that are, see
+     * {@link CrossRateService}.
+     */
+    public ForexDataResponse getForexData(String fromCurrency, String toCurrency, String period, Integer maxPoints) {
+        return getForexData(resolve(fromCurrency, toCurrency, period, maxPoints));
+    }
+
+    /** Validates a request and resolves its pair; unknown pairs are an {@link IllegalArgumentException}. */
+    public ForexQuery resolve(String fromCurrency, String toCurrency, String period, Integer maxPoints) {
         validateInputs(fromCurrency, toCurrency, period);
-        
-        CurrencyPair currencyPair = currencyPairRepository.findByFromCurrencyAndToCurrency(fromCurrency, toCurrency);
-        if (currencyPair == null) {
-            throw new IllegalArgumentException("Currency pair not found");
-        }
+        validateMaxPoints(maxPoints);
+
+        CurrencyPair currencyPair = currencyPairRegistry.find(fromCurrency, toCurrency).orElse(null);
+        CrossRate crossRate = currencyPair != null ? null : crossRateService.find(fromCurrency, toCurrency)
+            .orElseThrow(() -> new IllegalArgumentException("Currency pair not found"));
+        return new ForexQuery(fromCurrency, toCurrency, period, maxPoints, currencyPair, crossRate);
+    }
+
+    public ForexDataResponse getForexData(ForexQuery query) {
+        String fromCurrency = query.fromCurrency();
+        String toCurrency = query.toCurrency();
+        String period = query.period();
+        Integer maxPoints = query.maxPoints();
+        CurrencyPair currencyPair = query.currencyPair();
 
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = calculateStartDate(endDate, period);
+        if (currencyPair == null) {
+            return fromCrossRate(query.crossRate(), period, startDate, endDate, maxPoints);
+        }
         
+        if (seriesStore.isLoaded()) {
+            return fromSeries(currencyPair, period, startDate, endDate, maxPoints);
+        }
         List<ForexDataPoint> dailyData = fetchDailyData(currencyPair, startDate, endDate);
         List<ForexDataPoint> weeklyData = fetchWeeklyData(currencyPair, startDate, endDate);
         List<ForexDataPoint> monthlyData = fetchMonthlyData(currencyPair, startDate, endDate);
-        
-        AggregateStatistics aggregates = calculateAggregates(dailyData);
-        
+
+        return new ForexDataResponse(
+            fromCurrency,
+            toCurrency,
+            period,
+            calculateAggregates(dailyData),
+            new ForexTimeSeriesData(
+                downsample(dailyData, maxPoints),
+                downsample(weeklyData, maxPoints),
+                downsample(monthlyData, maxPoints)),
+            null
+        );
+    }
+
+    /**
+     * {@link #getForexData} for several pairs, given as {@code FROM-TO}
+     * codes, in request order. Served from the series store; before it has
+     * loaded, each resolution is read for all stored pairs in one query.
+     * All pairs are resolved before anything is read, so one invalid or
+     * unknown pair rejects the whole batch, as it would a single request;
+     * clients get either every document or none.
+     */
+    public List<ForexDataResponse> getForexDataBatch(List<String> pairs, String period, Integer maxPoints) {
+        validateMaxPoints(maxPoints);
+        if (pairs == null || pairs.isEmpty() || pairs.size() > maxBatchPairs) {
+            throw new IllegalArgumentException("Between 1 and " + maxBatchPairs + " pairs must be requested");
+        }
+        // one of the two is set per requested pair
+        List<CurrencyPair> currencyPairs = new ArrayList<>(pairs.size());
+        List<CrossRate> crossRates = new ArrayList<>(pairs.size());
+        for (String code : pairs) {
+            String[] currencies = code.trim().split("-");
+            if (currencies.length != 2) {
+                throw new IllegalArgumentException("Invalid currency pair " + code);
+            }
+            validateInputs(currencies[0], currencies[1], period);
+            CurrencyPair currencyPair = currencyPairRegistry.find(currencies[0], currencies[1]).orElse(null);
+            currencyPairs.add(currencyPair);
+            crossRates.add(currencyPair != null ? null : crossRateService.find(currencies[0], currencies[1])
+                .orElseThrow(() -> new IllegalArgumentException("Currency pair not found: " + code)));
+        }
+
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = calculateStartDate(endDate, period);
+        if (seriesStore.isLoaded()) {
+            List<ForexDataResponse> responses = new ArrayList<>(currencyPairs.size());
+            for (int i = 0; i < currencyPairs.size(); i++) {
+                responses.add(currencyPairs.get(i) != null
+                    ? fromSeries(currencyPairs.get(i), period, startDate, endDate, maxPoints)
+                    : fromCrossRate(crossRates.get(i), period, startDate, endDate, maxPoints));
+            }
+            return responses;
+        }
+
+        List<Long> pairIds = currencyPairs.stream()
+            .filter(Objects::nonNull)
+            .map(CurrencyPair::getId)
+            .distinct()
+            .collect(Collectors.toList());
+        Map<Long, CloseStatistics> statistics = new HashMap<>();
+        Map<Long, List<ForexDataPoint>> dailyData = byPair(
+            exchangeRateRepository.findPricePointsForPairs(pairIds, startDate, endDate),
+            point -> statistics.computeIfAbsent(point.getCurrencyPairId(), id -> new CloseStatistics())
+                .accept(point.getClosePrice()));
+        Map<Long, List<ForexDataPoint>> weeklyData = byPair(
+            weeklyExchangeRateRepository.findPricePointsForPairs(pairIds, startDate, endDate), point -> { });
+        Map<Long, List<ForexDataPoint>> monthlyData = byPair(
+            monthlyExchangeRateRepository.findPricePointsForPairs(pairIds, startDate, endDate), point -> { });
+
+        List<ForexDataResponse> responses = new ArrayList<>(currencyPairs.size());
+        for (int i = 0; i < currencyPairs.size(); i++) {
+            CurrencyPair pair = currencyPairs.get(i);
+            if (pair == null) {
+                responses.add(fromCrossRate(crossRates.get(i), period, startDate, endDate, maxPoints));
+                continue;
+            }
+            Long id = pair.getId();
+            responses.add(new ForexDataResponse(
+                pair.getFromCurrency(),
+                pair.getToCurrency(),
+                period,
+                statistics.getOrDefault(id, new CloseStatistics()).toAggregates(),
+                new ForexTimeSeriesData(
+                    downsample(dailyData.getOrDefault(id, List.of()), maxPoints),
+                    downsample(weeklyData.getOrDefault(id, List.of()), maxPoints),
+                    downsample(monthlyData.getOrDefault(id, List.of()), maxPoints)),
+                null
+            ));
+        }
+        return responses;
+    }
+
+    // rows arrive ordered by pair and date, so each pair's list is in date order
+    private static Map<Long, List<ForexDataPoint>> byPair(List<PairPricePoint> points, Consumer<PairPricePoint> each) {
+        Map<Long, List<ForexDataPoint>> byPair = new HashMap<>();
+        for (PairPricePoint point : points) {
+            byPair.computeIfAbsent(point.getCurrencyPairId(), id -> new ArrayList<>()).add(new ForexDataPoint(
+                point.getDate(),
+                point.getOpenPrice(),
+                point.getHighPrice(),
+                point.getLowPrice(),
+                point.getClosePrice()
+            ));
+            each.accept(point);
+        }
+        return byPair;
+    }
+
+    private ForexDataResponse fromSeries(CurrencyPair currencyPair, String period, LocalDate startDate, LocalDate endDate,
+                                         Integer maxPoints) {
+        return fromSeries(currencyPair.getFromCurrency(), currencyPair.getToCurrency(), period,
+            frequency -> seriesStore.get(currencyPair.getId(), frequency), null, startDate, endDate, maxPoints);
+    }
+
+    // derived series come from the cross-rate cache whether or not the series store has loaded
+    private ForexDataResponse fromCrossRate(CrossRate crossRate, String period, LocalDate startDate, LocalDate endDate,
+                                            Integer maxPoints) {
+        return fromSeries(crossRate.fromCurrency(), crossRate.toCurrency(), period,
+            frequency -> crossRateService.series(crossRate, frequency), crossRate.derivation(), startDate, endDate, maxPoints);
+    }
+
+    private ForexDataResponse fromSeries(String fromCurrency, String toCurrency, String period,
+                                         Function<Frequency, PriceSeries> seriesOf, PairDerivation derivation,
+                                         LocalDate startDate, LocalDate endDate, Integer maxPoints) {
+        PriceSeries daily = seriesOf.apply(Frequency.DAILY);
         return new ForexDataResponse(
             fromCurrency,
             toCurrency,
             period,
-            aggregates,
-            new ForexTimeSeriesData(dailyData, weeklyData, monthlyData)
+            indexedAggregates(daily, startDate, endDate),
+            new ForexTimeSeriesData(
+                sliceDataPoints(daily, startDate, endDate, maxPoints),
+                sliceDataPoints(seriesOf.apply(Frequency.WEEKLY), startDate, endDate, maxPoints),
+                sliceDataPoints(seriesOf.apply(Frequency.MONTHLY), startDate, endDate, maxPoints)),
+            derivation
+        );
+    }
+
+    public AggregateStatistics getAggregates(String fromCurrency, String toCurrency, String period) {
+        validateInputs(fromCurrency, toCurrency, period);
+
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = calculateStartDate(endDate, period);
+
+        CurrencyPair currencyPair = currencyPairRegistry.find(fromCurrency, toCurrency).orElse(null);
+        if (currencyPair == null) {
+            CrossRate crossRate = crossRateService.find(fromCurrency, toCurrency)
+                .orElseThrow(() -> new IllegalArgumentException("Currency pair not found"));
+            return indexedAggregates(crossRateService.series(crossRate, Frequency.DAILY), startDate, endDate);
+        }
+        if (seriesStore.isLoaded()) {
+            return indexedAggregates(seriesStore.get(currencyPair.getId(), Frequency.DAILY), startDate, endDate);
+        }
+        return calculateAggregates(fetchDailyData(currencyPair, startDate, endDate));
+    }
+
+    private AggregateStatistics indexedAggregates(PriceSeries daily, LocalDate startDate, LocalDate endDate) {
+        int from = daily.lowerBound(startDate);
+        int to = daily.upperBound(endDate);
+        RangeAggregateIndex index = daily.closeIndex();
+        if (index.count(from, to) == 0) {
+            return new AggregateStatistics(0, 0, 0);
+        }
+        return new AggregateStatistics(index.max(from, to), index.min(from, to), index.average(from, to));
+    }
+
+    private List<ForexDataPoint> sliceDataPoints(PriceSeries series, LocalDate startDate, LocalDate endDate, Integer maxPoints) {
+        int from = series.lowerBound(startDate);
+        int to = series.upperBound(endDate);
+        if (maxPoints != null && to - from > maxPoints) {
+            int[] kept = Downsampler.largestTriangleThreeBuckets(series, from, to, maxPoints);
+            List<ForexDataPoint> points = new ArrayList<>(kept.length);
+            for (int i : kept) {
+                points.add(dataPoint(series, i));
+            }
+            return points;
+        }
+        List<ForexDataPoint> points = new ArrayList<>(Math.max(to - from, 0));
+        for (int i = from; i < to; i++) {
+            points.add(dataPoint(series, i));
+        }
+        return points;
+    }
+
+    private static ForexDataPoint dataPoint(PriceSeries series, int i) {
+        return new ForexDataPoint(
+            series.date(i),
+            series.open(i),
+            series.high(i),
+            series.low(i),
+            series.close(i)
         );
     }
 
+    // the database path's counterpart of sliceDataPoints: the points are packed into a series to pick from
+    private static List<ForexDataPoint> downsample(List<ForexDataPoint> points, Integer maxPoints) {
+        if (maxPoints == null || points.size() <= maxPoints) {
+            return points;
+        }
+        PriceSeries.Builder builder = PriceSeries.builder(points.size());
+        points.forEach(p -> builder.add(p.getDate(), p.getOpenPrice(), p.getHighPrice(), p.getLowPrice(), p.getClosePrice()));
+        int[] kept = Downsampler.largestTriangleThreeBuckets(builder.build(), 0, points.size(), maxPoints);
+        List<ForexDataPoint> sampled = new ArrayList<>(kept.length);
+        for (int i : kept) {
+            sampled.add(points.get(i));
+        }
+        return sampled;
+    }
+
     private List<ForexDataPoint> fetchDailyData(CurrencyPair currencyPair, LocalDate startDate, LocalDate endDate) {
-        return exchangeRateRepository.findByCurrencyPairAndDateBetween(currencyPair, startDate, endDate)
+        return exchangeRateRepository.findPricePoints(currencyPair.getId(), startDate, endDate)
             .stream()
             .map(this::mapToDataPoint)
             .collect(Collectors.toList());
     }
 
     private List<ForexDataPoint> fetchWeeklyData(CurrencyPair currencyPair, LocalDate startDate, LocalDate endDate) {
-        return weeklyExchangeRateRepository.findByCurrencyPairAndWeekStartBetween(currencyPair, startDate, endDate)
+        return weeklyExchangeRateRepository.findPricePoints(currencyPair.getId(), startDate, endDate)
             .stream()
             .map(this::mapToDataPoint)
             .collect(Collectors.toList());
     }
 
     private List<ForexDataPoint> fetchMonthlyData(CurrencyPair currencyPair, LocalDate startDate, LocalDate endDate) {
-        return monthlyExchangeRateRepository.findByCurrencyPairAndMonthStartBetween(currencyPair, startDate, endDate)
+        return monthlyExchangeRateRepository.findPricePoints(currencyPair.getId(), startDate, endDate)
             .stream()
             .map(this::mapToDataPoint)
             .collect(Collectors.toList());
     }
 
-    private AggregateStatistics calculateAggregates(List<ForexDataPoint> data) {
-        if (data.isEmpty()) {
-            return new AggregateStatistics(0.0, 0.0, 0.0);
+    static AggregateStatistics calculateAggregates(List<ForexDataPoint> data) {
+        CloseStatistics statistics = new CloseStatistics();
+        for (ForexDataPoint point : data) {
+            statistics.accept(point.getClosePrice());
         }
+        return statistics.toAggregates();
+    }
 
-        DoubleSummaryStatistics closeStats = data.stream()
-            .mapToDouble(ForexDataPoint::getClosePrice)
-            .summaryStatistics();
-            
-        return new AggregateStatistics(
-            closeStats.getMax(),
-            closeStats.getMin(),
-            closeStats.getAverage()
-        );
+    /** Running max, min and average of close prices, skipping missing ones. */
+    static class CloseStatistics {
+        private long count;
+        private long sum;
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+
+        void accept(long close) {
+            if (Prices.isMissing(close)) {
+                return;
+            }
+            count++;
+            sum += close;
+            min = Math.min(min, close);
+            max = Math.max(max, close);
+        }
+
+        AggregateStatistics toAggregates() {
+            if (count == 0) {
+                return new AggregateStatistics(0, 0, 0);
+            }
+            return new AggregateStatistics(max, min, Prices.average(sum, count));
+        }
     }
     
-    private void validateInputs(String fromCurrency, String toCurrency, String period) {
+    private static void validateMaxPoints(Integer maxPoints) {
+        if (maxPoints != null && maxPoints < Downsampler.MIN_POINTS) {
+            throw new IllegalArgumentException("maxPoints must be at least " + Downsampler.MIN_POINTS);
+        }
+    }
+
+    void validateInputs(String fromCurrency, String toCurrency, String period) {
         if (fromCurrency == null || fromCurrency.length() != 3) {
             throw new IllegalArgumentException("Invalid from currency");
         }
@@ -106,7 +388,7 @@ public class ForexService {
         return period != null && period.matches("^[1-9][0-9]*(D|W|M|Y)$");
     }
     
-    private LocalDate calculateStartDate(LocalDate endDate, String period) {
+    LocalDate calculateStartDate(LocalDate endDate, String period) {
         char unit = period.charAt(period.length() - 1);
         int amount = Integer.parseInt(period.substring(0, period.length() - 1));
         
@@ -119,52 +401,13 @@ public class ForexService {
         };
     }
     
-    private List<ForexDataPoint> fetchDataPoints(CurrencyPair currencyPair, LocalDate startDate, LocalDate endDate, String period) {
-        if (period.endsWith("D") || period.equals("1M")) {
-            return exchangeRateRepository.findByCurrencyPairAndDateBetween(currencyPair, startDate, endDate)
-                .stream()
-                .map(this::mapToDataPoint)
-                .collect(Collectors.toList());
-        } else if (period.endsWith("M") && Integer.parseInt(period.substring(0, period.length() - 1)) <= 6) {
-            return weeklyExchangeRateRepository.findByCurrencyPairAndWeekStartBetween(currencyPair, startDate, endDate)
-                .stream()
-                .map(this::mapToDataPoint)
-                .collect(Collectors.toList());
-        } else {
-            return monthlyExchangeRateRepository.findByCurrencyPairAndMonthStartBetween(currencyPair, startDate, endDate)
-                .stream()
-                .map(this::mapToDataPoint)
-                .collect(Collectors.toList());
-        }
-    }
-    
-    private ForexDataPoint mapToDataPoint(ExchangeRate rate) {
-        return new ForexDataPoint(
-            rate.getDate(),
-            rate.getOpenPrice(),
-            rate.getHighPrice(),
-            rate.getLowPrice(),
-            rate.getClosePrice()
-        );
-    }
-    
-    private ForexDataPoint mapToDataPoint(WeeklyExchangeRate rate) {
-        return new ForexDataPoint(
-            rate.getWeekStart(),
-            rate.getOpenPrice(),
-            rate.getHighPrice(),
-            rate.getLowPrice(),
-            rate.getClosePrice()
-        );
-    }
-    
-    private ForexDataPoint mapToDataPoint(MonthlyExchangeRate rate) {
+    private ForexDataPoint mapToDataPoint(PricePoint point) {
         return new ForexDataPoint(
-            rate.getMonthStart(),
-            rate.getOpenPrice(),
-            rate.getHighPrice(),
-            rate.getLowPrice(),
-            rate.getClosePrice()
+            point.getDate(),
+            point.getOpenPrice(),
+            point.getHighPrice(),
+            point.getLowPrice(),
+            point.getClosePrice()
         );
     }
 }
@@ -0,0 +1,144 @@
+package com.vance.backend.services;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vance.backend.dto.ForexDataResponse.AggregateStatistics;
+import com.vance.backend.dto.PricePoint;
+import com.vance.backend.dto.PriceSerializer;
+import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.repos.ExchangeRateRepository;
+import com.vance.backend.repos.MonthlyExchangeRateRepository;
+import com.vance.backend.repos.WeeklyExchangeRateRepository;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streaming variant of {@link ForexService#getForexData}. Rows are read
+ * as projections through cursor-backed repository streams and written
+ * straight to the response with a {@link JsonGenerator}, so memory per
+ * request does not grow with the range. Aggregates are accumulated during
+ * the daily pass and written last.
+ */
+@Service
+public class ForexStreamingService {
+
+    private final ForexService forexService;
+    private final CurrencyPairRegistry currencyPairRegistry;
+    private final ExchangeRateRepository exchangeRateRepository;
+    private final WeeklyExchangeRateRepository weeklyExchangeRateRepository;
+    private final MonthlyExchangeRateRepository monthlyExchangeRateRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ForexStreamingService(ForexService forexService,
+                                 CurrencyPairRegistry currencyPairRegistry,
+                                 ExchangeRateRepository exchangeRateRepository,
+                                 WeeklyExchangeRateRepository weeklyExchangeRateRepository,
+                                 MonthlyExchangeRateRepository monthlyExchangeRateRepository,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager) {
+        this.forexService = forexService;
+        this.currencyPairRegistry = currencyPairRegistry;
+        this.exchangeRateRepository = exchangeRateRepository;
+        this.weeklyExchangeRateRepository = weeklyExchangeRateRepository;
+        this.monthlyExchangeRateRepository = monthlyExchangeRateRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Validates the request and resolves the pair up front, so bad requests
+     * fail before the response is committed.
+     */
+    public StreamingResponseBody streamForexData(String fromCurrency, String toCurrency, String period) {
+        forexService.validateInputs(fromCurrency, toCurrency, period);
+        CurrencyPair currencyPair = currencyPairRegistry.find(fromCurrency, toCurrency)
+            .orElseThrow(() -> new IllegalArgumentException("Currency pair not found"));
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = forexService.calculateStartDate(endDate, period);
+        Long pairId = currencyPair.getId();
+
+        return out -> readOnlyTransaction.executeWithoutResult(status -> {
+            try {
+                write(out, fromCurrency, toCurrency, period, pairId, startDate, endDate);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void write(OutputStream out, String fromCurrency, String toCurrency, String period,
+                       Long pairId, LocalDate startDate, LocalDate endDate) throws IOException {
+        ForexService.CloseStatistics stats = new ForexService.CloseStatistics();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            gen.writeStringField("fromCurrency", fromCurrency);
+            gen.writeStringField("toCurrency", toCurrency);
+            gen.writeStringField("period", period);
+
+            gen.writeObjectFieldStart("timeSeriesData");
+            gen.writeArrayFieldStart("dailyData");
+            try (Stream<PricePoint> points = exchangeRateRepository.streamPricePoints(pairId, startDate, endDate)) {
+                for (Iterator<PricePoint> it = points.iterator(); it.hasNext(); ) {
+                    PricePoint point = it.next();
+                    writePoint(gen, point);
+                    stats.accept(point.getClosePrice());
+                }
+            }
+            gen.writeEndArray();
+
+            gen.writeArrayFieldStart("weeklyData");
+            try (Stream<PricePoint> points = weeklyExchangeRateRepository.streamPricePoints(pairId, startDate, endDate)) {
+                for (Iterator<PricePoint> it = points.iterator(); it.hasNext(); ) {
+                    writePoint(gen, it.next());
+                }
+            }
+            gen.writeEndArray();
+
+            gen.writeArrayFieldStart("monthlyData");
+            try (Stream<PricePoint> points = monthlyExchangeRateRepository.streamPricePoints(pairId, startDate, endDate)) {
+                for (Iterator<PricePoint> it = points.iterator(); it.hasNext(); ) {
+                    writePoint(gen, it.next());
+                }
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+
+            AggregateStatistics aggregates = stats.toAggregates();
+            gen.writeObjectFieldStart("aggregates");
+            writePrice(gen, "maximumPrice", aggregates.getMaximumPrice());
+            writePrice(gen, "minimumPrice", aggregates.getMinimumPrice());
+            writePrice(gen, "averagePrice", aggregates.getAveragePrice());
+            gen.writeEndObject();
+
+            gen.writeEndObject();
+        }
+    }
+
+    private static void writePoint(JsonGenerator gen, PricePoint point) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("date", point.getDate().toString());
+        writePrice(gen, "openPrice", point.getOpenPrice());
+        writePrice(gen, "highPrice", point.getHighPrice());
+        writePrice(gen, "lowPrice", point.getLowPrice());
+        writePrice(gen, "closePrice", point.getClosePrice());
+        gen.writeEndObject();
+    }
+
+    private static void writePrice(JsonGenerator gen, String field, long price) throws IOException {
+        gen.writeFieldName(field);
+        PriceSerializer.write(gen, price);
+    }
+}
@@ -0,0 +1,168 @@
+package com.vance.backend.services;
+
+import com.vance.backend.models.ScrapeCoverage;
+import com.vance.backend.repos.ScrapeCoverageRepository;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which date ranges have already been fetched per pair and
+ * frequency, so scrapes only request the gaps. Coverage is kept in memory
+ * and written through to {@code scrape_coverage}.
+ *
+ * On startup, pairs and frequencies without any coverage are seeded from the
+ * rows already stored: consecutive rows that are no further apart than a
+ * weekend or holiday (a week and a bit for weekly bars, a month and a bit
+ * for monthly ones) are treated as one covered range.
+ */
+@Slf4j
+@Service
+@Order(Ordered.HIGHEST_PRECEDENCE + 18)
+public class ScrapeCoverageService implements ApplicationRunner {
+
+    public record DateRange(LocalDate start, LocalDate end) {
+    }
+
+    private record CoverageKey(Long currencyPairId, Frequency frequency) {
+    }
+
+    private final ScrapeCoverageRepository coverageRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // start -> end, both inclusive
+    private final Map<CoverageKey, NavigableMap<LocalDate, LocalDate>> coverage = new ConcurrentHashMap<>();
+
+    public ScrapeCoverageService(ScrapeCoverageRepository coverageRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager) {
+        this.coverageRepository = coverageRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (ScrapeCoverage range : coverageRepository.findAll()) {
+            ranges(range.getCurrencyPairId(), range.getFrequency()).put(range.getStartDate(), range.getEndDate());
+        }
+        for (Long pairId : jdbcTemplate.queryForList("SELECT id FROM currency_pair", Long.class)) {
+            seed(pairId, Frequency.DAILY, "exchange_rate", "date", 4);
+            seed(pairId, Frequency.WEEKLY, "weekly_exchange_rate", "week_start", 10);
+            seed(pairId, Frequency.MONTHLY, "monthly_exchange_rate", "month_start", 35);
+        }
+        log.info("Loaded scrape coverage for {} pair/frequency combinations", coverage.size());
+    }
+
+    private void seed(Long pairId, Frequency frequency, String table, String dateColumn, int maxGapDays) {
+        if (!ranges(pairId, frequency).isEmpty()) {
+            return;
+        }
+        List<LocalDate> dates = jdbcTemplate.queryForList(
+            "SELECT " + dateColumn + " FROM " + table + " WHERE currency_pair_id = ? ORDER BY " + dateColumn,
+            LocalDate.class, pairId);
+        if (dates.isEmpty()) {
+            return;
+        }
+        List<DateRange> seeded = new ArrayList<>();
+        LocalDate start = dates.get(0);
+        LocalDate previous = start;
+        for (LocalDate date : dates) {
+            if (ChronoUnit.DAYS.between(previous, date) > maxGapDays) {
+                seeded.add(new DateRange(start, previous));
+                start = date;
+            }
+            previous = date;
+        }
+        seeded.add(new DateRange(start, previous));
+        seeded.forEach(range -> record(pairId, frequency, range.start(), range.end()));
+    }
+
+    /** The parts of [start, end] (inclusive) that have not been fetched yet, in order. */
+    public List<DateRange> gaps(Long currencyPairId, Frequency frequency, LocalDate start, LocalDate end) {
+        List<DateRange> gaps = new ArrayList<>();
+        NavigableMap<LocalDate, LocalDate> ranges = coverage.get(new CoverageKey(currencyPairId, frequency));
+        if (ranges == null) {
+            if (!start.isAfter(end)) {
+                gaps.add(new DateRange(start, end));
+            }
+            return gaps;
+        }
+        synchronized (ranges) {
+            LocalDate cursor = start;
+            Map.Entry<LocalDate, LocalDate> floor = ranges.floorEntry(start);
+            if (floor != null && !floor.getValue().isBefore(cursor)) {
+                cursor = floor.getValue().plusDays(1);
+            }
+            for (Map.Entry<LocalDate, LocalDate> range : ranges.subMap(start, false, end, true).entrySet()) {
+                if (cursor.isBefore(range.getKey())) {
+                    gaps.add(new DateRange(cursor, range.getKey().minusDays(1)));
+                }
+                if (!range.getValue().isBefore(cursor)) {
+                    cursor = range.getValue().plusDays(1);
+                }
+            }
+            if (!cursor.isAfter(end)) {
+                gaps.add(new DateRange(cursor, end));
+            }
+        }
+        return gaps;
+    }
+
+    /** Marks [start, end] (inclusive) as fetched, merging it with touching ranges. */
+    public void record(Long currencyPairId, Frequency frequency, LocalDate start, LocalDate end) {
+        if (start.isAfter(end)) {
+            return;
+        }
+        NavigableMap<LocalDate, LocalDate> ranges = ranges(currencyPairId, frequency);
+        synchronized (ranges) {
+            LocalDate mergedStart = start;
+            LocalDate mergedEnd = end;
+            Map.Entry<LocalDate, LocalDate> floor = ranges.floorEntry(start);
+            if (floor != null && !floor.getValue().plusDays(1).isBefore(start)) {
+                mergedStart = floor.getKey();
+            }
+            NavigableMap<LocalDate, LocalDate> absorbed = ranges.subMap(mergedStart, true, end.plusDays(1), true);
+            for (LocalDate absorbedEnd : absorbed.values()) {
+                if (absorbedEnd.isAfter(mergedEnd)) {
+                    mergedEnd = absorbedEnd;
+                }
+            }
+            if (absorbed.size() == 1 && absorbed.firstKey().equals(mergedStart) && absorbed.firstEntry().getValue().equals(mergedEnd)) {
+                return;
+            }
+            absorbed.clear();
+            ranges.put(mergedStart, mergedEnd);
+
+            // still under the lock, so concurrent recordings for the same key are written in order;
+            // only the absorbed rows, whose starts are the ones just cleared, are replaced
+            ScrapeCoverage merged = new ScrapeCoverage(currencyPairId, frequency, mergedStart, mergedEnd);
+            transactionTemplate.executeWithoutResult(status -> {
+                coverageRepository.deleteStartingBetween(currencyPairId, frequency, merged.getStartDate(), end.plusDays(1));
+                coverageRepository.save(merged);
+            });
+        }
+    }
+
+    private NavigableMap<LocalDate, LocalDate> ranges(Long currencyPairId, Frequency frequency) {
+        return coverage.computeIfAbsent(new CoverageKey(currencyPairId, frequency), key -> new TreeMap<>());
+    }
+}
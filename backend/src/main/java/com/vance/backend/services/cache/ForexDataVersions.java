@@ -0,0 +1,40 @@
+package com.vance.backend.services.cache;
+
+import com.vance.backend.events.ForexDataIngestedEvent;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-pair data version, bumped after every committed ingest for that pair.
+ * Versions start from the boot time so that keys derived from them do not
+ * collide with ones handed out before a restart.
+ */
+@Component
+public class ForexDataVersions {
+
+    private final long bootId = System.currentTimeMillis();
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public String version(String fromCurrency, String toCurrency) {
+        AtomicLong version = versions.get(key(fromCurrency, toCurrency));
+        return bootId + "." + (version == null ? 0 : version.get());
+    }
+
+    // runs after ForexSeriesStore has merged the same event
+    @Order(100)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIngest(ForexDataIngestedEvent event) {
+        versions.computeIfAbsent(key(event.getFromCurrency(), event.getToCurrency()), k -> new AtomicLong())
+            .incrementAndGet();
+    }
+
+    private static String key(String fromCurrency, String toCurrency) {
+        return fromCurrency + "/" + toCurrency;
+    }
+}
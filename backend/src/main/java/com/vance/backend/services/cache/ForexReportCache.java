@@ -0,0 +1,67 @@
+package com.vance.backend.services.cache;
+
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of rendered PDF reports. Keys include the pair's data version,
+ * so a report goes stale as soon as new rows for the pair are committed;
+ * entries are also dropped once older than {@code forex.report-cache.max-age}
+ * because the report carries its generation time. Only ranges of up to
+ * {@code forex.report-cache.max-range-days} are cached, longer exports are
+ * streamed instead of being held in memory.
+ */
+@Component
+public class ForexReportCache {
+
+    private record Entry(byte[] report, long createdAtMillis) {
+    }
+
+    private final ForexDataVersions dataVersions;
+    private final long maxAgeMillis;
+    private final long maxRangeDays;
+    private final Map<String, Entry> entries;
+
+    public ForexReportCache(ForexDataVersions dataVersions,
+                            @Value("${forex.report-cache.max-entries:50}") int maxEntries,
+                            @Value("${forex.report-cache.max-age:24h}") Duration maxAge,
+                            @Value("${forex.report-cache.max-range-days:366}") long maxRangeDays) {
+        this.dataVersions = dataVersions;
+        this.maxAgeMillis = maxAge.toMillis();
+        this.maxRangeDays = maxRangeDays;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    public boolean isCacheable(LocalDate startDate, LocalDate endDate) {
+        return ChronoUnit.DAYS.between(startDate, endDate) <= maxRangeDays;
+    }
+
+    public byte[] get(String fromCurrency, String toCurrency, LocalDate startDate, LocalDate endDate,
+                      Frequency frequency, Supplier<byte[]> renderer) {
+        String key = fromCurrency + "-" + toCurrency + "-" + startDate + "-" + endDate + "-" + frequency
+            + "-" + dataVersions.version(fromCurrency, toCurrency);
+        long now = System.currentTimeMillis();
+        Entry cached = entries.get(key);
+        if (cached != null && now - cached.createdAtMillis() <= maxAgeMillis) {
+            return cached.report();
+        }
+        byte[] report = renderer.get();
+        entries.put(key, new Entry(report, now));
+        return report;
+    }
+}
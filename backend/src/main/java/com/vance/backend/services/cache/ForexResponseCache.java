@@ -0,0 +1,64 @@
+package com.vance.backend.services.cache;
+
+import com.vance.backend.dto.ForexDataResponse;
+import com.vance.backend.services.CrossRateService;
+import com.vance.backend.services.ForexService.ForexQuery;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of built {@link ForexDataResponse}s. Keys include the pair's
+ * data version (its legs' for a derived pair) and the current date, so
+ * entries go stale by construction when new rows are ingested or the period
+ * window moves; nothing has to be evicted explicitly. The key doubles as
+ * the response's strong ETag.
+ */
+@Component
+public class ForexResponseCache {
+
+    private final ForexDataVersions dataVersions;
+    private final CrossRateService crossRateService;
+    private final Map<String, ForexDataResponse> entries;
+
+    public ForexResponseCache(ForexDataVersions dataVersions,
+                              CrossRateService crossRateService,
+                              @Value("${forex.response-cache.max-entries:500}") int maxEntries) {
+        this.dataVersions = dataVersions;
+        this.crossRateService = crossRateService;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ForexDataResponse> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    public String etag(ForexQuery query) {
+        return "\"" + query.fromCurrency() + "-" + query.toCurrency() + "-" + query.period()
+            + (query.maxPoints() == null ? "" : "-" + query.maxPoints()) + "-" + LocalDate.now()
+            + "-" + dataVersion(query) + "\"";
+    }
+
+    private String dataVersion(ForexQuery query) {
+        return query.crossRate() == null
+            ? dataVersions.version(query.fromCurrency(), query.toCurrency())
+            : crossRateService.dataVersion(query.crossRate());
+    }
+
+    public ForexDataResponse get(String etag, Supplier<ForexDataResponse> loader) {
+        ForexDataResponse cached = entries.get(etag);
+        if (cached != null) {
+            return cached;
+        }
+        ForexDataResponse response = loader.get();
+        entries.put(etag, response);
+        return response;
+    }
+}
@@ -0,0 +1,232 @@
+package com.vance.backend.services.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzipped copies of every fetched history page under
+ * {@code forex.page-cache.dir}, one file per quote, period1, period2 and
+ * frequency. The directory is capped at {@code forex.page-cache.max-size};
+ * the least recently used pages are evicted first. Use order survives
+ * restarts through the files' modification times.
+ */
+@Slf4j
+@Component
+public class RawPageCache {
+
+    public record Key(String quote, long period1, long period2, String frequency) {
+
+        private static final Pattern HISTORY_URL = Pattern.compile(
+            "/quote/([^/?]+)/history/?\\?period1=(\\d+)&period2=(\\d+)&frequency=(\\w+)");
+
+        private static final Pattern FILE_NAME = Pattern.compile("(.+)_(\\d+)_(\\d+)_(\\w+)\\.html\\.gz");
+
+        /** The key of a history page URL; empty for any other URL. */
+        public static Optional<Key> fromUrl(String url) {
+            Matcher m = HISTORY_URL.matcher(url);
+            if (!m.find()) {
+                return Optional.empty();
+            }
+            return Optional.of(new Key(m.group(1), Long.parseLong(m.group(2)), Long.parseLong(m.group(3)), m.group(4)));
+        }
+
+        private static Optional<Key> fromFileName(String fileName) {
+            Matcher m = FILE_NAME.matcher(fileName);
+            if (!m.matches()) {
+                return Optional.empty();
+            }
+            return Optional.of(new Key(m.group(1), Long.parseLong(m.group(2)), Long.parseLong(m.group(3)), m.group(4)));
+        }
+
+        private String fileName() {
+            return quote + "_" + period1 + "_" + period2 + "_" + frequency + ".html.gz";
+        }
+    }
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxBytes;
+
+    // file name -> size, in access order
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    public RawPageCache(@Value("${forex.page-cache.enabled:true}") boolean enabled,
+                        @Value("${forex.page-cache.dir:data/page-cache}") Path directory,
+                        @Value("${forex.page-cache.max-size:512MB}") DataSize maxSize) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.maxBytes = maxSize.toBytes();
+        if (enabled) {
+            load();
+        }
+    }
+
+    private void load() {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> temps = Files.list(directory)) {
+                // left behind by writes interrupted by a shutdown
+                for (Path temp : temps.filter(file -> file.toString().endsWith(".tmp")).toList()) {
+                    Files.deleteIfExists(temp);
+                }
+            }
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(file -> Key.fromFileName(file.getFileName().toString()).isPresent())
+                    .sorted(Comparator.comparing(RawPageCache::lastModified))
+                    .forEach(file -> {
+                        long size = size(file);
+                        index.put(file.getFileName().toString(), size);
+                        totalBytes += size;
+                    });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open page cache " + directory, e);
+        }
+        log.info("Page cache {} holds {} pages, {} KB", directory.toAbsolutePath(), index.size(), totalBytes / 1024);
+        evict();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<String> get(Key key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String fileName = key.fileName();
+        synchronized (this) {
+            if (index.get(fileName) == null) {
+                return Optional.empty();
+            }
+        }
+        Path file = directory.resolve(fileName);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file), 16 * 1024)) {
+            String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return Optional.of(body);
+        } catch (NoSuchFileException e) {
+            forget(fileName);
+            return Optional.empty();
+        } catch (IOException e) {
+            log.warn("Dropping unreadable cached page {}: {}", fileName, e.getMessage());
+            delete(fileName);
+            return Optional.empty();
+        }
+    }
+
+    public void put(Key key, String body) {
+        if (!enabled) {
+            return;
+        }
+        String fileName = key.fileName();
+        Path file = directory.resolve(fileName);
+        try {
+            // written aside and moved into place, so readers never see a partial file
+            Path temp = Files.createTempFile(directory, fileName, ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), 16 * 1024)) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            long size = size(file);
+            synchronized (this) {
+                Long previous = index.put(fileName, size);
+                totalBytes += size - (previous == null ? 0 : previous);
+            }
+            evict();
+        } catch (IOException e) {
+            log.warn("Could not cache page {}: {}", fileName, e.getMessage());
+        }
+    }
+
+    /** Every cached page, least recently used first. */
+    public synchronized List<Key> keys() {
+        List<Key> keys = new ArrayList<>(index.size());
+        for (String fileName : index.keySet()) {
+            Key.fromFileName(fileName).ifPresent(keys::add);
+        }
+        return keys;
+    }
+
+    public synchronized long sizeBytes() {
+        return totalBytes;
+    }
+
+    private void evict() {
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<String, Long>> eldest = index.entrySet().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                totalBytes -= entry.getValue();
+                evicted.add(entry.getKey());
+                eldest.remove();
+            }
+        }
+        for (String fileName : evicted) {
+            try {
+                Files.deleteIfExists(directory.resolve(fileName));
+            } catch (IOException e) {
+                log.warn("Could not evict cached page {}: {}", fileName, e.getMessage());
+            }
+        }
+    }
+
+    private void delete(String fileName) {
+        forget(fileName);
+        try {
+            Files.deleteIfExists(directory.resolve(fileName));
+        } catch (IOException ignored) {
+            // picked up again on the next start and retried
+        }
+    }
+
+    private synchronized void forget(String fileName) {
+        Long size = index.remove(fileName);
+        if (size != null) {
+            totalBytes -= size;
+        }
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
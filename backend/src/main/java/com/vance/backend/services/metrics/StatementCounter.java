@@ -0,0 +1,35 @@
+package com.vance.backend.services.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread
+ * between {@link #start()} and {@link #stop()}, so a request that issues
+ * one query per row shows up as a high statement count. Statements sent
+ * through {@code JdbcTemplate} do not pass through Hibernate and are not
+ * counted.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /** Statements counted since {@link #start()} on this thread, or -1 if counting was not started. */
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? -1 : count[0];
+    }
+}
@@ -0,0 +1,83 @@
+package com.vance.backend.services.scrappers.impl;
+
+import com.vance.backend.dto.FetchedPage;
+import com.vance.backend.services.cache.RawPageCache;
+import com.vance.backend.services.scrappers.interfaces.PageFetcher;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link PageFetcher} that keeps a copy of every history page in the
+ * {@link RawPageCache} and answers from it for windows that have closed.
+ * A window whose period2 lies in the future still contains the moving
+ * current bar, so it is always fetched; its copy is kept for replays.
+ *
+ * Only pages with a history table are kept or served: a consent, captcha or
+ * error page delivered with a 2xx status would otherwise stand in for the
+ * window for good.
+ */
+@Primary
+@Component
+public class CachingPageFetcher implements PageFetcher {
+
+    private final HttpClientPageFetcher delegate;
+    private final RawPageCache cache;
+    private final Counter hits;
+    private final Counter misses;
+
+    public CachingPageFetcher(HttpClientPageFetcher delegate, RawPageCache cache, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.hits = meterRegistry.counter("scraper.page.cache", "result", "hit");
+        this.misses = meterRegistry.counter("scraper.page.cache", "result", "miss");
+    }
+
+    @Override
+    public FetchedPage fetch(String url) {
+        Optional<RawPageCache.Key> key = RawPageCache.Key.fromUrl(url);
+        Optional<FetchedPage> cached = key.flatMap(k -> cached(url, k));
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        FetchedPage page = delegate.fetch(url);
+        key.ifPresent(k -> keep(k, page));
+        return page;
+    }
+
+    @Override
+    public CompletableFuture<FetchedPage> fetchAsync(String url) {
+        Optional<RawPageCache.Key> key = RawPageCache.Key.fromUrl(url);
+        Optional<FetchedPage> cached = key.flatMap(k -> cached(url, k));
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+        return delegate.fetchAsync(url).thenApply(page -> {
+            key.ifPresent(k -> keep(k, page));
+            return page;
+        });
+    }
+
+    private Optional<FetchedPage> cached(String url, RawPageCache.Key key) {
+        if (key.period2() > System.currentTimeMillis() / 1000) {
+            return Optional.empty();
+        }
+        long started = System.nanoTime();
+        Optional<FetchedPage> page = cache.get(key)
+            .filter(HistoryTableExtractor::hasHistoryTable)
+            .map(body -> new FetchedPage(url, 200, body, (System.nanoTime() - started) / 1_000_000));
+        (page.isPresent() ? hits : misses).increment();
+        return page;
+    }
+
+    private void keep(RawPageCache.Key key, FetchedPage page) {
+        if (HistoryTableExtractor.hasHistoryTable(page.getBody())) {
+            cache.put(key, page.getBody());
+        }
+    }
+}
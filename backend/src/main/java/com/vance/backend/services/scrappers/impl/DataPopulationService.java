@@ -1,30 +1,85 @@
 package com.vance.backend.services.scrappers.impl;
 
-import com.vance.backend.models.*;
-import com.vance.backend.repos.*;
+import com.vance.backend.dto.ScrapeResult;
+import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.services.CurrencyPairRegistry;
+import com.vance.backend.services.ScrapeCoverageService;
+import com.vance.backend.services.ScrapeCoverageService.DateRange;
+import com.vance.backend.services.scrappers.impl.ScrapeExecutor.ScrapeTask;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
 import com.vance.backend.services.scrappers.interfaces.DataPopulation;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class DataPopulationService implements DataPopulation {
 
     private final YahooFinanceScraperService scraperService;
+    private final ScrapeExecutor scrapeExecutor;
+    private final CurrencyPairRegistry currencyPairRegistry;
+    private final ScrapeCoverageService scrapeCoverageService;
+
+    // weekly and monthly bars are derived from daily rows by ForexRollupService
+    @Value("${forex.rollup.enabled:true}")
+    private boolean rollupEnabled;
 
     @Override
     public void populateHistoricalData(String fromCurrency, String toCurrency, LocalDate startDate, LocalDate endDate) {
-        long fromTimestamp = YahooFinanceScraperService.dateToUnixTimestamp(startDate);
-        long toTimestamp = YahooFinanceScraperService.dateToUnixTimestamp(endDate);
+        List<ScrapeResult> results = scrapeExecutor.runAll(tasksForPair(fromCurrency, toCurrency, startDate, endDate));
+        String failures = results.stream()
+            .filter(result -> !result.isSuccess())
+            .map(result -> result.getTask() + ": " + result.getError())
+            .collect(Collectors.joining("; "));
+        if (!failures.isEmpty()) {
+            throw new RuntimeException("Population failed for " + fromCurrency + "-" + toCurrency + ": " + failures);
+        }
+    }
+
+    @Override
+    public List<ScrapeResult> populateHistoricalData(List<String> fromCurrencies, String toCurrency, LocalDate startDate, LocalDate endDate) {
+        List<ScrapeTask> tasks = new ArrayList<>();
+        for (String fromCurrency : fromCurrencies) {
+            tasks.addAll(tasksForPair(fromCurrency, toCurrency, startDate, endDate));
+        }
+        return scrapeExecutor.runAll(tasks);
+    }
+
+    // one task per frequency and not yet covered part of [startDate, endDate)
+    private List<ScrapeTask> tasksForPair(String fromCurrency, String toCurrency, LocalDate startDate, LocalDate endDate) {
+        String pair = fromCurrency + "-" + toCurrency;
+        Long pairId = currencyPairRegistry.find(fromCurrency, toCurrency).map(CurrencyPair::getId).orElse(null);
+        List<ScrapeTask> tasks = new ArrayList<>();
+        for (Frequency frequency : rollupEnabled ? List.of(Frequency.DAILY) : List.of(Frequency.values())) {
+            for (DateRange gap : gaps(pairId, frequency, startDate, endDate.minusDays(1))) {
+                long fromTimestamp = YahooFinanceScraperService.dateToUnixTimestamp(gap.start());
+                long toTimestamp = YahooFinanceScraperService.dateToUnixTimestamp(gap.end().plusDays(1));
+                String name = frequency.name().toLowerCase() + " " + pair + " " + gap.start() + ".." + gap.end();
+                tasks.add(new ScrapeTask(name, YahooFinanceScraperService.HOST,
+                    () -> scrape(frequency, fromCurrency, toCurrency, fromTimestamp, toTimestamp)));
+            }
+        }
+        return tasks;
+    }
 
-        populateDataForPair(fromCurrency, toCurrency, fromTimestamp, toTimestamp);
+    private List<DateRange> gaps(Long pairId, Frequency frequency, LocalDate start, LocalDate end) {
+        if (pairId == null) {
+            return start.isAfter(end) ? List.of() : List.of(new DateRange(start, end));
+        }
+        return scrapeCoverageService.gaps(pairId, frequency, start, end);
     }
 
-    private void populateDataForPair(String fromCurrency, String toCurrency, long fromTimestamp, long toTimestamp) {
-        scraperService.scrapeDailyData(fromCurrency, toCurrency, fromTimestamp, toTimestamp);
-        scraperService.scrapeWeeklyData(fromCurrency, toCurrency, fromTimestamp, toTimestamp);
-        scraperService.scrapeMonthlyData(fromCurrency, toCurrency, fromTimestamp, toTimestamp);
+    private void scrape(Frequency frequency, String fromCurrency, String toCurrency, long fromTimestamp, long toTimestamp) {
+        switch (frequency) {
+            case DAILY -> scraperService.scrapeDailyData(fromCurrency, toCurrency, fromTimestamp, toTimestamp);
+            case WEEKLY -> scraperService.scrapeWeeklyData(fromCurrency, toCurrency, fromTimestamp, toTimestamp);
+            case MONTHLY -> scraperService.scrapeMonthlyData(fromCurrency, toCurrency, fromTimestamp, toTimestamp);
+        }
     }
 }
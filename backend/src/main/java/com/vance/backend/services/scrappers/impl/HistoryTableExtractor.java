@@ -0,0 +1,350 @@
+package com.vance.backend.services.scrappers.impl;
+
+import com.vance.backend.models.Prices;
+
+import java.time.LocalDate;
+
+/**
+ * Pulls the rows of Yahoo's price history table out of a page in one pass,
+ * without building a DOM. The table is recognised by its header (a first
+ * column named "Date" followed by Open/High/Low/Close), not by class
+ * names, which are build hashes that change between Yahoo deployments.
+ *
+ * Script, style and comment contents are skipped. Cell text is collected
+ * into one reused buffer and dates and prices are parsed from it directly,
+ * so the only per-row allocation is the {@link LocalDate}.
+ */
+public final class HistoryTableExtractor {
+
+    @FunctionalInterface
+    public interface RowHandler {
+        /** Prices are micro-units; ones missing on the page ("-") are passed as {@link Prices#MISSING}. */
+        void row(LocalDate date, long open, long high, long low, long close);
+
+        /** A body row that is not a price row, such as a dividend or split note, or one without a date. */
+        default void rejected() {
+        }
+    }
+
+    /** Returned by {@link #extract} for a page without a history table, such as a consent or error page. */
+    public static final int NO_TABLE = -1;
+
+    private static final int MIN_CELLS = 7;
+
+    private static final String[] MONTHS = {
+        "jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec"
+    };
+
+    private final String html;
+    private final int length;
+    private final StringBuilder text = new StringBuilder(32);
+    private final long[] prices = new long[4];
+    private int pos;
+
+    private HistoryTableExtractor(String html) {
+        this.html = html;
+        this.length = html.length();
+    }
+
+    /**
+     * Calls {@code handler} for every data row of the history table, in page
+     * order; returns the row count, or {@link #NO_TABLE} if the page has no
+     * history table. A table with only its header gives 0.
+     */
+    public static int extract(String html, RowHandler handler) {
+        HistoryTableExtractor extractor = new HistoryTableExtractor(html);
+        return extractor.findHeader() ? extractor.rows(handler) : NO_TABLE;
+    }
+
+    /** Whether the page has a history table; stops at its header. */
+    public static boolean hasHistoryTable(String html) {
+        return new HistoryTableExtractor(html).findHeader();
+    }
+
+    // leaves pos at the first body row of the history table
+    private boolean findHeader() {
+        while (nextTag()) {
+            if (isTag("table") && !closing()) {
+                skipTag();
+                if (historyHeader()) {
+                    return true;
+                }
+            } else {
+                skipTag();
+            }
+        }
+        return false;
+    }
+
+    // reads the header row of the table just opened; leaves pos at the first body row
+    private boolean historyHeader() {
+        int column = 0;
+        boolean matches = true;
+        while (nextTag()) {
+            if (isTag("th") && !closing()) {
+                skipTag();
+                cellText("th");
+                matches &= switch (column) {
+                    case 0 -> startsWithIgnoreCase(text, "Date");
+                    case 1 -> startsWithIgnoreCase(text, "Open");
+                    case 2 -> startsWithIgnoreCase(text, "High");
+                    case 3 -> startsWithIgnoreCase(text, "Low");
+                    case 4 -> startsWithIgnoreCase(text, "Close");
+                    default -> true;
+                };
+                column++;
+            } else if (isTag("tr") && closing()) {
+                skipTag();
+                return matches && column >= 5;
+            } else if (isTag("td") || isTag("table")) {
+                // a table without a header row, or a nested table: not ours
+                return false;
+            } else {
+                skipTag();
+            }
+        }
+        return false;
+    }
+
+    private int rows(RowHandler handler) {
+        int count = 0;
+        int cell = 0;
+        LocalDate date = null;
+        while (nextTag()) {
+            if (isTag("td") && !closing()) {
+                skipTag();
+                cellText("td");
+                if (cell == 0) {
+                    date = parseDate(text);
+                } else if (cell <= 4) {
+                    prices[cell - 1] = Prices.parse(text);
+                }
+                cell++;
+            } else if (isTag("tr") || (isTag("table") && closing())) {
+                // a row ends at its end tag, or at the next row when the end tag is omitted
+                boolean endOfTable = isTag("table");
+                skipTag();
+                if (cell >= MIN_CELLS && date != null) {
+                    handler.row(date, prices[0], prices[1], prices[2], prices[3]);
+                    count++;
+                } else if (cell > 0) {
+                    handler.rejected();
+                }
+                cell = 0;
+                date = null;
+                if (endOfTable) {
+                    break;
+                }
+            } else {
+                skipTag();
+            }
+        }
+        return count;
+    }
+
+    /* ---- tokenizer ---- */
+
+    // moves pos to the next '<' that starts a tag, skipping comments and raw text elements
+    private boolean nextTag() {
+        while (true) {
+            int lt = html.indexOf('<', pos);
+            if (lt < 0 || lt + 1 >= length) {
+                pos = length;
+                return false;
+            }
+            pos = lt;
+            if (html.startsWith("<!--", pos)) {
+                int end = html.indexOf("-->", pos + 4);
+                pos = end < 0 ? length : end + 3;
+                continue;
+            }
+            if (!closing() && (isTag("script") || isTag("style"))) {
+                String close = isTag("script") ? "</script" : "</style";
+                int end = indexOfIgnoreCase(close, pos + 1);
+                pos = end < 0 ? length : end;
+                skipTag();
+                continue;
+            }
+            char next = html.charAt(pos + 1);
+            if (Character.isLetter(next) || next == '/') {
+                return true;
+            }
+            pos++;
+        }
+    }
+
+    private boolean closing() {
+        return html.charAt(pos + 1) == '/';
+    }
+
+    // whether the tag at pos is named exactly {@code name}
+    private boolean isTag(String name) {
+        int start = pos + (closing() ? 2 : 1);
+        int end = start + name.length();
+        if (end > length || !html.regionMatches(true, start, name, 0, name.length())) {
+            return false;
+        }
+        if (end == length) {
+            return true;
+        }
+        char after = html.charAt(end);
+        return after == '>' || after == '/' || Character.isWhitespace(after);
+    }
+
+    private void skipTag() {
+        char quote = 0;
+        for (int i = pos + 1; i < length; i++) {
+            char c = html.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '>') {
+                pos = i + 1;
+                return;
+            }
+        }
+        pos = length;
+    }
+
+    // collects the text up to the cell's end tag (or the next cell/row), dropping nested tags
+    private void cellText(String cell) {
+        text.setLength(0);
+        while (pos < length) {
+            int lt = html.indexOf('<', pos);
+            int end = lt < 0 ? length : lt;
+            appendText(pos, end);
+            pos = end;
+            if (lt < 0) {
+                break;
+            }
+            if (isTag(cell) || isTag("tr") || isTag("td") || isTag("th") || isTag("table")) {
+                if (closing() && isTag(cell)) {
+                    skipTag();
+                }
+                break;
+            }
+            skipTag();
+        }
+        if (text.length() > 0 && text.charAt(text.length() - 1) == ' ') {
+            text.setLength(text.length() - 1);
+        }
+    }
+
+    // appends with whitespace collapsed and the few entities Yahoo uses in cells decoded
+    private void appendText(int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = html.charAt(i);
+            if (c == '&') {
+                int semicolon = html.indexOf(';', i);
+                if (semicolon > i && semicolon - i <= 6) {
+                    char decoded = entity(i + 1, semicolon);
+                    if (decoded != 0) {
+                        c = decoded;
+                        i = semicolon;
+                    }
+                }
+            }
+            if (Character.isWhitespace(c) || c == '\u00a0') {
+                if (text.length() > 0 && text.charAt(text.length() - 1) != ' ') {
+                    text.append(' ');
+                }
+            } else {
+                text.append(c);
+            }
+        }
+    }
+
+    private char entity(int from, int to) {
+        int n = to - from;
+        if (n == 3 && html.regionMatches(from, "amp", 0, 3)) return '&';
+        if (n == 4 && html.regionMatches(from, "nbsp", 0, 4)) return ' ';
+        if (n == 5 && html.regionMatches(from, "minus", 0, 5)) return '-';
+        if (n == 2 && html.regionMatches(from, "lt", 0, 2)) return '<';
+        if (n == 2 && html.regionMatches(from, "gt", 0, 2)) return '>';
+        return 0;
+    }
+
+    private int indexOfIgnoreCase(String needle, int from) {
+        for (int i = from; i + needle.length() <= length; i++) {
+            if (html.regionMatches(true, i, needle, 0, needle.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /* ---- parsing ---- */
+
+    /** "Oct 25, 2024" style dates; {@code null} if the text is not one. */
+    static LocalDate parseDate(CharSequence s) {
+        int n = s.length();
+        int i = 0;
+        int monthStart = i;
+        while (i < n && Character.isLetter(s.charAt(i))) {
+            i++;
+        }
+        if (i - monthStart < 3) {
+            return null;
+        }
+        int month = 0;
+        for (int m = 0; m < MONTHS.length && month == 0; m++) {
+            String name = MONTHS[m];
+            if (Character.toLowerCase(s.charAt(monthStart)) == name.charAt(0)
+                && Character.toLowerCase(s.charAt(monthStart + 1)) == name.charAt(1)
+                && Character.toLowerCase(s.charAt(monthStart + 2)) == name.charAt(2)) {
+                month = m + 1;
+            }
+        }
+        if (month == 0) {
+            return null;
+        }
+        while (i < n && (s.charAt(i) == ' ' || s.charAt(i) == '.')) {
+            i++;
+        }
+        int day = 0;
+        int digits = 0;
+        while (i < n && isDigit(s.charAt(i))) {
+            day = day * 10 + (s.charAt(i++) - '0');
+            digits++;
+        }
+        if (digits == 0 || digits > 2) {
+            return null;
+        }
+        while (i < n && (s.charAt(i) == ',' || s.charAt(i) == ' ')) {
+            i++;
+        }
+        int year = 0;
+        digits = 0;
+        while (i < n && isDigit(s.charAt(i))) {
+            year = year * 10 + (s.charAt(i++) - '0');
+            digits++;
+        }
+        if (digits != 4) {
+            return null;
+        }
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean startsWithIgnoreCase(CharSequence s, String prefix) {
+        if (s.length() < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (Character.toLowerCase(s.charAt(i)) != Character.toLowerCase(prefix.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,163 @@
+package com.vance.backend.services.scrappers.impl;
+
+import com.vance.backend.dto.FetchedPage;
+import com.vance.backend.services.scrappers.interfaces.FetchException;
+import com.vance.backend.services.scrappers.interfaces.PageFetcher;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * {@link PageFetcher} on one shared {@link HttpClient}, so connections are
+ * kept alive and reused across scrapes, and HTTP/2 is used where the server
+ * offers it. Bodies are requested compressed and decoded here; only gzip and
+ * deflate are advertised because the JDK has no brotli decoder. Every
+ * request waits for a {@link ScrapeRateController} permit and reports its
+ * outcome back to it.
+ */
+@Component
+public class HttpClientPageFetcher implements PageFetcher {
+
+    private static final String USER_AGENT = "Mozilla/5.0";
+
+    private final HttpClient client;
+    private final Duration readTimeout;
+    private final ScrapeRateController rateController;
+
+    public HttpClientPageFetcher(@Value("${forex.fetch.connect-timeout:10s}") Duration connectTimeout,
+                                 @Value("${forex.fetch.read-timeout:30s}") Duration readTimeout,
+                                 ScrapeRateController rateController) {
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(connectTimeout)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+        this.readTimeout = readTimeout;
+        this.rateController = rateController;
+    }
+
+    @Override
+    public FetchedPage fetch(String url) {
+        try {
+            return fetchAsync(url).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FetchException("Interrupted while fetching " + url, e);
+        } catch (ExecutionException e) {
+            throw unwrap(url, e.getCause());
+        }
+    }
+
+    /** Waits for a rate permit on the calling thread, then sends without blocking. */
+    @Override
+    public CompletableFuture<FetchedPage> fetchAsync(String url) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+            .timeout(readTimeout)
+            .header("User-Agent", USER_AGENT)
+            .header("Accept-Encoding", "gzip, deflate")
+            .GET()
+            .build();
+        ScrapeRateController.Permit permit = rateController.acquire();
+        long started = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .whenComplete((response, error) -> {
+                if (response != null) {
+                    rateController.onResponse(permit, response.statusCode(), retryAfter(response));
+                } else {
+                    rateController.onError(permit, cause(error) instanceof HttpTimeoutException);
+                }
+            })
+            .thenApply(response -> toPage(url, response, started))
+            .exceptionallyCompose(e -> CompletableFuture.failedFuture(unwrap(url, e)));
+    }
+
+    // the body is read whole before decoding so the connection always goes back to the pool
+    private static FetchedPage toPage(String url, HttpResponse<byte[]> response, long startedNanos) {
+        int status = response.statusCode();
+        if (status < 200 || status >= 300) {
+            throw new FetchException("HTTP " + status + " fetching " + url, status, retryAfter(response));
+        }
+        String text = new String(decode(response, response.body()), charset(response));
+        long elapsedMillis = (System.nanoTime() - startedNanos) / 1_000_000;
+        return new FetchedPage(url, status, text, elapsedMillis);
+    }
+
+    private static byte[] decode(HttpResponse<?> response, byte[] raw) {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("").trim().toLowerCase(Locale.ROOT);
+        try {
+            return switch (encoding) {
+                case "gzip", "x-gzip" -> new GZIPInputStream(new ByteArrayInputStream(raw)).readAllBytes();
+                case "deflate" -> new InflaterInputStream(new ByteArrayInputStream(raw)).readAllBytes();
+                default -> raw;
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Charset charset(HttpResponse<?> response) {
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        for (String parameter : contentType.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) {
+                try {
+                    return Charset.forName(trimmed.substring(8).replace("\"", ""));
+                } catch (IllegalArgumentException e) {
+                    break;
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    // delta-seconds or an HTTP-date
+    private static Duration retryAfter(HttpResponse<?> response) {
+        String value = response.headers().firstValue("Retry-After").orElse(null);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration delay = Duration.between(ZonedDateTime.now(at.getZone()), at);
+                return delay.isNegative() ? Duration.ZERO : delay;
+            } catch (RuntimeException ignored) {
+                return null;
+            }
+        }
+    }
+
+    private static Throwable cause(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    private static FetchException unwrap(String url, Throwable e) {
+        Throwable cause = cause(e);
+        if (cause instanceof FetchException fetchException) {
+            return fetchException;
+        }
+        return new FetchException("Failed to fetch " + url + ": " + cause.getMessage(), cause);
+    }
+}
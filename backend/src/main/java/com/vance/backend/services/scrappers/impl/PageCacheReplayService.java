@@ -0,0 +1,264 @@
+package com.vance.backend.services.scrappers.impl;
+
+import com.vance.backend.dto.ReplayResult;
+import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.models.ExchangeRate;
+import com.vance.backend.models.MonthlyExchangeRate;
+import com.vance.backend.models.WeeklyExchangeRate;
+import com.vance.backend.services.CurrencyPairRegistry;
+import com.vance.backend.services.ForexIngestService;
+import com.vance.backend.services.ScrapeCoverageService;
+import com.vance.backend.services.ScrapeCoverageService.DateRange;
+import com.vance.backend.services.cache.RawPageCache;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Rebuilds the daily, weekly and monthly rate tables from the pages held in
+ * the {@link RawPageCache}, without touching the network. Runs on demand,
+ * or on startup with {@code forex.page-cache.replay-on-startup=true} after
+ * the database has been reset.
+ *
+ * Pages are replayed per quote and frequency, windows ending later last, so
+ * the most recent copy of a row wins. Rows are upserted in batches of
+ * {@value #FLUSH_ROWS} rather than per page. Pages without a history table
+ * are skipped and leave their window uncovered.
+ *
+ * On demand, replays run in the background one at a time, like backfill
+ * jobs; {@link #latest()} reports the progress of the current or last one.
+ */
+@Slf4j
+@Service
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class PageCacheReplayService implements ApplicationRunner {
+
+    private static final int FLUSH_ROWS = 5000;
+    private static final String QUOTE_SUFFIX = "%3DX";
+
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @FunctionalInterface
+    private interface RowFactory<T> {
+        T create(CurrencyPair pair, LocalDate date, long open, long high, long low, long close);
+    }
+
+    private record Group(String quote, Frequency frequency) {
+    }
+
+    private final RawPageCache pageCache;
+    private final CurrencyPairRegistry currencyPairRegistry;
+    private final ForexIngestService forexIngestService;
+    private final ScrapeCoverageService scrapeCoverageService;
+    private final boolean replayOnStartup;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("page-replay-"));
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile ReplayResult latest;
+
+    public PageCacheReplayService(RawPageCache pageCache,
+                                  CurrencyPairRegistry currencyPairRegistry,
+                                  ForexIngestService forexIngestService,
+                                  ScrapeCoverageService scrapeCoverageService,
+                                  @Value("${forex.page-cache.replay-on-startup:false}") boolean replayOnStartup) {
+        this.pageCache = pageCache;
+        this.currencyPairRegistry = currencyPairRegistry;
+        this.forexIngestService = forexIngestService;
+        this.scrapeCoverageService = scrapeCoverageService;
+        this.replayOnStartup = replayOnStartup;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (replayOnStartup && pageCache.isEnabled()) {
+            replay();
+        }
+    }
+
+    /**
+     * Starts a replay in the background and returns its initial progress;
+     * if one is already running, returns that one's progress instead.
+     */
+    public synchronized ReplayResult start() {
+        if (!pageCache.isEnabled()) {
+            throw new IllegalStateException("Page cache is disabled");
+        }
+        if (!running.compareAndSet(false, true)) {
+            return latest;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        latest = new ReplayResult(RUNNING, 0, 0, 0, 0, startedAt, null, null);
+        executor.submit(() -> {
+            try {
+                run(startedAt);
+            } catch (RuntimeException e) {
+                log.error("Page cache replay failed: {}", e.getMessage());
+            } finally {
+                running.set(false);
+            }
+        });
+        return latest;
+    }
+
+    public Optional<ReplayResult> latest() {
+        return Optional.ofNullable(latest);
+    }
+
+    /** Replays on the calling thread; fails if a replay is already running. */
+    public ReplayResult replay() {
+        if (!pageCache.isEnabled()) {
+            throw new IllegalStateException("Page cache is disabled");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A page cache replay is already running");
+        }
+        try {
+            return run(LocalDateTime.now());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // progress is built up privately and published as copies, so readers never see it half-updated
+    private ReplayResult run(LocalDateTime startedAt) {
+        long started = System.currentTimeMillis();
+        ReplayResult result = new ReplayResult(RUNNING, 0, 0, 0, 0, startedAt, null, null);
+        try {
+            groups().forEach((group, keys) -> {
+                replay(group, keys, result);
+                result.setElapsedMillis(System.currentTimeMillis() - started);
+                publish(result);
+            });
+        } catch (RuntimeException e) {
+            result.setStatus(FAILED);
+            result.setError(e.getMessage());
+            finish(result, started);
+            throw e;
+        }
+        result.setStatus(COMPLETED);
+        finish(result, started);
+        log.info("Replayed {} cached pages ({} skipped) into {} rows in {} ms",
+            result.getPages(), result.getSkippedPages(), result.getRows(), result.getElapsedMillis());
+        return latest;
+    }
+
+    private Map<Group, List<RawPageCache.Key>> groups() {
+        Map<Group, List<RawPageCache.Key>> groups = new LinkedHashMap<>();
+        for (RawPageCache.Key key : pageCache.keys()) {
+            Frequency frequency;
+            try {
+                frequency = Frequency.fromValue(key.frequency());
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            groups.computeIfAbsent(new Group(key.quote(), frequency), group -> new ArrayList<>()).add(key);
+        }
+        return groups;
+    }
+
+    private void finish(ReplayResult result, long started) {
+        result.setElapsedMillis(System.currentTimeMillis() - started);
+        result.setFinishedAt(LocalDateTime.now());
+        publish(result);
+    }
+
+    private void publish(ReplayResult result) {
+        latest = new ReplayResult(result.getStatus(), result.getPages(), result.getSkippedPages(), result.getRows(),
+            result.getElapsedMillis(), result.getStartedAt(), result.getFinishedAt(), result.getError());
+    }
+
+    private void replay(Group group, List<RawPageCache.Key> keys, ReplayResult result) {
+        keys.sort(Comparator.comparingLong(RawPageCache.Key::period2).thenComparingLong(RawPageCache.Key::period1));
+        Optional<CurrencyPair> pair = pair(group.quote());
+        if (pair.isEmpty()) {
+            log.warn("Skipping {} cached pages for unrecognised quote {}", keys.size(), group.quote());
+            result.setSkippedPages(result.getSkippedPages() + keys.size());
+            return;
+        }
+        CurrencyPair currencyPair = pair.get();
+        switch (group.frequency()) {
+            case DAILY -> replay(currencyPair, Frequency.DAILY, keys, result,
+                (p, date, open, high, low, close) -> new ExchangeRate(null, p, date, open, high, low, close),
+                forexIngestService::saveDaily);
+            case WEEKLY -> replay(currencyPair, Frequency.WEEKLY, keys, result,
+                (p, date, open, high, low, close) -> new WeeklyExchangeRate(null, p, date, open, high, low, close),
+                forexIngestService::saveWeekly);
+            case MONTHLY -> replay(currencyPair, Frequency.MONTHLY, keys, result,
+                (p, date, open, high, low, close) -> new MonthlyExchangeRate(null, p, date, open, high, low, close),
+                forexIngestService::saveMonthly);
+        }
+    }
+
+    private <T> void replay(CurrencyPair pair, Frequency frequency, List<RawPageCache.Key> keys, ReplayResult result,
+                            RowFactory<T> factory, Consumer<List<T>> save) {
+        // date -> row; a later page overwrites what an earlier one said about the same date
+        Map<LocalDate, T> rows = new TreeMap<>();
+        List<DateRange> covered = new ArrayList<>();
+        for (RawPageCache.Key key : keys) {
+            Optional<String> body = pageCache.get(key);
+            if (body.isEmpty()) {
+                result.setSkippedPages(result.getSkippedPages() + 1);
+                continue;
+            }
+            int extracted = HistoryTableExtractor.extract(body.get(), (date, open, high, low, close) ->
+                rows.put(date, factory.create(pair, date, open, high, low, close)));
+            if (extracted == HistoryTableExtractor.NO_TABLE) {
+                log.warn("Skipping cached page {} without a history table", key);
+                result.setSkippedPages(result.getSkippedPages() + 1);
+                continue;
+            }
+            result.setPages(result.getPages() + 1);
+            if (rows.size() >= FLUSH_ROWS) {
+                result.setRows(result.getRows() + flush(rows, save));
+            }
+            covered.add(YahooFinanceScraperService.coveredRange(key.period1(), key.period2()));
+        }
+        result.setRows(result.getRows() + flush(rows, save));
+        covered.forEach(range -> scrapeCoverageService.record(pair.getId(), frequency, range.start(), range.end()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static <T> int flush(Map<LocalDate, T> rows, Consumer<List<T>> save) {
+        int count = rows.size();
+        if (count > 0) {
+            save.accept(new ArrayList<>(rows.values()));
+            rows.clear();
+        }
+        return count;
+    }
+
+    // "GBPINR%3DX" -> GBP/INR
+    private Optional<CurrencyPair> pair(String quote) {
+        if (quote.length() != 6 + QUOTE_SUFFIX.length() || !quote.endsWith(QUOTE_SUFFIX)) {
+            return Optional.empty();
+        }
+        return Optional.of(currencyPairRegistry.getOrCreate(quote.substring(0, 3), quote.substring(3, 6)));
+    }
+}
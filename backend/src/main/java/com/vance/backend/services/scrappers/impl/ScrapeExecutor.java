@@ -0,0 +1,105 @@
+package com.vance.backend.services.scrappers.impl;
+
+import com.vance.backend.dto.ScrapeResult;
+
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans scrape tasks out over a bounded pool and joins them, reporting a
+ * {@link ScrapeResult} per task instead of failing the whole batch on the
+ * first error. Requests to the same host are additionally capped by
+ * {@code forex.scrape.per-host-limit}.
+ *
+ * Tasks must not submit further tasks to this executor and wait on them.
+ */
+@Slf4j
+@Component
+public class ScrapeExecutor {
+
+    @Data
+    @AllArgsConstructor
+    public static class ScrapeTask {
+        private String name;
+        private String host;
+        private Runnable action;
+    }
+
+    private final ExecutorService executor;
+    private final int perHostLimit;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    public ScrapeExecutor(@Value("${forex.scrape.pool-size:16}") int poolSize,
+                          @Value("${forex.scrape.per-host-limit:8}") int perHostLimit) {
+        this.executor = Executors.newFixedThreadPool(poolSize, new CustomizableThreadFactory("scrape-"));
+        this.perHostLimit = perHostLimit;
+    }
+
+    public List<ScrapeResult> runAll(List<ScrapeTask> tasks) {
+        List<Future<ScrapeResult>> futures = new ArrayList<>(tasks.size());
+        for (ScrapeTask task : tasks) {
+            futures.add(executor.submit(() -> execute(task)));
+        }
+
+        List<ScrapeResult> results = new ArrayList<>(tasks.size());
+        for (int i = 0; i < futures.size(); i++) {
+            String name = tasks.get(i).getName();
+            try {
+                results.add(futures.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.subList(i, futures.size()).forEach(f -> f.cancel(true));
+                results.add(new ScrapeResult(name, false, "interrupted", 0));
+                break;
+            } catch (ExecutionException e) {
+                results.add(new ScrapeResult(name, false, e.getCause().getMessage(), 0));
+            }
+        }
+        return results;
+    }
+
+    private ScrapeResult execute(ScrapeTask task) {
+        Semaphore permits = hostPermits.computeIfAbsent(task.getHost(), host -> new Semaphore(perHostLimit));
+        long started = System.nanoTime();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ScrapeResult(task.getName(), false, "interrupted", 0);
+        }
+        try {
+            task.getAction().run();
+            return new ScrapeResult(task.getName(), true, null, elapsedMillis(started));
+        } catch (RuntimeException e) {
+            log.error("Scrape task {} failed: {}", task.getName(), e.getMessage());
+            return new ScrapeResult(task.getName(), false, e.getMessage(), elapsedMillis(started));
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
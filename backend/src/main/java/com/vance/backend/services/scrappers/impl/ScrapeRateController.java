@@ -0,0 +1,238 @@
+package com.vance.backend.services.scrappers.impl;
+
+import com.vance.backend.services.scrappers.interfaces.FetchException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Paces every outbound page fetch. A token bucket caps requests per second
+ * and a concurrency limit caps requests in flight; both grow additively
+ * while responses come back fast and healthy, and are halved when the
+ * server throttles (429, 5xx, timeouts) or latency exceeds
+ * {@code forex.fetch.rate.latency-threshold}. A {@code Retry-After} hint
+ * pauses all fetches until it has passed.
+ *
+ * Only one cut is made per congestion episode: signals from requests that
+ * were sent before the last cut describe the old limits and are ignored.
+ */
+@Slf4j
+@Component
+public class ScrapeRateController {
+
+    private static final double DECREASE_FACTOR = 0.5;
+
+    // requests per second added per healthy response
+    private static final double RATE_STEP = 0.1;
+
+    /** A granted request; hand it back with {@link #onResponse} or {@link #onError}. */
+    public static final class Permit {
+        private final long startedNanos;
+
+        private Permit(long startedNanos) {
+            this.startedNanos = startedNanos;
+        }
+    }
+
+    private final double minRate;
+    private final double maxRate;
+    private final double burst;
+    private final int maxConcurrency;
+    private final long latencyThresholdNanos;
+    private final long maxWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    private double rate;
+    private double concurrencyLimit;
+    private double tokens;
+    private long lastRefillNanos;
+    private int inFlight;
+    private long pausedUntilNanos;
+    private long lastDecreaseNanos;
+
+    private final Counter rejections;
+    private final Counter throttled;
+
+    public ScrapeRateController(@Value("${forex.fetch.rate.requests-per-second:2}") double initialRate,
+                                @Value("${forex.fetch.rate.min-requests-per-second:0.2}") double minRate,
+                                @Value("${forex.fetch.rate.max-requests-per-second:10}") double maxRate,
+                                @Value("${forex.fetch.rate.burst:4}") int burst,
+                                @Value("${forex.fetch.rate.concurrency:4}") int initialConcurrency,
+                                @Value("${forex.fetch.rate.max-concurrency:16}") int maxConcurrency,
+                                @Value("${forex.fetch.rate.latency-threshold:5s}") Duration latencyThreshold,
+                                @Value("${forex.fetch.rate.max-wait:2m}") Duration maxWait,
+                                MeterRegistry meterRegistry) {
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.burst = burst;
+        this.maxConcurrency = maxConcurrency;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.maxWaitNanos = maxWait.toNanos();
+        this.rate = Math.min(Math.max(initialRate, minRate), maxRate);
+        this.concurrencyLimit = Math.min(Math.max(initialConcurrency, 1), maxConcurrency);
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+        this.lastDecreaseNanos = lastRefillNanos;
+
+        Gauge.builder("scraper.rate.limit", this, ScrapeRateController::currentRate)
+            .description("Requests per second currently allowed")
+            .register(meterRegistry);
+        Gauge.builder("scraper.concurrency.limit", this, ScrapeRateController::currentConcurrencyLimit)
+            .description("Requests currently allowed in flight")
+            .register(meterRegistry);
+        Gauge.builder("scraper.in.flight", this, ScrapeRateController::currentInFlight)
+            .register(meterRegistry);
+        this.rejections = Counter.builder("scraper.rate.rejections")
+            .description("Fetches given up because no permit was granted within forex.fetch.rate.max-wait")
+            .register(meterRegistry);
+        this.throttled = Counter.builder("scraper.rate.throttled")
+            .description("Responses that made the limits back off")
+            .register(meterRegistry);
+    }
+
+    /** Waits for a token and a free concurrency slot, or throws a {@link FetchException} after the maximum wait. */
+    public Permit acquire() {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        lock.lock();
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                refill(now);
+                long waitNanos;
+                if (now < pausedUntilNanos) {
+                    waitNanos = pausedUntilNanos - now;
+                } else if (inFlight >= (int) concurrencyLimit) {
+                    // woken by a release
+                    waitNanos = Long.MAX_VALUE;
+                } else if (tokens >= 1) {
+                    tokens -= 1;
+                    inFlight++;
+                    return new Permit(now);
+                } else {
+                    waitNanos = (long) Math.ceil((1 - tokens) / rate * 1e9);
+                }
+                long remaining = deadline - now;
+                if (remaining <= 0) {
+                    rejections.increment();
+                    throw new FetchException("No outbound request permit within " + Duration.ofNanos(maxWaitNanos), 0, null);
+                }
+                changed.awaitNanos(Math.min(waitNanos, remaining));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FetchException("Interrupted while waiting for an outbound request permit", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Records a response; {@code retryAfter} is the server's hint, or {@code null}. */
+    public void onResponse(Permit permit, int statusCode, Duration retryAfter) {
+        boolean throttling = statusCode == 429 || statusCode >= 500;
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            inFlight--;
+            if (retryAfter != null && throttling) {
+                pausedUntilNanos = Math.max(pausedUntilNanos, now + retryAfter.toNanos());
+            }
+            if (throttling) {
+                decrease(permit, now, "HTTP " + statusCode);
+            } else if (now - permit.startedNanos > latencyThresholdNanos) {
+                decrease(permit, now, "a slow response");
+            } else if (statusCode >= 200 && statusCode < 400) {
+                increase();
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Records a fetch that got no response; timeouts count as congestion. */
+    public void onError(Permit permit, boolean timedOut) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            inFlight--;
+            if (timedOut) {
+                decrease(permit, now, "a timeout");
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // additive increase: roughly one more slot per round of requests at the current limit
+    private void increase() {
+        concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1 / concurrencyLimit);
+        rate = Math.min(maxRate, rate + RATE_STEP);
+    }
+
+    private void decrease(Permit permit, long now, String reason) {
+        // sent before the last cut, so already accounted for
+        if (permit.startedNanos < lastDecreaseNanos) {
+            return;
+        }
+        throttled.increment();
+        lastDecreaseNanos = now;
+        concurrencyLimit = Math.max(1, concurrencyLimit * DECREASE_FACTOR);
+        rate = Math.max(minRate, rate * DECREASE_FACTOR);
+        tokens = Math.min(tokens, 1);
+        log.warn("Backing off outbound requests after {}: {} req/s, {} in flight",
+            reason, String.format("%.2f", rate), (int) concurrencyLimit);
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * rate / 1e9);
+        lastRefillNanos = now;
+    }
+
+    public double currentRate() {
+        lock.lock();
+        try {
+            return rate;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int currentConcurrencyLimit() {
+        lock.lock();
+        try {
+            return (int) concurrencyLimit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int currentInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Time left until a {@code Retry-After} pause ends; zero when not paused. */
+    public Duration pausedFor() {
+        lock.lock();
+        try {
+            return Duration.ofNanos(Math.max(0, pausedUntilNanos - System.nanoTime()));
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,30 +1,45 @@
 package com.vance.backend.services.scrappers.impl;
+import com.vance.backend.services.scrappers.interfaces.FetchException;
+import com.vance.backend.services.scrappers.interfaces.PageFetcher;
 import com.vance.backend.services.scrappers.interfaces.YahooFinanceScraper;
 import com.vance.backend.models.*;
 import com.vance.backend.repos.*;
+import com.vance.backend.services.CurrencyPairRegistry;
+import com.vance.backend.services.ForexIngestService;
+import com.vance.backend.services.ScrapeCoverageService;
+import com.vance.backend.services.ScrapeCoverageService.DateRange;
+import com.vance.backend.services.scrappers.impl.HistoryTableExtractor.RowHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class YahooFinanceScraperService implements YahooFinanceScraper {
 
-    private static final String BASE_URL = "https://finance.yahoo.com/quote/%s/history/?period1=%d&period2=%d&frequency=%s";
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM d, yyyy");
-    private final CurrencyPairRepository currencyPairRepository;
-    private final ExchangeRateRepository exchangeRateRepository;
-    private final WeeklyExchangeRateRepository weeklyExchangeRateRepository;
-    private final MonthlyExchangeRateRepository monthlyExchangeRateRepository;
+    public static final String HOST = "finance.yahoo.com";
+    private static final String HISTORY_PATH = "/quote/%s/history/?period1=%d&period2=%d&frequency=%s";
+    private final CurrencyPairRegistry currencyPairRegistry;
+    private final ForexIngestService forexIngestService;
+    private final ScrapeCoverageService scrapeCoverageService;
+    private final PageFetcher pageFetcher;
+    private final MeterRegistry meterRegistry;
+
+    // points at a local fixture server in tests
+    @Value("${forex.yahoo.base-url:https://" + HOST + "}")
+    private String baseUrl;
 
     public enum Frequency {
         DAILY("1d"),
@@ -40,41 +55,89 @@ public class YahooFinanceScraperService implements YahooFinanceScraper {
         public String getValue() {
             return value;
         }
+
+        /** The frequency for a Yahoo {@code frequency} query value such as "1wk". */
+        public static Frequency fromValue(String value) {
+            for (Frequency frequency : values()) {
+                if (frequency.value.equals(value)) {
+                    return frequency;
+                }
+            }
+            throw new IllegalArgumentException("Unknown frequency: " + value);
+        }
     }
 
-    private CurrencyPair getCurrencyPair(String fromCurrency, String toCurrency) {
-        CurrencyPair currencyPair = currencyPairRepository.findByFromCurrencyAndToCurrency(fromCurrency, toCurrency);
-        if (currencyPair == null) {
-            currencyPair = currencyPairRepository.save(new CurrencyPair(fromCurrency, toCurrency));
+    private String fetchPage(String url, String pair, Frequency frequency) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            String body = pageFetcher.fetch(url).getBody();
+            outcome = "success";
+            DistributionSummary.builder("scraper.fetch.size")
+                .description("Decoded size of fetched history pages")
+                .baseUnit("bytes")
+                .tags("pair", pair, "frequency", frequency.name())
+                .register(meterRegistry)
+                .record(body.length());
+            return body;
+        } catch (FetchException e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            sample.stop(Timer.builder("scraper.fetch")
+                .description("History page fetches, including rate limiter waits and page cache hits")
+                .tags("pair", pair, "frequency", frequency.name(), "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
         }
-        return currencyPair;
     }
 
-    private Document fetchDocument(String url) throws IOException {
-        return Jsoup.connect(url)
-                .userAgent("Mozilla/5.0")
-                .timeout(30000)
-                .get();
+    // passes rows on to `rows`, counting them and the table rows that were not prices
+    private RowHandler counting(String pair, Frequency frequency, RowHandler rows) {
+        Counter parsed = rowCounter(pair, frequency, "parsed");
+        Counter rejected = rowCounter(pair, frequency, "rejected");
+        return new RowHandler() {
+            @Override
+            public void row(LocalDate date, long open, long high, long low, long close) {
+                rows.row(date, open, high, low, close);
+                parsed.increment();
+            }
+
+            @Override
+            public void rejected() {
+                rejected.increment();
+            }
+        };
     }
 
-    private LocalDate parseDate(String dateStr) {
-        try {
-            return LocalDate.parse(dateStr, DATE_FORMATTER);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to parse date: " + dateStr, e);
-        }
+    private Counter rowCounter(String pair, Frequency frequency, String outcome) {
+        return Counter.builder("scraper.rows")
+            .description("History table rows parsed, rejected by the parser and persisted")
+            .tags("pair", pair, "frequency", frequency.name(), "outcome", outcome)
+            .register(meterRegistry);
     }
-    
-    private Double parseDouble(String value) {
-        try {
-            return Double.parseDouble(value.replace(",", ""));
-        } catch (Exception e) {
-            return null;
+
+    public static long dateToUnixTimestamp(LocalDate date) {
+        return date.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    // a page without the history table (consent, captcha, changed markup) covers nothing, so the window is fetched again
+    private void recordCoverage(int extracted, CurrencyPair currencyPair, Frequency frequency, long fromDate, long toDate) {
+        if (extracted == HistoryTableExtractor.NO_TABLE) {
+            log.warn("No history table in the {} page for {}/{}; the window stays uncovered",
+                frequency, currencyPair.getFromCurrency(), currencyPair.getToCurrency());
+            return;
         }
+        DateRange covered = coveredRange(fromDate, toDate);
+        scrapeCoverageService.record(currencyPair.getId(), frequency, covered.start(), covered.end());
     }
 
-    public static long dateToUnixTimestamp(LocalDate date) {
-        return date.atStartOfDay().toEpochSecond(java.time.ZoneOffset.UTC);
+    // the window [fromDate, toDate) has been fetched; today's bar is still moving, so it never counts as covered
+    static DateRange coveredRange(long fromDate, long toDate) {
+        LocalDate start = LocalDate.ofEpochDay(Math.floorDiv(fromDate, 86_400L));
+        LocalDate end = LocalDate.ofEpochDay(Math.floorDiv(toDate, 86_400L)).minusDays(1);
+        // the epochs are UTC midnights, so "today" is too
+        LocalDate yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        return new DateRange(start, end.isAfter(yesterday) ? yesterday : end);
     }
 
     @Override
@@ -85,33 +148,17 @@ public class YahooFinanceScraperService implements YahooFinanceScraper {
     @Override
     public List<WeeklyExchangeRate> scrapeWeeklyData(String fromCurrency, String toCurrency, long fromDate, long toDate) {
         String quote = fromCurrency + toCurrency + "%3DX";
-        String url = String.format(BASE_URL, quote, fromDate, toDate, Frequency.WEEKLY.getValue());
+        String url = String.format(baseUrl + HISTORY_PATH, quote, fromDate, toDate, Frequency.WEEKLY.getValue());
         List<WeeklyExchangeRate> weeklyRates = new ArrayList<>();
 
         try {
-            CurrencyPair currencyPair = getCurrencyPair(fromCurrency, toCurrency);
-            Document doc = fetchDocument(url);
-
-            Elements rows = doc.select("div.table-container.yf-h2urb6 table tbody tr");
-            for (Element row : rows) {
-                try {
-                    Elements cells = row.select("td");
-                    if (cells.size() >= 7) {
-                        WeeklyExchangeRate rate = new WeeklyExchangeRate();
-                        rate.setWeekStart(parseDate(cells.get(0).text()));
-                        rate.setOpenPrice(parseDouble(cells.get(1).text()));
-                        rate.setHighPrice(parseDouble(cells.get(2).text()));
-                        rate.setLowPrice(parseDouble(cells.get(3).text()));
-                        rate.setClosePrice(parseDouble(cells.get(4).text()));
-                        rate.setCurrencyPair(currencyPair);
-
-                        weeklyRates.add(rate);
-                        weeklyExchangeRateRepository.save(rate);
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error parsing weekly row: " + e.getMessage());
-                }
-            }
+            CurrencyPair currencyPair = currencyPairRegistry.getOrCreate(fromCurrency, toCurrency);
+            String pair = fromCurrency + "-" + toCurrency;
+            int extracted = HistoryTableExtractor.extract(fetchPage(url, pair, Frequency.WEEKLY), counting(pair, Frequency.WEEKLY, (date, open, high, low, close) ->
+                weeklyRates.add(new WeeklyExchangeRate(null, currencyPair, date, open, high, low, close))));
+            forexIngestService.saveWeekly(weeklyRates);
+            rowCounter(pair, Frequency.WEEKLY, "persisted").increment(weeklyRates.size());
+            recordCoverage(extracted, currencyPair, Frequency.WEEKLY, fromDate, toDate);
         } catch (IOException e) {
             throw new RuntimeException("Failed to scrape weekly forex data: " + e.getMessage(), e);
         }
@@ -122,33 +169,17 @@ public class YahooFinanceScraperService implements YahooFinanceScraper {
     @Override
     public List<MonthlyExchangeRate> scrapeMonthlyData(String fromCurrency, String toCurrency, long fromDate, long toDate) {
         String quote = fromCurrency + toCurrency + "%3DX";
-        String url = String.format(BASE_URL, quote, fromDate, toDate, Frequency.MONTHLY.getValue());
+        String url = String.format(baseUrl + HISTORY_PATH, quote, fromDate, toDate, Frequency.MONTHLY.getValue());
         List<MonthlyExchangeRate> monthlyRates = new ArrayList<>();
 
         try {
-            CurrencyPair currencyPair = getCurrencyPair(fromCurrency, toCurrency);
-            Document doc = fetchDocument(url);
-
-            Elements rows = doc.select("div.table-container.yf-h2urb6 table tbody tr");
-            for (Element row : rows) {
-                try {
-                    Elements cells = row.select("td");
-                    if (cells.size() >= 7) {
-                        MonthlyExchangeRate rate = new MonthlyExchangeRate();
-                        rate.setMonthStart(parseDate(cells.get(0).text()));
-                        rate.setOpenPrice(parseDouble(cells.get(1).text()));
-                        rate.setHighPrice(parseDouble(cells.get(2).text()));
-                        rate.setLowPrice(parseDouble(cells.get(3).text()));
-                        rate.setClosePrice(parseDouble(cells.get(4).text()));
-                        rate.setCurrencyPair(currencyPair);
-
-                        monthlyRates.add(rate);
-                        monthlyExchangeRateRepository.save(rate);
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error parsing monthly row: " + e.getMessage());
-                }
-            }
+            CurrencyPair currencyPair = currencyPairRegistry.getOrCreate(fromCurrency, toCurrency);
+            String pair = fromCurrency + "-" + toCurrency;
+            int extracted = HistoryTableExtractor.extract(fetchPage(url, pair, Frequency.MONTHLY), counting(pair, Frequency.MONTHLY, (date, open, high, low, close) ->
+                monthlyRates.add(new MonthlyExchangeRate(null, currencyPair, date, open, high, low, close))));
+            forexIngestService.saveMonthly(monthlyRates);
+            rowCounter(pair, Frequency.MONTHLY, "persisted").increment(monthlyRates.size());
+            recordCoverage(extracted, currencyPair, Frequency.MONTHLY, fromDate, toDate);
         } catch (IOException e) {
             throw new RuntimeException("Failed to scrape monthly forex data: " + e.getMessage(), e);
         }
@@ -159,32 +190,16 @@ public class YahooFinanceScraperService implements YahooFinanceScraper {
     private List<ExchangeRate> scrapeForexData(String fromCurrency, String toCurrency, long fromDate, long toDate, Frequency frequency) {
         List<ExchangeRate> exchangeRates = new ArrayList<>();
         String quote = fromCurrency + toCurrency + "%3DX";
-        String url = String.format(BASE_URL, quote, fromDate, toDate, frequency.getValue());
+        String url = String.format(baseUrl + HISTORY_PATH, quote, fromDate, toDate, frequency.getValue());
 
         try {
-            CurrencyPair currencyPair = getCurrencyPair(fromCurrency, toCurrency);
-            Document doc = fetchDocument(url);
-
-            Elements rows = doc.select("div.table-container.yf-h2urb6 table tbody tr");
-            for (Element row : rows) {
-                try {
-                    Elements cells = row.select("td");
-                    if (cells.size() >= 7) {
-                        ExchangeRate exchangeRate = new ExchangeRate();
-                        exchangeRate.setDate(parseDate(cells.get(0).text()));
-                        exchangeRate.setOpenPrice(parseDouble(cells.get(1).text()));
-                        exchangeRate.setHighPrice(parseDouble(cells.get(2).text()));
-                        exchangeRate.setLowPrice(parseDouble(cells.get(3).text()));
-                        exchangeRate.setClosePrice(parseDouble(cells.get(4).text()));
-                        exchangeRate.setCurrencyPair(currencyPair);
-
-                        exchangeRates.add(exchangeRate);
-                        exchangeRateRepository.save(exchangeRate);
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error parsing row: " + e.getMessage());
-                }
-            }
+            CurrencyPair currencyPair = currencyPairRegistry.getOrCreate(fromCurrency, toCurrency);
+            String pair = fromCurrency + "-" + toCurrency;
+            int extracted = HistoryTableExtractor.extract(fetchPage(url, pair, frequency), counting(pair, frequency, (date, open, high, low, close) ->
+                exchangeRates.add(new ExchangeRate(null, currencyPair, date, open, high, low, close))));
+            forexIngestService.saveDaily(exchangeRates);
+            rowCounter(pair, frequency, "persisted").increment(exchangeRates.size());
+            recordCoverage(extracted, currencyPair, frequency, fromDate, toDate);
         } catch (IOException e) {
             throw new RuntimeException("Failed to scrape forex data: " + e.getMessage(), e);
         }
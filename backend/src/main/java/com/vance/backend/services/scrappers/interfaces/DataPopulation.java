@@ -1,7 +1,12 @@
 package com.vance.backend.services.scrappers.interfaces;
 
+import com.vance.backend.dto.ScrapeResult;
+
 import java.time.LocalDate;
+import java.util.List;
 
 public interface DataPopulation {
     void populateHistoricalData(String fromCurrency, String toCurrency, LocalDate startDate, LocalDate endDate);
+
+    List<ScrapeResult> populateHistoricalData(List<String> fromCurrencies, String toCurrency, LocalDate startDate, LocalDate endDate);
 }
@@ -0,0 +1,33 @@
+package com.vance.backend.services.scrappers.interfaces;
+
+import java.time.Duration;
+
+/**
+ * A failed fetch. {@code statusCode} is 0 when no response was received;
+ * {@code retryAfter} is the server's {@code Retry-After} hint, if any.
+ */
+public class FetchException extends RuntimeException {
+
+    private final int statusCode;
+    private final Duration retryAfter;
+
+    public FetchException(String message, int statusCode, Duration retryAfter) {
+        super(message);
+        this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
+    }
+
+    public FetchException(String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = 0;
+        this.retryAfter = null;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,17 @@
+package com.vance.backend.services.scrappers.interfaces;
+
+import com.vance.backend.dto.FetchedPage;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fetches a page over HTTP. Non-2xx responses and transport failures are
+ * reported as {@link FetchException}; the async variant completes
+ * exceptionally with one.
+ */
+public interface PageFetcher {
+
+    FetchedPage fetch(String url);
+
+    CompletableFuture<FetchedPage> fetchAsync(String url);
+}
@@ -0,0 +1,55 @@
+package com.vance.backend.services.timeseries;
+
+import com.vance.backend.models.Prices;
+
+/**
+ * Series for pairs that are not stored, derived from ones that are.
+ *
+ * An inverse is exact: the inverse's high is one over the leg's low and
+ * vice versa. A cross rate only exists on days both legs have an entry,
+ * and its open and close are exact, but its high and low are not: the legs'
+ * highs and lows need not have happened at the same moment, so the cross
+ * carries the widest range they allow, {@code high = baseHigh / quoteLow}
+ * and {@code low = baseLow / quoteHigh}.
+ */
+public final class CrossRates {
+
+    private CrossRates() {
+    }
+
+    /** B/A from A/B. */
+    public static PriceSeries inverse(PriceSeries series) {
+        PriceSeries.Builder builder = PriceSeries.builder(series.size());
+        for (int i = 0; i < series.size(); i++) {
+            builder.add(series.day(i),
+                Prices.ratio(Prices.ONE, series.open(i)),
+                Prices.ratio(Prices.ONE, series.low(i)),
+                Prices.ratio(Prices.ONE, series.high(i)),
+                Prices.ratio(Prices.ONE, series.close(i)));
+        }
+        return builder.build();
+    }
+
+    /** A/B from A/C ({@code base}) and B/C ({@code quote}), on the days both have. */
+    public static PriceSeries cross(PriceSeries base, PriceSeries quote) {
+        PriceSeries.Builder builder = PriceSeries.builder(Math.min(base.size(), quote.size()));
+        int i = 0;
+        int j = 0;
+        while (i < base.size() && j < quote.size()) {
+            if (base.day(i) < quote.day(j)) {
+                i++;
+            } else if (base.day(i) > quote.day(j)) {
+                j++;
+            } else {
+                builder.add(base.day(i),
+                    Prices.ratio(base.open(i), quote.open(j)),
+                    Prices.ratio(base.high(i), quote.low(j)),
+                    Prices.ratio(base.low(i), quote.high(j)),
+                    Prices.ratio(base.close(i), quote.close(j)));
+                i++;
+                j++;
+            }
+        }
+        return builder.build();
+    }
+}
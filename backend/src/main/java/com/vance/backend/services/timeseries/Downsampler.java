@@ -0,0 +1,111 @@
+package com.vance.backend.services.timeseries;
+
+import com.vance.backend.models.Prices;
+
+import java.util.Arrays;
+
+/**
+ * Largest-Triangle-Three-Buckets over a series' close prices: the range is
+ * split into equal buckets and from each the entry forming the largest
+ * triangle with the previously kept entry and the next bucket's average is
+ * kept. The first and last entries are always kept, and so are the range's
+ * lowest and highest close, which replace their bucket's pick.
+ *
+ * One pass over the range; the next bucket's average comes from the close
+ * index's prefix sums, the extremes from its sparse tables.
+ */
+public final class Downsampler {
+
+    /** Fewest points a range can be reduced to: both ends, both extremes. */
+    public static final int MIN_POINTS = 4;
+
+    private Downsampler() {
+    }
+
+    /**
+     * Indices, ascending, of at most {@code maxPoints} entries of
+     * {@code series} in [from, to). Missing closes are never picked.
+     */
+    public static int[] largestTriangleThreeBuckets(PriceSeries series, int from, int to, int maxPoints) {
+        if (maxPoints < MIN_POINTS) {
+            throw new IllegalArgumentException("maxPoints must be at least " + MIN_POINTS);
+        }
+        int n = to - from;
+        if (n <= maxPoints) {
+            int[] all = new int[Math.max(n, 0)];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = from + i;
+            }
+            return all;
+        }
+
+        RangeAggregateIndex index = series.closeIndex();
+        long min = index.min(from, to);
+        long max = index.max(from, to);
+        boolean minKept = series.close(from) == min || series.close(to - 1) == min;
+        boolean maxKept = series.close(from) == max || series.close(to - 1) == max;
+
+        // one bucket may keep both extremes, so one slot is held back for it
+        int buckets = maxPoints - 3;
+        double bucketSize = (double) (n - 2) / buckets;
+        int[] kept = new int[maxPoints];
+        int count = 0;
+        kept[count++] = from;
+        int previous = from;
+
+        for (int b = 0; b < buckets; b++) {
+            int start = from + 1 + (int) (b * bucketSize);
+            int end = b == buckets - 1 ? to - 1 : from + 1 + (int) ((b + 1) * bucketSize);
+            int nextEnd = b >= buckets - 2 ? to : from + 1 + (int) ((b + 2) * bucketSize);
+
+            long nextAverage = index.average(end, nextEnd);
+            long previousClose = series.close(previous);
+            double previousX = series.day(previous);
+            double previousY = !Prices.isMissing(previousClose) ? previousClose
+                : Prices.isMissing(nextAverage) ? 0 : nextAverage;
+            double nextX = (series.day(end) + series.day(nextEnd - 1)) / 2.0;
+            double nextY = Prices.isMissing(nextAverage) ? previousY : nextAverage;
+
+            int best = -1;
+            double bestArea = -1;
+            int minAt = -1;
+            int maxAt = -1;
+            for (int i = start; i < end; i++) {
+                long close = series.close(i);
+                if (Prices.isMissing(close)) {
+                    continue;
+                }
+                if (!minKept && minAt < 0 && close == min) {
+                    minAt = i;
+                }
+                if (!maxKept && maxAt < 0 && close == max) {
+                    maxAt = i;
+                }
+                double area = Math.abs((previousX - nextX) * (close - previousY)
+                    - (previousX - series.day(i)) * (nextY - previousY));
+                if (area > bestArea) {
+                    bestArea = area;
+                    best = i;
+                }
+            }
+
+            if (minAt >= 0 || maxAt >= 0) {
+                minKept |= minAt >= 0;
+                maxKept |= maxAt >= 0;
+                if (minAt >= 0 && maxAt >= 0) {
+                    kept[count++] = Math.min(minAt, maxAt);
+                    kept[count++] = Math.max(minAt, maxAt);
+                } else {
+                    kept[count++] = Math.max(minAt, maxAt);
+                }
+                previous = kept[count - 1];
+            } else if (best >= 0) {
+                kept[count++] = best;
+                previous = best;
+            }
+        }
+
+        kept[count++] = to - 1;
+        return count == kept.length ? kept : Arrays.copyOf(kept, count);
+    }
+}
@@ -0,0 +1,109 @@
+package com.vance.backend.services.timeseries;
+
+import com.vance.backend.dto.PricePoint;
+import com.vance.backend.events.ForexDataIngestedEvent;
+import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.repos.CurrencyPairRepository;
+import com.vance.backend.repos.ExchangeRateRepository;
+import com.vance.backend.repos.MonthlyExchangeRateRepository;
+import com.vance.backend.repos.WeeklyExchangeRateRepository;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-side copy of every pair's daily, weekly and monthly series. Loaded
+ * once on startup and kept current by merging the rows named in each
+ * committed {@link ForexDataIngestedEvent}, so range reads never go to the
+ * database.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@RequiredArgsConstructor
+public class ForexSeriesStore implements ApplicationRunner {
+
+    private final CurrencyPairRepository currencyPairRepository;
+    private final ExchangeRateRepository exchangeRateRepository;
+    private final WeeklyExchangeRateRepository weeklyExchangeRateRepository;
+    private final MonthlyExchangeRateRepository monthlyExchangeRateRepository;
+
+    private final Map<SeriesKey, PriceSeries> series = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long started = System.currentTimeMillis();
+        for (CurrencyPair pair : currencyPairRepository.findAll()) {
+            Long pairId = pair.getId();
+            putLoaded(pairId, Frequency.DAILY, toSeries(exchangeRateRepository.findAllPricePoints(pairId)));
+            putLoaded(pairId, Frequency.WEEKLY, toSeries(weeklyExchangeRateRepository.findAllPricePoints(pairId)));
+            putLoaded(pairId, Frequency.MONTHLY, toSeries(monthlyExchangeRateRepository.findAllPricePoints(pairId)));
+        }
+        loaded = true;
+        log.info("Loaded {} price series in {} ms", series.size(), System.currentTimeMillis() - started);
+    }
+
+    // entries merged from events during the load are newer than the loaded snapshot
+    private void putLoaded(Long pairId, Frequency frequency, PriceSeries loadedSeries) {
+        PriceSeries stored = series.merge(new SeriesKey(pairId, frequency), loadedSeries, (current, loadedValue) -> loadedValue.merge(current));
+        if (frequency == Frequency.DAILY) {
+            stored.closeIndex();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public PriceSeries get(Long currencyPairId, Frequency frequency) {
+        return series.getOrDefault(new SeriesKey(currencyPairId, frequency), PriceSeries.EMPTY);
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIngest(ForexDataIngestedEvent event) {
+        Long pairId = event.getCurrencyPairId();
+        LocalDate first = event.getFirstDate();
+        LocalDate last = event.getLastDate();
+        PriceSeries updates = switch (event.getFrequency()) {
+            case DAILY -> toSeries(exchangeRateRepository.findPricePoints(pairId, first, last));
+            case WEEKLY -> toSeries(weeklyExchangeRateRepository.findPricePoints(pairId, first, last));
+            case MONTHLY -> toSeries(monthlyExchangeRateRepository.findPricePoints(pairId, first, last));
+        };
+        PriceSeries stored = series.merge(new SeriesKey(pairId, event.getFrequency()), updates, PriceSeries::merge);
+        if (event.getFrequency() == Frequency.DAILY) {
+            // extended in place when the update only appended days, rebuilt otherwise
+            stored.closeIndex();
+        }
+    }
+
+    /**
+     * A series from points in date order. Should a day repeat (a table
+     * created before its unique key), the last row read wins rather than
+     * failing the whole load.
+     */
+    public static PriceSeries toSeries(List<PricePoint> points) {
+        PriceSeries.Builder builder = PriceSeries.builder(points.size());
+        points.forEach(p -> builder.put(p.getDate(), p.getOpenPrice(), p.getHighPrice(), p.getLowPrice(), p.getClosePrice()));
+        if (builder.replaced() > 0) {
+            log.warn("Skipped {} rates repeating an earlier row's date; kept the last of each", builder.replaced());
+        }
+        return builder.build();
+    }
+
+    private record SeriesKey(Long currencyPairId, Frequency frequency) {
+    }
+}
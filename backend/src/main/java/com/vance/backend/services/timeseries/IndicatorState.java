@@ -0,0 +1,209 @@
+package com.vance.backend.services.timeseries;
+
+import com.vance.backend.models.Prices;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Running indicator state for one pair's daily series, updated in constant
+ * time per day:
+ * <ul>
+ *   <li>simple moving averages of the close over 20, 50 and 200 days, from
+ *   running sums over a ring of the last 200 closes;</li>
+ *   <li>exponential moving averages over 12 and 26 days, seeded with the
+ *   first close;</li>
+ *   <li>sample standard deviation of the last 20 daily log returns;</li>
+ *   <li>average true range over 14 days, Wilder-smoothed.</li>
+ * </ul>
+ * Days without a close are skipped. Values stay missing until their window
+ * has filled. Not thread-safe.
+ */
+public final class IndicatorState {
+
+    public static final int[] SMA_WINDOWS = {20, 50, 200};
+    public static final int[] EMA_WINDOWS = {12, 26};
+    public static final int VOLATILITY_WINDOW = 20;
+    public static final int ATR_WINDOW = 14;
+
+    private static final int FORMAT = 1;
+    private static final int RING = 200;
+
+    private int lastDay = -1;
+    private long count;
+    private final long[] closes = new long[RING];
+    private final long[] smaSums = new long[SMA_WINDOWS.length];
+    private final double[] emas = new double[EMA_WINDOWS.length];
+    private final double[] returns = new double[VOLATILITY_WINDOW];
+    private long returnCount;
+    private double returnSum;
+    private double returnSumOfSquares;
+    private long previousClose = Prices.MISSING;
+    private long trueRanges;
+    private double trueRangeSum;
+    private double atr;
+
+    /** Epoch day of the last day folded in, or -1 before the first. */
+    public int lastDay() {
+        return lastDay;
+    }
+
+    /** Number of closes folded in. */
+    public long count() {
+        return count;
+    }
+
+    /** Folds in the next day, which must be after {@link #lastDay()}. */
+    public void fold(int day, long high, long low, long close) {
+        if (day <= lastDay) {
+            throw new IllegalArgumentException("Days must be folded in ascending order");
+        }
+        lastDay = day;
+        if (Prices.isMissing(close)) {
+            return;
+        }
+
+        for (int k = 0; k < SMA_WINDOWS.length; k++) {
+            if (count >= SMA_WINDOWS[k]) {
+                smaSums[k] -= closes[(int) ((count - SMA_WINDOWS[k]) % RING)];
+            }
+            smaSums[k] += close;
+        }
+        closes[(int) (count % RING)] = close;
+
+        for (int k = 0; k < EMA_WINDOWS.length; k++) {
+            emas[k] = count == 0 ? close : emas[k] + 2.0 / (EMA_WINDOWS[k] + 1) * (close - emas[k]);
+        }
+
+        if (!Prices.isMissing(previousClose)) {
+            double logReturn = Math.log((double) close / previousClose);
+            int slot = (int) (returnCount % VOLATILITY_WINDOW);
+            if (returnCount >= VOLATILITY_WINDOW) {
+                returnSum -= returns[slot];
+                returnSumOfSquares -= returns[slot] * returns[slot];
+            }
+            returns[slot] = logReturn;
+            returnSum += logReturn;
+            returnSumOfSquares += logReturn * logReturn;
+            returnCount++;
+            if (returnCount % VOLATILITY_WINDOW == 0) {
+                // re-add from the ring once per lap, so rounding in the running sums cannot build up
+                returnSum = 0;
+                returnSumOfSquares = 0;
+                for (double r : returns) {
+                    returnSum += r;
+                    returnSumOfSquares += r * r;
+                }
+            }
+        }
+
+        long h = Prices.isMissing(high) ? close : high;
+        long l = Prices.isMissing(low) ? close : low;
+        double trueRange = h - l;
+        if (!Prices.isMissing(previousClose)) {
+            trueRange = Math.max(trueRange, Math.max(Math.abs(h - previousClose), Math.abs(l - previousClose)));
+        }
+        trueRanges++;
+        if (trueRanges <= ATR_WINDOW) {
+            trueRangeSum += trueRange;
+            atr = trueRangeSum / trueRanges;
+        } else {
+            atr = (atr * (ATR_WINDOW - 1) + trueRange) / ATR_WINDOW;
+        }
+
+        previousClose = close;
+        count++;
+    }
+
+    public long sma(int k) {
+        return count >= SMA_WINDOWS[k] ? Prices.average(smaSums[k], SMA_WINDOWS[k]) : Prices.MISSING;
+    }
+
+    public long ema(int k) {
+        return count >= EMA_WINDOWS[k] ? Math.round(emas[k]) : Prices.MISSING;
+    }
+
+    public long atr() {
+        return trueRanges >= ATR_WINDOW ? Math.round(atr) : Prices.MISSING;
+    }
+
+    /** {@code null} until the window has filled. */
+    public Double volatility() {
+        if (returnCount < VOLATILITY_WINDOW) {
+            return null;
+        }
+        double n = VOLATILITY_WINDOW;
+        double variance = (returnSumOfSquares - returnSum * returnSum / n) / (n - 1);
+        return Math.sqrt(Math.max(variance, 0));
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(2048);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(FORMAT);
+            out.writeInt(lastDay);
+            out.writeLong(count);
+            for (long close : closes) {
+                out.writeLong(close);
+            }
+            for (long sum : smaSums) {
+                out.writeLong(sum);
+            }
+            for (double ema : emas) {
+                out.writeDouble(ema);
+            }
+            for (double r : returns) {
+                out.writeDouble(r);
+            }
+            out.writeLong(returnCount);
+            out.writeDouble(returnSum);
+            out.writeDouble(returnSumOfSquares);
+            out.writeLong(previousClose);
+            out.writeLong(trueRanges);
+            out.writeDouble(trueRangeSum);
+            out.writeDouble(atr);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Restores a state written by {@link #toBytes()}; fails on any other format. */
+    public static IndicatorState fromBytes(byte[] bytes) {
+        IndicatorState state = new IndicatorState();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            int format = in.readInt();
+            if (format != FORMAT) {
+                throw new IllegalArgumentException("Unknown indicator checkpoint format " + format);
+            }
+            state.lastDay = in.readInt();
+            state.count = in.readLong();
+            for (int i = 0; i < RING; i++) {
+                state.closes[i] = in.readLong();
+            }
+            for (int k = 0; k < state.smaSums.length; k++) {
+                state.smaSums[k] = in.readLong();
+            }
+            for (int k = 0; k < state.emas.length; k++) {
+                state.emas[k] = in.readDouble();
+            }
+            for (int i = 0; i < VOLATILITY_WINDOW; i++) {
+                state.returns[i] = in.readDouble();
+            }
+            state.returnCount = in.readLong();
+            state.returnSum = in.readDouble();
+            state.returnSumOfSquares = in.readDouble();
+            state.previousClose = in.readLong();
+            state.trueRanges = in.readLong();
+            state.trueRangeSum = in.readDouble();
+            state.atr = in.readDouble();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Truncated indicator checkpoint", e);
+        }
+        return state;
+    }
+}
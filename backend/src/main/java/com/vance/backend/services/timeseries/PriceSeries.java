@@ -0,0 +1,219 @@
+package com.vance.backend.services.timeseries;
+
+import com.vance.backend.models.Prices;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Immutable OHLC series for one pair and resolution, held as primitive
+ * columns sorted by day. Prices are micro-units; missing ones are
+ * {@link Prices#MISSING}.
+ * Updates produce a new instance, so readers can hold a reference without
+ * locking.
+ */
+public final class PriceSeries {
+
+    public static final PriceSeries EMPTY = new PriceSeries(new int[0], new long[0], new long[0], new long[0], new long[0], 0);
+
+    private final int[] days;
+    private final long[] open;
+    private final long[] high;
+    private final long[] low;
+    private final long[] close;
+    private final int size;
+    private volatile RangeAggregateIndex closeIndex;
+
+    private PriceSeries(int[] days, long[] open, long[] high, long[] low, long[] close, int size) {
+        this.days = days;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int day(int i) {
+        return days[i];
+    }
+
+    public LocalDate date(int i) {
+        return LocalDate.ofEpochDay(days[i]);
+    }
+
+    public long open(int i) {
+        return open[i];
+    }
+
+    public long high(int i) {
+        return high[i];
+    }
+
+    public long low(int i) {
+        return low[i];
+    }
+
+    public long close(int i) {
+        return close[i];
+    }
+
+    /**
+     * Aggregate index over the close column, built on first use and carried
+     * forward incrementally when entries are appended through {@link #merge}.
+     */
+    public RangeAggregateIndex closeIndex() {
+        RangeAggregateIndex index = closeIndex;
+        if (index == null) {
+            index = RangeAggregateIndex.build(this);
+            closeIndex = index;
+        }
+        return index;
+    }
+
+    /** Index of the first entry on or after {@code date}, or {@link #size()} if none. */
+    public int lowerBound(LocalDate date) {
+        return search((int) date.toEpochDay(), false);
+    }
+
+    /** Index one past the last entry on or before {@code date}. */
+    public int upperBound(LocalDate date) {
+        return search((int) date.toEpochDay(), true);
+    }
+
+    private int search(int day, boolean inclusive) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (days[mid] < day || (inclusive && days[mid] == day)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns a series containing the entries of both, with entries of
+     * {@code updates} replacing entries of this series on the same day.
+     */
+    public PriceSeries merge(PriceSeries updates) {
+        if (updates.size == 0) {
+            return this;
+        }
+        boolean appendOnly = size == 0 || updates.days[0] > days[size - 1];
+        Builder merged = new Builder(size + updates.size);
+        int i = 0;
+        int j = 0;
+        while (i < size || j < updates.size) {
+            if (j == updates.size || (i < size && days[i] < updates.days[j])) {
+                merged.add(days[i], open[i], high[i], low[i], close[i]);
+                i++;
+            } else {
+                if (i < size && days[i] == updates.days[j]) {
+                    i++;
+                }
+                merged.add(updates.days[j], updates.open[j], updates.high[j], updates.low[j], updates.close[j]);
+                j++;
+            }
+        }
+        PriceSeries result = merged.build();
+        RangeAggregateIndex index = closeIndex;
+        if (appendOnly && index != null) {
+            result.closeIndex = index.append(result);
+        }
+        return result;
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    /** Collects entries in ascending day order. */
+    public static final class Builder {
+        private int[] days;
+        private long[] open;
+        private long[] high;
+        private long[] low;
+        private long[] close;
+        private int size;
+        private int replaced;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 8);
+            days = new int[capacity];
+            open = new long[capacity];
+            high = new long[capacity];
+            low = new long[capacity];
+            close = new long[capacity];
+        }
+
+        public Builder add(LocalDate date, long open, long high, long low, long close) {
+            return add((int) date.toEpochDay(), open, high, low, close);
+        }
+
+        public Builder add(int day, long open, long high, long low, long close) {
+            if (size > 0 && day <= days[size - 1]) {
+                throw new IllegalArgumentException("Series entries must be added in ascending date order");
+            }
+            if (size == days.length) {
+                grow();
+            }
+            this.days[size] = day;
+            this.open[size] = open;
+            this.high[size] = high;
+            this.low[size] = low;
+            this.close[size] = close;
+            size++;
+            return this;
+        }
+
+        public Builder put(LocalDate date, long open, long high, long low, long close) {
+            return put((int) date.toEpochDay(), open, high, low, close);
+        }
+
+        /**
+         * {@link #add}, except that an entry for the last day added replaces
+         * it; for rows read in date order that may repeat a day.
+         */
+        public Builder put(int day, long open, long high, long low, long close) {
+            if (size > 0 && day == days[size - 1]) {
+                size--;
+                replaced++;
+            }
+            return add(day, open, high, low, close);
+        }
+
+        /** Entries replaced by {@link #put} so far. */
+        public int replaced() {
+            return replaced;
+        }
+
+        private void grow() {
+            int capacity = days.length * 2;
+            days = Arrays.copyOf(days, capacity);
+            open = Arrays.copyOf(open, capacity);
+            high = Arrays.copyOf(high, capacity);
+            low = Arrays.copyOf(low, capacity);
+            close = Arrays.copyOf(close, capacity);
+        }
+
+        public PriceSeries build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            return new PriceSeries(
+                Arrays.copyOf(days, size),
+                Arrays.copyOf(open, size),
+                Arrays.copyOf(high, size),
+                Arrays.copyOf(low, size),
+                Arrays.copyOf(close, size),
+                size);
+        }
+    }
+}
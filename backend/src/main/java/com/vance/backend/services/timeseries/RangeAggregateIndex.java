@@ -0,0 +1,127 @@
+package com.vance.backend.services.timeseries;
+
+import com.vance.backend.models.Prices;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Constant-time min/max/average over any index range of a series' close
+ * prices: prefix sums and counts for the average, sparse tables for min and
+ * max. Missing closes are skipped. Everything is in micro-units, so sums
+ * are exact and an average does not depend on how the range was built.
+ *
+ * Appending entries is O(log n) per entry. The backing arrays are shared
+ * with the index being extended, which is safe because new entries only
+ * write slots the older index never reads; each index can be extended in
+ * place at most once, later calls copy.
+ */
+public final class RangeAggregateIndex {
+
+    public static final RangeAggregateIndex EMPTY = new RangeAggregateIndex(
+        new long[1], new int[1], new long[0][], new long[0][], 0);
+
+    private final long[] prefixSum;
+    private final int[] prefixCount;
+    private final long[][] min;
+    private final long[][] max;
+    private final int size;
+    private final AtomicBoolean extended = new AtomicBoolean();
+
+    private RangeAggregateIndex(long[] prefixSum, int[] prefixCount, long[][] min, long[][] max, int size) {
+        this.prefixSum = prefixSum;
+        this.prefixCount = prefixCount;
+        this.min = min;
+        this.max = max;
+        this.size = size;
+    }
+
+    public static RangeAggregateIndex build(PriceSeries series) {
+        return EMPTY.append(series);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns an index over {@code series}, whose first {@link #size()}
+     * closes must be the ones already indexed here.
+     */
+    public RangeAggregateIndex append(PriceSeries series) {
+        int n = series.size();
+        if (n < size) {
+            throw new IllegalArgumentException("Series is shorter than the indexed range");
+        }
+        int levels = levelsFor(n);
+        boolean inPlace = n < prefixSum.length && levels <= min.length && extended.compareAndSet(false, true);
+
+        long[] sums = prefixSum;
+        int[] counts = prefixCount;
+        long[][] mins = min;
+        long[][] maxs = max;
+        if (!inPlace) {
+            int capacity = Math.max(n, size * 2);
+            int capacityLevels = levelsFor(capacity);
+            sums = Arrays.copyOf(prefixSum, capacity + 1);
+            counts = Arrays.copyOf(prefixCount, capacity + 1);
+            mins = new long[capacityLevels][];
+            maxs = new long[capacityLevels][];
+            for (int k = 0; k < capacityLevels; k++) {
+                mins[k] = k < min.length ? Arrays.copyOf(min[k], capacity) : new long[capacity];
+                maxs[k] = k < max.length ? Arrays.copyOf(max[k], capacity) : new long[capacity];
+            }
+        }
+
+        for (int i = size; i < n; i++) {
+            long close = series.close(i);
+            boolean missing = Prices.isMissing(close);
+            sums[i + 1] = sums[i] + (missing ? 0 : close);
+            counts[i + 1] = counts[i] + (missing ? 0 : 1);
+            mins[0][i] = missing ? Long.MAX_VALUE : close;
+            maxs[0][i] = missing ? Long.MIN_VALUE : close;
+            for (int k = 1; (1 << k) <= i + 1; k++) {
+                int j = i - (1 << k) + 1;
+                int half = j + (1 << (k - 1));
+                mins[k][j] = Math.min(mins[k - 1][j], mins[k - 1][half]);
+                maxs[k][j] = Math.max(maxs[k - 1][j], maxs[k - 1][half]);
+            }
+        }
+        return new RangeAggregateIndex(sums, counts, mins, maxs, n);
+    }
+
+    /** Number of non-missing closes in [from, to). */
+    public int count(int from, int to) {
+        return to <= from ? 0 : prefixCount[to] - prefixCount[from];
+    }
+
+    /** Mean close rounded half to even, or {@link Prices#MISSING} if there is none. */
+    public long average(int from, int to) {
+        int count = count(from, to);
+        return count == 0 ? Prices.MISSING : Prices.average(prefixSum[to] - prefixSum[from], count);
+    }
+
+    public long min(int from, int to) {
+        if (count(from, to) == 0) {
+            return Prices.MISSING;
+        }
+        int k = log2(to - from);
+        return Math.min(min[k][from], min[k][to - (1 << k)]);
+    }
+
+    public long max(int from, int to) {
+        if (count(from, to) == 0) {
+            return Prices.MISSING;
+        }
+        int k = log2(to - from);
+        return Math.max(max[k][from], max[k][to - (1 << k)]);
+    }
+
+    private static int levelsFor(int n) {
+        return n == 0 ? 0 : log2(n) + 1;
+    }
+
+    private static int log2(int n) {
+        return 31 - Integer.numberOfLeadingZeros(n);
+    }
+}
@@ -0,0 +1,76 @@
+package com.vance.backend.config;
+
+import io.micrometer.common.KeyValue;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ForexRequestObservationConventionTests {
+
+    private final ForexRequestObservationConvention convention = new ForexRequestObservationConvention();
+
+    @Test
+    void periodsRoundUpToTheNextStandardPeriod() {
+        Map<String, String> expected = Map.ofEntries(
+            Map.entry("1D", "1W"),
+            Map.entry("7D", "1W"),
+            Map.entry("8D", "1M"),
+            Map.entry("1W", "1W"),
+            Map.entry("2W", "1M"),
+            Map.entry("1M", "1M"),
+            Map.entry("3M", "3M"),
+            Map.entry("6M", "6M"),
+            Map.entry("1Y", "1Y"),
+            Map.entry("2Y", "5Y"),
+            Map.entry("5Y", "5Y"),
+            Map.entry("20Y", "20Y"),
+            Map.entry("21Y", "max"));
+
+        expected.forEach((period, tag) ->
+            assertThat(period(forexData(period))).as(period).isEqualTo(tag));
+    }
+
+    @Test
+    void malformedOrMissingPeriodsHaveTheirOwnValues() {
+        assertThat(period(forexData("0M"))).isEqualTo("invalid");
+        assertThat(period(forexData("1H"))).isEqualTo("invalid");
+        assertThat(period(forexData("1000000D"))).isEqualTo("invalid");
+        assertThat(period(new MockHttpServletRequest("GET", "/api/forex-aggregates"))).isEqualTo("none");
+    }
+
+    @Test
+    void reportRangesAreBucketedByTheirLength() {
+        assertThat(period(pdf("2024-01-01", "2024-03-31"))).isEqualTo("3M");
+        assertThat(period(pdf("2004-01-01", "2024-01-01"))).isEqualTo("20Y");
+        assertThat(period(pdf("2024-01-01", "not-a-date"))).isEqualTo("invalid");
+        // no range given is the default 30-day report
+        assertThat(period(new MockHttpServletRequest("GET", "/api/forex-pdf"))).isEqualTo("1M");
+    }
+
+    private String period(MockHttpServletRequest request) {
+        ServerRequestObservationContext context = new ServerRequestObservationContext(request, new MockHttpServletResponse());
+        return convention.getLowCardinalityKeyValues(context).stream()
+            .filter(keyValue -> keyValue.getKey().equals("period"))
+            .map(KeyValue::getValue)
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private static MockHttpServletRequest forexData(String period) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/forex-data");
+        request.setParameter("period", period);
+        return request;
+    }
+
+    private static MockHttpServletRequest pdf(String startDate, String endDate) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/forex-pdf");
+        request.setParameter("startDate", startDate);
+        request.setParameter("endDate", endDate);
+        return request;
+    }
+}
@@ -0,0 +1,64 @@
+package com.vance.backend.config;
+
+import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.models.Prices;
+import com.vance.backend.repos.CurrencyPairRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(PriceColumnMigration.class)
+class PriceColumnMigrationTests {
+
+    @Autowired
+    private PriceColumnMigration migration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CurrencyPairRepository currencyPairRepository;
+
+    @Test
+    void finishesAMigrationThatStoppedBetweenDrops() {
+        CurrencyPair pair = currencyPairRepository.saveAndFlush(new CurrencyPair("GBP", "INR"));
+        // open_price and low_price were already copied and dropped by an earlier, interrupted run
+        jdbcTemplate.execute("ALTER TABLE exchange_rate ADD COLUMN high_price DOUBLE PRECISION");
+        jdbcTemplate.execute("ALTER TABLE exchange_rate ADD COLUMN close_price DOUBLE PRECISION");
+        jdbcTemplate.update("INSERT INTO exchange_rate (id, currency_pair_id, date, open_micros, low_micros, high_price, close_price)"
+            + " VALUES (1, ?, DATE '2024-10-25', 108200000, 107865600, 108.3679, NULL)", pair.getId());
+
+        migration.run(null);
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+            "SELECT open_micros, high_micros, low_micros, close_micros FROM exchange_rate WHERE id = 1");
+        assertThat(row.values()).containsExactly(108_200_000L, 108_367_900L, 107_865_600L, Prices.MISSING);
+        assertThat(priceColumns()).isZero();
+
+        // and every later start is a no-op
+        migration.run(null);
+        assertThat(jdbcTemplate.queryForObject("SELECT high_micros FROM exchange_rate WHERE id = 1", Long.class))
+            .isEqualTo(108_367_900L);
+    }
+
+    @Test
+    void doesNothingOnACurrentSchema() {
+        migration.run(null);
+
+        assertThat(priceColumns()).isZero();
+    }
+
+    private int priceColumns() {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE LOWER(COLUMN_NAME) LIKE '%\\_price' ESCAPE '\\'",
+            Integer.class);
+    }
+}
@@ -0,0 +1,108 @@
+package com.vance.backend.controllers;
+
+import com.vance.backend.dto.ForexDataResponse;
+import com.vance.backend.dto.ForexDataResponse.AggregateStatistics;
+import com.vance.backend.dto.ForexDataResponse.ForexTimeSeriesData;
+import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.services.ForexService;
+import com.vance.backend.services.ForexService.ForexQuery;
+import com.vance.backend.services.cache.ForexResponseCache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class ScrapeControllerTests {
+
+    private static final String ETAG = "\"GBP-INR-1M-2024-10-25-12\"";
+
+    @Mock
+    private ForexService forexService;
+
+    @Mock
+    private ForexResponseCache forexResponseCache;
+
+    @InjectMocks
+    private ScrapeController controller;
+
+    private MockMvc mockMvc;
+
+    private final ForexQuery query = new ForexQuery("GBP", "INR", "1M", null, new CurrencyPair("GBP", "INR"), null);
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void answersAMatchingEtagWithNotModified() throws Exception {
+        when(forexService.resolve("GBP", "INR", "1M", null)).thenReturn(query);
+        when(forexResponseCache.etag(query)).thenReturn(ETAG);
+
+        mockMvc.perform(get("/api/forex-data?from=GBP&to=INR&period=1M")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"stale\", " + ETAG))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+            .andExpect(content().string(""));
+        verify(forexResponseCache, never()).get(any(), any());
+    }
+
+    @Test
+    void servesTheBodyWhenTheEtagDiffers() throws Exception {
+        when(forexService.resolve("GBP", "INR", "1M", null)).thenReturn(query);
+        when(forexResponseCache.etag(query)).thenReturn(ETAG);
+        when(forexResponseCache.get(eq(ETAG), any())).thenReturn(new ForexDataResponse("GBP", "INR", "1M",
+            new AggregateStatistics(0, 0, 0), new ForexTimeSeriesData(List.of(), List.of(), List.of()), null));
+
+        mockMvc.perform(get("/api/forex-data?from=GBP&to=INR&period=1M")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+            .andExpect(jsonPath("$.fromCurrency").value("GBP"));
+    }
+
+    @Test
+    void validatesBeforeLookingAtTheEtag() throws Exception {
+        when(forexService.resolve("GBP", "XXX", "1M", null))
+            .thenThrow(new IllegalArgumentException("Currency pair not found"));
+        when(forexService.resolve("GBP", "INR", "9Q", null))
+            .thenThrow(new IllegalArgumentException("Invalid period"));
+
+        mockMvc.perform(get("/api/forex-data?from=GBP&to=XXX&period=1M").header(HttpHeaders.IF_NONE_MATCH, "*"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/forex-data?from=GBP&to=INR&period=9Q").header(HttpHeaders.IF_NONE_MATCH, "*"))
+            .andExpect(status().isBadRequest());
+        verifyNoInteractions(forexResponseCache);
+    }
+
+    @Test
+    void aWildcardMatchesAnyServablePair() throws Exception {
+        when(forexService.resolve("GBP", "INR", "1M", null)).thenReturn(query);
+        when(forexResponseCache.etag(query)).thenReturn(ETAG);
+
+        mockMvc.perform(get("/api/forex-data?from=GBP&to=INR&period=1M").header(HttpHeaders.IF_NONE_MATCH, "*"))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, ETAG));
+    }
+}
@@ -0,0 +1,66 @@
+package com.vance.backend.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PricesTests {
+
+    @Test
+    void parsesDecimalsRoundingHalfUpPastSixPlaces() {
+        assertThat(Prices.parse("108.1429")).isEqualTo(108_142_900L);
+        assertThat(Prices.parse("1,234.5")).isEqualTo(1_234_500_000L);
+        assertThat(Prices.parse("+7")).isEqualTo(7_000_000L);
+        assertThat(Prices.parse("-0.25")).isEqualTo(-250_000L);
+        assertThat(Prices.parse(".5")).isEqualTo(500_000L);
+        assertThat(Prices.parse("0.0000005")).isEqualTo(1L);
+        assertThat(Prices.parse("0.00000049")).isEqualTo(0L);
+        assertThat(Prices.parse("1.23456789")).isEqualTo(1_234_568L);
+    }
+
+    @Test
+    void anythingElseParsesAsMissing() {
+        assertThat(Prices.parse("-")).isEqualTo(Prices.MISSING);
+        assertThat(Prices.parse("")).isEqualTo(Prices.MISSING);
+        assertThat(Prices.parse("1.2.3")).isEqualTo(Prices.MISSING);
+        assertThat(Prices.parse("1.234,5")).isEqualTo(Prices.MISSING);
+        assertThat(Prices.parse("12a")).isEqualTo(Prices.MISSING);
+        assertThat(Prices.parse("1e5")).isEqualTo(Prices.MISSING);
+        // too large to scale into a long
+        assertThat(Prices.parse("10000000000000000")).isEqualTo(Prices.MISSING);
+    }
+
+    @Test
+    void formatsToAFixedNumberOfPlaces() {
+        assertThat(Prices.format(108_142_900L, 4)).isEqualTo("108.1429");
+        assertThat(Prices.format(108_142_950L, 4)).isEqualTo("108.1430");
+        assertThat(Prices.format(1_005_000L, 2)).isEqualTo("1.01");
+        assertThat(Prices.format(1_050L, 2)).isEqualTo("0.00");
+        assertThat(Prices.format(-1_004_999L, 2)).isEqualTo("-1.00");
+        assertThat(Prices.format(-4_000L, 2)).isEqualTo("0.00");
+        assertThat(Prices.format(2_500_000L, 0)).isEqualTo("3");
+        assertThat(Prices.format(1L, 6)).isEqualTo("0.000001");
+    }
+
+    @Test
+    void printsTheShortestPlainDecimal() {
+        assertThat(Prices.toPlainString(100_000_000L)).isEqualTo("100.0");
+        assertThat(Prices.toPlainString(108_142_900L)).isEqualTo("108.1429");
+        assertThat(Prices.toPlainString(1_000_050L)).isEqualTo("1.00005");
+        assertThat(Prices.toPlainString(1L)).isEqualTo("0.000001");
+        assertThat(Prices.toPlainString(-250_000L)).isEqualTo("-0.25");
+        assertThat(Prices.toPlainString(0L)).isEqualTo("0.0");
+    }
+
+    @Test
+    void averagesRoundHalfToEven() {
+        assertThat(Prices.average(10, 4)).isEqualTo(2);
+        assertThat(Prices.average(14, 4)).isEqualTo(4);
+        assertThat(Prices.average(11, 4)).isEqualTo(3);
+        assertThat(Prices.average(9, 4)).isEqualTo(2);
+        assertThat(Prices.average(-10, 4)).isEqualTo(-2);
+        assertThat(Prices.average(-14, 4)).isEqualTo(-4);
+        assertThat(Prices.average(-11, 4)).isEqualTo(-3);
+        assertThat(Prices.average(300_000_000L, 3)).isEqualTo(100_000_000L);
+    }
+}
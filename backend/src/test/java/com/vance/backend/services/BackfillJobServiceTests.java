@@ -0,0 +1,145 @@
+package com.vance.backend.services;
+
+import com.vance.backend.dto.BackfillJobStatus;
+import com.vance.backend.models.BackfillChunk;
+import com.vance.backend.repos.BackfillChunkRepository;
+import com.vance.backend.repos.BackfillJobRepository;
+import com.vance.backend.services.scrappers.interfaces.DataPopulation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// chunks run on the service's own threads, so the test data has to be committed
+@DataJpaTest(properties = "forex.backfill.chunk-days=90")
+@Import(BackfillJobService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BackfillJobServiceTests {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 7, 1);
+
+    @MockBean
+    private DataPopulation populationService;
+
+    @Autowired
+    private BackfillJobService backfillJobService;
+
+    @Autowired
+    private BackfillJobRepository jobRepository;
+
+    @Autowired
+    private BackfillChunkRepository chunkRepository;
+
+    @AfterEach
+    void cleanUp() {
+        chunkRepository.deleteAll();
+        jobRepository.deleteAll();
+    }
+
+    @Test
+    void splitsTheRangeIntoChunksAndCompletes() {
+        BackfillJobStatus submitted = backfillJobService.submit("GBP", "INR", START, END);
+
+        assertThat(submitted.getTotalChunks()).isEqualTo(3);
+        BackfillJobStatus status = awaitStatus(submitted.getJobId(), "COMPLETED");
+        assertThat(status.getSucceededChunks()).isEqualTo(3);
+        assertThat(status.getProgressPercent()).isEqualTo(100.0);
+        assertThat(status.getDaysPerSecond()).isPositive();
+        assertThat(status.getFinishedAt()).isNotNull();
+        // each chunk ends where the next starts, the last one at the job's end
+        verify(populationService).populateHistoricalData("GBP", "INR", START, START.plusDays(90));
+        verify(populationService).populateHistoricalData("GBP", "INR", START.plusDays(90), START.plusDays(180));
+        verify(populationService).populateHistoricalData("GBP", "INR", START.plusDays(180), END);
+    }
+
+    @Test
+    void retryRerunsOnlyTheFailedChunks() {
+        LocalDate failingStart = START.plusDays(90);
+        AtomicBoolean failed = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("429 from Yahoo");
+            }
+            return null;
+        }).when(populationService).populateHistoricalData(eq("AED"), eq("INR"), eq(failingStart), any());
+
+        Long jobId = backfillJobService.submit("AED", "INR", START, END).getJobId();
+        BackfillJobStatus status = awaitStatus(jobId, "FAILED");
+        assertThat(status.getSucceededChunks()).isEqualTo(2);
+        assertThat(status.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getStartDate()).isEqualTo(failingStart);
+            assertThat(error.getAttempts()).isEqualTo(1);
+            assertThat(error.getError()).isEqualTo("429 from Yahoo");
+        });
+
+        backfillJobService.retryFailed(jobId);
+        status = awaitStatus(jobId, "COMPLETED");
+
+        assertThat(status.getErrors()).isEmpty();
+        verify(populationService, times(2)).populateHistoricalData("AED", "INR", failingStart, START.plusDays(180));
+        verify(populationService, times(1)).populateHistoricalData("AED", "INR", START, failingStart);
+        verify(populationService, times(1)).populateHistoricalData("AED", "INR", START.plusDays(180), END);
+    }
+
+    @Test
+    void rejectsInvalidJobs() {
+        assertThatThrownBy(() -> backfillJobService.submit("GBPX", "INR", START, END))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> backfillJobService.submit("GBP", "INR", END, START))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> backfillJobService.status(-1L))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void throughputOnlyCountsTimeChunksWereRunning() {
+        LocalDateTime t0 = LocalDateTime.of(2024, 5, 1, 12, 0);
+        List<BackfillChunk> chunks = List.of(
+            chunk(BackfillChunk.Status.SUCCEEDED, t0, 1_000L),
+            // overlaps the first on another worker
+            chunk(BackfillChunk.Status.SUCCEEDED, t0.plusNanos(500_000_000), 1_000L),
+            // retried an hour later
+            chunk(BackfillChunk.Status.SUCCEEDED, t0.plusHours(1), 500L),
+            chunk(BackfillChunk.Status.PENDING, null, null));
+
+        assertThat(BackfillJobService.busyMillis(chunks, t0.plusHours(2))).isEqualTo(2_000);
+
+        // a running chunk counts until now, whatever its previous attempt took
+        BackfillChunk running = chunk(BackfillChunk.Status.RUNNING, t0.plusHours(2), 60_000L);
+        assertThat(BackfillJobService.busyMillis(List.of(running), t0.plusHours(2).plusSeconds(3))).isEqualTo(3_000);
+    }
+
+    private BackfillJobStatus awaitStatus(Long jobId, String expected) {
+        await().atMost(Duration.ofSeconds(10)).until(() -> backfillJobService.status(jobId).getStatus().equals(expected));
+        return backfillJobService.status(jobId);
+    }
+
+    private static BackfillChunk chunk(BackfillChunk.Status status, LocalDateTime startedAt, Long durationMillis) {
+        BackfillChunk chunk = new BackfillChunk(1L, START, END);
+        chunk.setStatus(status);
+        chunk.setStartedAt(startedAt);
+        chunk.setDurationMillis(durationMillis);
+        return chunk;
+    }
+}
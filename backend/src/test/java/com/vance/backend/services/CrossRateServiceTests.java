@@ -0,0 +1,131 @@
+package com.vance.backend.services;
+
+import com.vance.backend.dto.PairDerivation;
+import com.vance.backend.dto.PairDerivation.Method;
+import com.vance.backend.events.ForexDataIngestedEvent;
+import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.repos.ExchangeRateRepository;
+import com.vance.backend.repos.MonthlyExchangeRateRepository;
+import com.vance.backend.repos.WeeklyExchangeRateRepository;
+import com.vance.backend.services.CrossRateService.CrossRate;
+import com.vance.backend.services.cache.ForexDataVersions;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
+import com.vance.backend.services.timeseries.ForexSeriesStore;
+import com.vance.backend.services.timeseries.PriceSeries;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CrossRateServiceTests {
+
+    private static final CurrencyPair GBP_INR = pair(1L, "GBP", "INR");
+    private static final CurrencyPair AED_INR = pair(2L, "AED", "INR");
+    private static final CurrencyPair USD_GBP = pair(3L, "USD", "GBP");
+    private static final CurrencyPair USD_AED = pair(4L, "USD", "AED");
+    private static final CurrencyPair USD_JPY = pair(5L, "USD", "JPY");
+
+    private CurrencyPairRegistry registry;
+    private ForexSeriesStore seriesStore;
+    private ForexDataVersions dataVersions;
+    private CrossRateService crossRateService;
+
+    @BeforeEach
+    void setUp() {
+        registry = mock(CurrencyPairRegistry.class);
+        when(registry.pairs()).thenReturn(List.of(GBP_INR, AED_INR, USD_GBP, USD_AED, USD_JPY));
+        seriesStore = mock(ForexSeriesStore.class);
+        when(seriesStore.isLoaded()).thenReturn(true);
+        dataVersions = new ForexDataVersions();
+        crossRateService = new CrossRateService(registry, seriesStore, dataVersions, mock(ExchangeRateRepository.class),
+            mock(WeeklyExchangeRateRepository.class), mock(MonthlyExchangeRateRepository.class));
+    }
+
+    @Test
+    void prefersTheInverseThenACommonQuoteThenACommonBase() {
+        // AED/USD could also be crossed over INR or GBP, but the inverse is exact
+        assertThat(crossRateService.find("AED", "USD")).get()
+            .extracting(CrossRate::method, CrossRate::base)
+            .containsExactly(Method.INVERSE, USD_AED);
+        // GBP/AED = (GBP/INR) / (AED/INR), ahead of (USD/AED) / (USD/GBP)
+        assertThat(crossRateService.find("GBP", "AED")).get()
+            .extracting(CrossRate::method, CrossRate::base, CrossRate::quote)
+            .containsExactly(Method.CROSS, GBP_INR, AED_INR);
+        // GBP/JPY = (USD/JPY) / (USD/GBP): no pair quoted in a currency both are quoted in
+        assertThat(crossRateService.find("GBP", "JPY")).get()
+            .extracting(CrossRate::method, CrossRate::base, CrossRate::quote)
+            .containsExactly(Method.CROSS, USD_JPY, USD_GBP);
+    }
+
+    @Test
+    void findsNothingForStoredUnrelatedOrIdenticalCurrencies() {
+        assertThat(crossRateService.find("GBP", "INR")).isEmpty();
+        assertThat(crossRateService.find("GBP", "CHF")).isEmpty();
+        assertThat(crossRateService.find("GBP", "GBP")).isEmpty();
+    }
+
+    @Test
+    void derivationsAreCachedUntilTheRegistryChanges() {
+        when(registry.generation()).thenReturn(1L);
+        crossRateService.find("GBP", "AED");
+        crossRateService.find("GBP", "AED");
+        crossRateService.find("GBP", "CHF");
+        crossRateService.find("GBP", "CHF");
+        verify(registry, times(2)).pairs();
+
+        when(registry.generation()).thenReturn(2L);
+        crossRateService.find("GBP", "AED");
+        verify(registry, times(3)).pairs();
+    }
+
+    @Test
+    void derivedSeriesAreRebuiltWhenALegIsIngested() {
+        when(seriesStore.get(1L, Frequency.DAILY)).thenReturn(series(108_000_000L));
+        when(seriesStore.get(2L, Frequency.DAILY)).thenReturn(series(22_500_000L));
+        CrossRate gbpAed = crossRateService.find("GBP", "AED").orElseThrow();
+
+        PriceSeries first = crossRateService.series(gbpAed, Frequency.DAILY);
+        String version = crossRateService.dataVersion(gbpAed);
+        assertThat(crossRateService.series(gbpAed, Frequency.DAILY)).isSameAs(first);
+        verify(seriesStore, times(1)).get(1L, Frequency.DAILY);
+
+        when(seriesStore.get(2L, Frequency.DAILY)).thenReturn(series(24_000_000L));
+        dataVersions.onIngest(new ForexDataIngestedEvent(2L, "AED", "INR", Frequency.DAILY, null, null, 1));
+
+        PriceSeries rebuilt = crossRateService.series(gbpAed, Frequency.DAILY);
+        assertThat(crossRateService.dataVersion(gbpAed)).isNotEqualTo(version);
+        assertThat(rebuilt).isNotSameAs(first);
+        assertThat(rebuilt.close(0)).isEqualTo(4_500_000L);
+        verify(seriesStore, times(2)).get(1L, Frequency.DAILY);
+        // an ingest for an unrelated pair leaves the entry alone
+        dataVersions.onIngest(new ForexDataIngestedEvent(5L, "USD", "JPY", Frequency.DAILY, null, null, 1));
+        assertThat(crossRateService.series(gbpAed, Frequency.DAILY)).isSameAs(rebuilt);
+    }
+
+    @Test
+    void onlyCrossesCarryHighLowBounds() {
+        PairDerivation inverse = crossRateService.find("AED", "USD").orElseThrow().derivation();
+        PairDerivation cross = crossRateService.find("GBP", "AED").orElseThrow().derivation();
+
+        assertThat(inverse.getLegs()).containsExactly("USD-AED");
+        assertThat(inverse.isHighLowBounds()).isFalse();
+        assertThat(cross.getLegs()).containsExactly("GBP-INR", "AED-INR");
+        assertThat(cross.isHighLowBounds()).isTrue();
+    }
+
+    private static PriceSeries series(long close) {
+        return PriceSeries.builder(1).add(19_000, close, close, close, close).build();
+    }
+
+    private static CurrencyPair pair(Long id, String fromCurrency, String toCurrency) {
+        return new CurrencyPair(id, fromCurrency, toCurrency, new HashSet<>());
+    }
+}
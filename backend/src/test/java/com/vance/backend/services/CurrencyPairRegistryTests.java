@@ -0,0 +1,84 @@
+package com.vance.backend.services;
+
+import com.vance.backend.models.CurrencyPair;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(CurrencyPairRegistry.class)
+class CurrencyPairRegistryTests {
+
+    @Autowired
+    private CurrencyPairRegistry registry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void remembersMissingPairsUntilTheyAreCreated() {
+        long generation = registry.generation();
+        assertThat(registry.find("GBP", "CHF")).isEmpty();
+
+        // not through the registry, so a second lookup only sees it if it queries again
+        jdbcTemplate.update("INSERT INTO currency_pair (from_currency, to_currency) VALUES ('GBP', 'CHF')");
+        assertThat(registry.find("GBP", "CHF")).isEmpty();
+        assertThat(registry.generation()).isEqualTo(generation);
+
+        CurrencyPair created = registry.getOrCreate("GBP", "CHF");
+        assertThat(registry.find("GBP", "CHF")).get().extracting(CurrencyPair::getId).isEqualTo(created.getId());
+        assertThat(registry.pairs()).extracting(CurrencyPair::getId).contains(created.getId());
+        assertThat(registry.generation()).isGreaterThan(generation);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentCallersCreateEachPairOnce() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CurrencyPair>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                String to = i % 2 == 0 ? "SEK" : "NOK";
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return registry.getOrCreate("EUR", to);
+                }));
+            }
+            start.countDown();
+            List<CurrencyPair> pairs = new ArrayList<>();
+            for (Future<CurrencyPair> result : results) {
+                pairs.add(result.get(30, TimeUnit.SECONDS));
+            }
+
+            assertThat(pairs).filteredOn(pair -> pair.getToCurrency().equals("SEK"))
+                .extracting(CurrencyPair::getId).hasSize(threads / 2).containsOnly(pairs.get(0).getId());
+            assertThat(pairs).filteredOn(pair -> pair.getToCurrency().equals("NOK"))
+                .extracting(CurrencyPair::getId).hasSize(threads / 2).containsOnly(pairs.get(1).getId());
+            assertThat(pairs.get(0).getId()).isNotEqualTo(pairs.get(1).getId());
+            assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM currency_pair WHERE from_currency = 'EUR' AND to_currency IN ('SEK', 'NOK')",
+                Integer.class)).isEqualTo(2);
+            assertThat(registry.find("EUR", "SEK")).get().extracting(CurrencyPair::getId).isEqualTo(pairs.get(0).getId());
+        } finally {
+            executor.shutdownNow();
+            jdbcTemplate.update("DELETE FROM currency_pair WHERE from_currency = 'EUR'");
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.vance.backend.services;
+
+import com.vance.backend.dto.IndicatorPoint;
+import com.vance.backend.events.ForexDataIngestedEvent;
+import com.vance.backend.models.Prices;
+import com.vance.backend.repos.DailyIndicatorRepository;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
+import com.vance.backend.services.timeseries.ForexSeriesStore;
+import com.vance.backend.services.timeseries.IndicatorState;
+import com.vance.backend.services.timeseries.PriceSeries;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+// the service writes in transactions of its own, so the test data has to be committed
+@DataJpaTest
+@Import(ForexIndicatorService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ForexIndicatorServiceTests {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    private static final int DAYS = 300;
+    private static final LocalDate REWRITTEN_FROM = FIRST_DAY.plusDays(260);
+
+    @MockBean
+    private ForexService forexService;
+
+    @MockBean
+    private CurrencyPairRegistry currencyPairRegistry;
+
+    @MockBean
+    private ForexSeriesStore seriesStore;
+
+    @SpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ForexIndicatorService indicatorService;
+
+    @Autowired
+    private DailyIndicatorRepository dailyIndicatorRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long pairId;
+
+    @BeforeEach
+    void createPair() {
+        jdbcTemplate.update("INSERT INTO currency_pair (from_currency, to_currency) VALUES ('GBP', 'INR')");
+        pairId = jdbcTemplate.queryForObject("SELECT id FROM currency_pair WHERE from_currency = 'GBP'", Long.class);
+        when(seriesStore.isLoaded()).thenReturn(true);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM daily_indicator");
+        jdbcTemplate.update("DELETE FROM indicator_checkpoint");
+        jdbcTemplate.update("DELETE FROM currency_pair");
+    }
+
+    @Test
+    void aRewriteIsFoldedInFromTheCheckpointBeforeIt() {
+        ingest(series(DAYS, 0), FIRST_DAY);
+
+        PriceSeries rewritten = series(DAYS, 5);
+        ingest(rewritten, REWRITTEN_FROM);
+
+        assertMatchesAFullReplay(rewritten);
+    }
+
+    @Test
+    void aFailedRewindIsRedoneByTheNextIngest() {
+        ingest(series(DAYS, 0), FIRST_DAY);
+
+        doThrow(new DataAccessResourceFailureException("database unavailable"))
+            .doCallRealMethod()
+            .when(jdbcTemplate).batchUpdate(startsWith("MERGE INTO daily_indicator"), anyCollection(), anyInt(), any());
+        ingest(series(DAYS, 5), REWRITTEN_FROM);
+
+        // the next ingest only appends a day, but the rewritten ones are still due
+        PriceSeries extended = series(DAYS + 1, 5);
+        ingest(extended, FIRST_DAY.plusDays(DAYS));
+
+        assertMatchesAFullReplay(extended);
+    }
+
+    @Test
+    void aRewindLostToARestartIsRedoneOnStartup() {
+        ingest(series(DAYS, 0), FIRST_DAY);
+
+        // the ingest commits, then the application stops before indicators are updated
+        PriceSeries rewritten = series(DAYS, 5);
+        when(seriesStore.get(pairId, Frequency.DAILY)).thenReturn(rewritten);
+        indicatorService.beforeIngestCommit(event(REWRITTEN_FROM));
+
+        ForexIndicatorService restarted = new ForexIndicatorService(forexService, currencyPairRegistry, seriesStore,
+            dailyIndicatorRepository, jdbcTemplate, transactionManager);
+        ReflectionTestUtils.setField(restarted, "batchSize", 50);
+        restarted.run(null);
+
+        assertMatchesAFullReplay(rewritten);
+    }
+
+    private void ingest(PriceSeries daily, LocalDate firstDate) {
+        when(seriesStore.get(pairId, Frequency.DAILY)).thenReturn(daily);
+        ForexDataIngestedEvent event = event(firstDate);
+        indicatorService.beforeIngestCommit(event);
+        indicatorService.onIngest(event);
+    }
+
+    private ForexDataIngestedEvent event(LocalDate firstDate) {
+        return new ForexDataIngestedEvent(pairId, "GBP", "INR", Frequency.DAILY, firstDate, firstDate, 1);
+    }
+
+    // every stored value and the newest checkpoint are what folding the whole series gives
+    private void assertMatchesAFullReplay(PriceSeries daily) {
+        IndicatorState state = new IndicatorState();
+        List<IndicatorPoint> expected = new ArrayList<>();
+        for (int i = 0; i < daily.size(); i++) {
+            state.fold(daily.day(i), daily.high(i), daily.low(i), daily.close(i));
+            expected.add(new IndicatorPoint(daily.date(i), state.sma(0), state.sma(1), state.sma(2),
+                state.ema(0), state.ema(1), state.atr(), state.volatility()));
+        }
+
+        assertThat(dailyIndicatorRepository.findPoints(pairId, FIRST_DAY, daily.date(daily.size() - 1)))
+            .containsExactlyElementsOf(expected);
+        byte[] newest = jdbcTemplate.queryForObject("SELECT state FROM indicator_checkpoint WHERE currency_pair_id = ? "
+            + "ORDER BY date DESC LIMIT 1", byte[].class, pairId);
+        assertThat(newest).isEqualTo(state.toBytes());
+    }
+
+    // a sawtooth close, raised by `shift` from the rewritten day on
+    private static PriceSeries series(int days, long shift) {
+        PriceSeries.Builder builder = PriceSeries.builder(days);
+        for (int i = 0; i < days; i++) {
+            LocalDate date = FIRST_DAY.plusDays(i);
+            long close = (100 + i % 17 + (date.isBefore(REWRITTEN_FROM) ? 0 : shift)) * Prices.ONE;
+            builder.add(date, close, close + Prices.ONE, close - Prices.ONE, close);
+        }
+        return builder.build();
+    }
+}
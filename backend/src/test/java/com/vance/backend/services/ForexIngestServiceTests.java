@@ -0,0 +1,80 @@
+package com.vance.backend.services;
+
+import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.models.ExchangeRate;
+import com.vance.backend.models.Prices;
+import com.vance.backend.repos.CurrencyPairRepository;
+import com.vance.backend.repos.ExchangeRateRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(ForexIngestService.class)
+class ForexIngestServiceTests {
+
+    private static final int TEN_YEARS_OF_TRADING_DAYS = 10 * 261;
+
+    @Autowired
+    private ForexIngestService forexIngestService;
+
+    @Autowired
+    private CurrencyPairRepository currencyPairRepository;
+
+    @Autowired
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void tenYearBackfillIsWrittenInBatches() {
+        CurrencyPair pair = currencyPairRepository.saveAndFlush(new CurrencyPair("GBP", "INR"));
+        List<ExchangeRate> rows = dailyRows(pair, LocalDate.of(2014, 1, 1), TEN_YEARS_OF_TRADING_DAYS);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        forexIngestService.persistAll(rows);
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(TEN_YEARS_OF_TRADING_DAYS);
+        // batched inserts plus one sequence call per allocation block, nowhere near one per row
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(TEN_YEARS_OF_TRADING_DAYS / 10);
+        assertThat(exchangeRateRepository.count()).isEqualTo(TEN_YEARS_OF_TRADING_DAYS);
+    }
+
+    @Test
+    void reingestingTheSameRangeLeavesRowCountsUnchanged() {
+        CurrencyPair pair = currencyPairRepository.saveAndFlush(new CurrencyPair("AED", "INR"));
+        List<ExchangeRate> rows = dailyRows(pair, LocalDate.of(2023, 1, 1), 300);
+
+        forexIngestService.saveDaily(rows);
+        forexIngestService.saveDaily(dailyRows(pair, LocalDate.of(2023, 1, 1), 300));
+
+        assertThat(exchangeRateRepository.count()).isEqualTo(300);
+    }
+
+    private static List<ExchangeRate> dailyRows(CurrencyPair pair, LocalDate from, int tradingDays) {
+        List<ExchangeRate> rows = new ArrayList<>(tradingDays);
+        LocalDate date = from;
+        while (rows.size() < tradingDays) {
+            if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                long price = (100 + rows.size() % 50) * Prices.ONE;
+                rows.add(new ExchangeRate(null, pair, date, price, price + Prices.ONE, price - Prices.ONE, price + Prices.ONE / 2));
+            }
+            date = date.plusDays(1);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,25 @@
+package com.vance.backend.services;
+
+import com.vance.backend.models.Prices;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ForexPdfServiceTests {
+
+    @Test
+    void formatsPricesToFourPlacesRoundingHalfUp() {
+        assertThat(ForexPdfService.formatPrice(108_142_900L)).isEqualTo("108.1429");
+        assertThat(ForexPdfService.formatPrice(108_142_950L)).isEqualTo("108.1430");
+        assertThat(ForexPdfService.formatPrice(108_142_949L)).isEqualTo("108.1429");
+        assertThat(ForexPdfService.formatPrice(1_000_000L)).isEqualTo("1.0000");
+        assertThat(ForexPdfService.formatPrice(9_247L)).isEqualTo("0.0092");
+        assertThat(ForexPdfService.formatPrice(1_234_567_890_123L)).isEqualTo("1234567.8901");
+    }
+
+    @Test
+    void showsMissingPricesAsADash() {
+        assertThat(ForexPdfService.formatPrice(Prices.MISSING)).isEqualTo("-");
+    }
+}
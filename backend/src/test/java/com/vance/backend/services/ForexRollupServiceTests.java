@@ -0,0 +1,125 @@
+package com.vance.backend.services;
+
+import com.vance.backend.dto.PricePoint;
+import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.models.ExchangeRate;
+import com.vance.backend.models.Prices;
+import com.vance.backend.repos.CurrencyPairRepository;
+import com.vance.backend.repos.MonthlyExchangeRateRepository;
+import com.vance.backend.repos.WeeklyExchangeRateRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// daily rows go through the ingest service, whose event triggers the rollup
+@DataJpaTest
+@Import({ForexRollupService.class, ForexIngestService.class})
+class ForexRollupServiceTests {
+
+    @Autowired
+    private ForexIngestService forexIngestService;
+
+    @Autowired
+    private CurrencyPairRepository currencyPairRepository;
+
+    @Autowired
+    private WeeklyExchangeRateRepository weeklyExchangeRateRepository;
+
+    @Autowired
+    private MonthlyExchangeRateRepository monthlyExchangeRateRepository;
+
+    private CurrencyPair pair;
+
+    @BeforeEach
+    void createPair() {
+        pair = currencyPairRepository.saveAndFlush(new CurrencyPair("GBP", "INR"));
+    }
+
+    @Test
+    void aWeekSpanningTwoMonthsIsOneWeekAndPartOfBoth() {
+        // Monday 29 January to Friday 2 February 2024
+        ingest(
+            day(2024, 1, 29, 100, 105, 99, 101),
+            day(2024, 1, 30, 101, 103, 100, 102),
+            day(2024, 1, 31, 102, 110, 101, 109),
+            day(2024, 2, 1, 109, 111, 95, 96),
+            day(2024, 2, 2, 96, 98, 94, 97));
+
+        assertThat(weekly()).containsExactly(bar(2024, 1, 29, 100, 111, 94, 97));
+        assertThat(monthly()).containsExactly(
+            bar(2024, 1, 1, 100, 110, 99, 109),
+            bar(2024, 2, 1, 109, 111, 94, 97));
+    }
+
+    @Test
+    void weeksStartOnMondayAcrossTheYearEnd() {
+        // Sunday 29 December 2024, then Monday 30 December to Thursday 2 January 2025
+        ingest(
+            day(2024, 12, 29, 90, 91, 89, 90),
+            day(2024, 12, 30, 100, 101, 99, 100),
+            day(2024, 12, 31, 100, 102, 98, 101),
+            day(2025, 1, 2, 101, 104, 100, 103));
+
+        assertThat(weekly()).containsExactly(
+            bar(2024, 12, 23, 90, 91, 89, 90),
+            bar(2024, 12, 30, 100, 104, 98, 103));
+        assertThat(monthly()).containsExactly(
+            bar(2024, 12, 1, 90, 102, 89, 101),
+            bar(2025, 1, 1, 101, 104, 100, 103));
+    }
+
+    @Test
+    void laterDaysRebuildTheirBucketsFromEveryStoredDay() {
+        ingest(
+            day(2024, 3, 4, 100, 102, 99, 101),
+            day(2024, 3, 5, 101, 103, 100, 102));
+        // only Wednesday arrives, but the week still opens on Monday
+        ingest(day(2024, 3, 6, 102, 120, 90, 110));
+
+        assertThat(weekly()).containsExactly(bar(2024, 3, 4, 100, 120, 90, 110));
+        assertThat(monthly()).containsExactly(bar(2024, 3, 1, 100, 120, 90, 110));
+    }
+
+    @Test
+    void missingPricesAreSkippedWithinABucket() {
+        ingest(
+            day(2024, 4, 1, Prices.MISSING, Prices.MISSING, Prices.MISSING, Prices.MISSING),
+            day(2024, 4, 2, 100, 104, 98, 103),
+            day(2024, 4, 3, 103, 105, 101, Prices.MISSING));
+
+        assertThat(weekly()).containsExactly(bar(2024, 4, 1, 100, 105, 98, 103));
+    }
+
+    private void ingest(ExchangeRate... days) {
+        forexIngestService.saveDaily(List.of(days));
+    }
+
+    private ExchangeRate day(int year, int month, int dayOfMonth, long open, long high, long low, long close) {
+        return new ExchangeRate(null, pair, LocalDate.of(year, month, dayOfMonth),
+            micros(open), micros(high), micros(low), micros(close));
+    }
+
+    private List<PricePoint> weekly() {
+        return weeklyExchangeRateRepository.findAllPricePoints(pair.getId());
+    }
+
+    private List<PricePoint> monthly() {
+        return monthlyExchangeRateRepository.findAllPricePoints(pair.getId());
+    }
+
+    private static PricePoint bar(int year, int month, int dayOfMonth, long open, long high, long low, long close) {
+        return new PricePoint(LocalDate.of(year, month, dayOfMonth), micros(open), micros(high), micros(low), micros(close));
+    }
+
+    private static long micros(long price) {
+        return Prices.isMissing(price) ? price : price * Prices.ONE;
+    }
+}
@@ -0,0 +1,133 @@
+package com.vance.backend.services;
+
+import com.vance.backend.dto.ForexDataResponse;
+import com.vance.backend.dto.PairDerivation.Method;
+import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.models.ExchangeRate;
+import com.vance.backend.models.MonthlyExchangeRate;
+import com.vance.backend.models.Prices;
+import com.vance.backend.models.WeeklyExchangeRate;
+import com.vance.backend.repos.ExchangeRateRepository;
+import com.vance.backend.repos.MonthlyExchangeRateRepository;
+import com.vance.backend.repos.WeeklyExchangeRateRepository;
+import com.vance.backend.services.cache.ForexDataVersions;
+import com.vance.backend.services.timeseries.ForexSeriesStore;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * The batch endpoint's database path, taken before the series store has
+ * loaded (the store is a mock that never reports loaded). The registry
+ * would otherwise keep ids of pairs rolled back after each test.
+ */
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ForexService.class, CurrencyPairRegistry.class, CrossRateService.class, ForexDataVersions.class})
+class ForexServiceBatchTests {
+
+    private static final List<String> STORED = List.of("GBP-INR", "AED-INR", "USD-INR");
+
+    @MockBean
+    private ForexSeriesStore seriesStore;
+
+    @Autowired
+    private ForexService forexService;
+
+    @Autowired
+    private CurrencyPairRegistry registry;
+
+    @Autowired
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Autowired
+    private WeeklyExchangeRateRepository weeklyExchangeRateRepository;
+
+    @Autowired
+    private MonthlyExchangeRateRepository monthlyExchangeRateRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void storeRates() {
+        LocalDate today = LocalDate.now();
+        for (int p = 0; p < STORED.size(); p++) {
+            String[] codes = STORED.get(p).split("-");
+            CurrencyPair pair = registry.getOrCreate(codes[0], codes[1]);
+            long base = (p + 1) * 10 * Prices.ONE;
+            List<ExchangeRate> daily = new ArrayList<>();
+            for (int day = 30; day >= 1; day--) {
+                long close = base + day * Prices.ONE / 100;
+                daily.add(new ExchangeRate(null, pair, today.minusDays(day), close, close, close, close));
+            }
+            exchangeRateRepository.saveAll(daily);
+            weeklyExchangeRateRepository.save(new WeeklyExchangeRate(null, pair, today.minusWeeks(1), base, base, base, base));
+            monthlyExchangeRateRepository.save(new MonthlyExchangeRate(null, pair, today.minusMonths(1), base, base, base, base));
+        }
+        exchangeRateRepository.flush();
+    }
+
+    @Test
+    void readsEachResolutionForAllStoredPairsInOneQuery() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ForexDataResponse> responses = forexService.getForexDataBatch(STORED, "1Y", null);
+
+        // daily, weekly and monthly, however many pairs are asked for
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(responses).extracting(ForexDataResponse::getFromCurrency).containsExactly("GBP", "AED", "USD");
+        assertThat(responses).allSatisfy(response -> {
+            assertThat(response.getTimeSeriesData().getDailyData()).hasSize(30);
+            assertThat(response.getTimeSeriesData().getWeeklyData()).hasSize(1);
+            assertThat(response.getTimeSeriesData().getMonthlyData()).hasSize(1);
+        });
+        assertThat(responses.get(1).getAggregates().getMaximumPrice()).isEqualTo(20 * Prices.ONE + 30 * Prices.ONE / 100);
+        assertThat(responses.get(1).getAggregates().getMinimumPrice()).isEqualTo(20 * Prices.ONE + Prices.ONE / 100);
+    }
+
+    @Test
+    void servesStoredAndDerivedPairsInRequestOrder() {
+        List<ForexDataResponse> responses = forexService.getForexDataBatch(
+            List.of("INR-GBP", "USD-INR", "GBP-AED"), "1M", 10);
+
+        assertThat(responses).extracting(ForexDataResponse::getFromCurrency, ForexDataResponse::getToCurrency)
+            .containsExactly(
+                tuple("INR", "GBP"),
+                tuple("USD", "INR"),
+                tuple("GBP", "AED"));
+        assertThat(responses.get(0).getDerivation().getMethod()).isEqualTo(Method.INVERSE);
+        assertThat(responses.get(1).getDerivation()).isNull();
+        assertThat(responses.get(2).getDerivation().getMethod()).isEqualTo(Method.CROSS);
+        assertThat(responses).allSatisfy(response ->
+            assertThat(response.getTimeSeriesData().getDailyData()).hasSizeLessThanOrEqualTo(10).isNotEmpty());
+    }
+
+    @Test
+    void oneUnknownPairRejectsTheWholeBatch() {
+        assertThatThrownBy(() -> forexService.getForexDataBatch(List.of("GBP-INR", "XXX-YYY"), "1Y", null))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("XXX-YYY");
+        assertThatThrownBy(() -> forexService.getForexDataBatch(List.of("GBPINR"), "1Y", null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> forexService.getForexDataBatch(List.of(), "1Y", null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,140 @@
+package com.vance.backend.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vance.backend.dto.ForexDataResponse;
+import com.vance.backend.dto.PairDerivation.Method;
+import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.services.CrossRateService.CrossRate;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
+import com.vance.backend.services.timeseries.Downsampler;
+import com.vance.backend.services.timeseries.ForexSeriesStore;
+import com.vance.backend.services.timeseries.PriceSeries;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ForexServiceTests {
+
+    private static final CurrencyPair GBP_INR = new CurrencyPair(1L, "GBP", "INR", new HashSet<>());
+    private static final CurrencyPair AED_INR = new CurrencyPair(2L, "AED", "INR", new HashSet<>());
+
+    @Mock
+    private CurrencyPairRegistry currencyPairRegistry;
+
+    @Mock
+    private ForexSeriesStore seriesStore;
+
+    @Mock
+    private CrossRateService crossRateService;
+
+    @InjectMocks
+    private ForexService forexService;
+
+    @Test
+    void marksDerivedPairsAndWhetherHighAndLowAreBounds() throws Exception {
+        CrossRate gbpAed = new CrossRate("GBP", "AED", Method.CROSS, GBP_INR, AED_INR);
+        when(currencyPairRegistry.find("GBP", "AED")).thenReturn(Optional.empty());
+        when(crossRateService.find("GBP", "AED")).thenReturn(Optional.of(gbpAed));
+        when(crossRateService.series(any(), any())).thenReturn(recentSeries(4_800_000L));
+
+        ForexDataResponse response = forexService.getForexData("GBP", "AED", "1M");
+
+        assertThat(response.getDerivation().getMethod()).isEqualTo(Method.CROSS);
+        assertThat(response.getDerivation().getLegs()).containsExactly("GBP-INR", "AED-INR");
+        assertThat(response.getDerivation().isHighLowBounds()).isTrue();
+        assertThat(response.getAggregates().getMaximumPrice()).isEqualTo(4_800_000L);
+        assertThat(json(response)).contains("\"derivation\":{", "\"method\":\"CROSS\"", "\"highLowBounds\":true");
+    }
+
+    @Test
+    void inversesAreExact() {
+        CrossRate inrGbp = new CrossRate("INR", "GBP", Method.INVERSE, GBP_INR, null);
+        when(currencyPairRegistry.find("INR", "GBP")).thenReturn(Optional.empty());
+        when(crossRateService.find("INR", "GBP")).thenReturn(Optional.of(inrGbp));
+        when(crossRateService.series(any(), any())).thenReturn(recentSeries(9_247L));
+
+        ForexDataResponse response = forexService.getForexData("INR", "GBP", "1M");
+
+        assertThat(response.getDerivation().getMethod()).isEqualTo(Method.INVERSE);
+        assertThat(response.getDerivation().getLegs()).containsExactly("GBP-INR");
+        assertThat(response.getDerivation().isHighLowBounds()).isFalse();
+    }
+
+    @Test
+    void storedPairsCarryNoDerivation() throws Exception {
+        when(currencyPairRegistry.find("GBP", "INR")).thenReturn(Optional.of(GBP_INR));
+        when(seriesStore.isLoaded()).thenReturn(true);
+        when(seriesStore.get(anyLong(), any(Frequency.class))).thenReturn(recentSeries(108_142_900L));
+
+        ForexDataResponse response = forexService.getForexData("GBP", "INR", "1M");
+
+        assertThat(response.getDerivation()).isNull();
+        assertThat(response.getTimeSeriesData().getDailyData()).hasSize(1);
+        assertThat(json(response)).doesNotContain("derivation");
+    }
+
+    @Test
+    void validatesCurrenciesAndPeriods() {
+        forexService.validateInputs("GBP", "INR", "1D");
+        forexService.validateInputs("GBP", "INR", "20Y");
+        forexService.validateInputs("GBP", "INR", "104W");
+
+        assertThatThrownBy(() -> forexService.validateInputs(null, "INR", "1M"))
+            .isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid from currency");
+        assertThatThrownBy(() -> forexService.validateInputs("GBPX", "INR", "1M"))
+            .isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid from currency");
+        assertThatThrownBy(() -> forexService.validateInputs("GBP", "IN", "1M"))
+            .isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid to currency");
+        for (String period : new String[] {null, "", "M", "0M", "01M", "1m", "1H", "-1Y", "1 Y"}) {
+            assertThatThrownBy(() -> forexService.validateInputs("GBP", "INR", period))
+                .as(String.valueOf(period))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid period");
+        }
+    }
+
+    @Test
+    void startDatesFollowTheCalendar() {
+        LocalDate endDate = LocalDate.of(2024, 3, 31);
+
+        assertThat(forexService.calculateStartDate(endDate, "7D")).isEqualTo(LocalDate.of(2024, 3, 24));
+        assertThat(forexService.calculateStartDate(endDate, "2W")).isEqualTo(LocalDate.of(2024, 3, 17));
+        // month and year steps clamp to the end of shorter months
+        assertThat(forexService.calculateStartDate(endDate, "1M")).isEqualTo(LocalDate.of(2024, 2, 29));
+        assertThat(forexService.calculateStartDate(endDate, "13M")).isEqualTo(LocalDate.of(2023, 2, 28));
+        assertThat(forexService.calculateStartDate(LocalDate.of(2024, 2, 29), "1Y")).isEqualTo(LocalDate.of(2023, 2, 28));
+        assertThat(forexService.calculateStartDate(endDate, "20Y")).isEqualTo(LocalDate.of(2004, 3, 31));
+    }
+
+    @Test
+    void resolveRejectsSmallMaxPointsAndUnknownPairs() {
+        assertThatThrownBy(() -> forexService.resolve("GBP", "INR", "1M", Downsampler.MIN_POINTS - 1))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        when(currencyPairRegistry.find("GBP", "XYZ")).thenReturn(Optional.empty());
+        when(crossRateService.find("GBP", "XYZ")).thenReturn(Optional.empty());
+        assertThatThrownBy(() -> forexService.resolve("GBP", "XYZ", "1M", null))
+            .isInstanceOf(IllegalArgumentException.class).hasMessage("Currency pair not found");
+    }
+
+    private static PriceSeries recentSeries(long close) {
+        return PriceSeries.builder(1).add(LocalDate.now().minusDays(3), close, close, close, close).build();
+    }
+
+    private static String json(ForexDataResponse response) throws Exception {
+        return new ObjectMapper().findAndRegisterModules().writeValueAsString(response);
+    }
+}
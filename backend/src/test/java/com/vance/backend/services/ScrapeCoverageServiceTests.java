@@ -0,0 +1,95 @@
+package com.vance.backend.services;
+
+import com.vance.backend.models.ScrapeCoverage;
+import com.vance.backend.repos.ScrapeCoverageRepository;
+import com.vance.backend.services.ScrapeCoverageService.DateRange;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@Import(ScrapeCoverageService.class)
+class ScrapeCoverageServiceTests {
+
+    private static final Long PAIR = 7L;
+
+    @Autowired
+    private ScrapeCoverageService coverageService;
+
+    @Autowired
+    private ScrapeCoverageRepository coverageRepository;
+
+    @Test
+    void anUncoveredPairIsOneGap() {
+        assertThat(coverageService.gaps(PAIR, Frequency.DAILY, day(1), day(31)))
+            .containsExactly(new DateRange(day(1), day(31)));
+        assertThat(coverageService.gaps(PAIR, Frequency.DAILY, day(5), day(4))).isEmpty();
+    }
+
+    @Test
+    void gapsAreTheHolesBetweenRecordedRanges() {
+        coverageService.record(PAIR, Frequency.DAILY, day(5), day(9));
+        coverageService.record(PAIR, Frequency.DAILY, day(15), day(20));
+
+        assertThat(coverageService.gaps(PAIR, Frequency.DAILY, day(1), day(31))).containsExactly(
+            new DateRange(day(1), day(4)),
+            new DateRange(day(10), day(14)),
+            new DateRange(day(21), day(31)));
+        assertThat(coverageService.gaps(PAIR, Frequency.DAILY, day(6), day(8))).isEmpty();
+        assertThat(coverageService.gaps(PAIR, Frequency.DAILY, day(7), day(16)))
+            .containsExactly(new DateRange(day(10), day(14)));
+        // other frequencies are tracked separately
+        assertThat(coverageService.gaps(PAIR, Frequency.WEEKLY, day(6), day(8)))
+            .containsExactly(new DateRange(day(6), day(8)));
+    }
+
+    @Test
+    void touchingAndOverlappingRangesAreMerged() {
+        coverageService.record(PAIR, Frequency.DAILY, day(1), day(5));
+        coverageService.record(PAIR, Frequency.DAILY, day(10), day(15));
+        coverageService.record(PAIR, Frequency.DAILY, day(6), day(9));
+        coverageService.record(PAIR, Frequency.DAILY, day(14), day(18));
+
+        assertThat(coverageService.gaps(PAIR, Frequency.DAILY, day(1), day(20)))
+            .containsExactly(new DateRange(day(19), day(20)));
+        assertThat(stored()).extracting(ScrapeCoverage::getStartDate, ScrapeCoverage::getEndDate)
+            .containsExactly(tuple(day(1), day(18)));
+    }
+
+    @Test
+    void recordingOnlyRewritesTheRangesItMerges() {
+        coverageService.record(PAIR, Frequency.DAILY, day(1), day(5));
+        coverageService.record(PAIR, Frequency.DAILY, day(10), day(15));
+        coverageService.record(PAIR, Frequency.DAILY, day(25), day(28));
+        Long untouched = stored().get(2).getId();
+
+        coverageService.record(PAIR, Frequency.DAILY, day(6), day(9));
+        coverageService.record(PAIR, Frequency.DAILY, day(2), day(3));
+
+        List<ScrapeCoverage> rows = stored();
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).getStartDate()).isEqualTo(day(1));
+        assertThat(rows.get(0).getEndDate()).isEqualTo(day(15));
+        assertThat(rows.get(1).getId()).isEqualTo(untouched);
+    }
+
+    private List<ScrapeCoverage> stored() {
+        return coverageRepository.findAll().stream()
+            .filter(row -> row.getCurrencyPairId().equals(PAIR))
+            .sorted(Comparator.comparing(ScrapeCoverage::getStartDate))
+            .toList();
+    }
+
+    private static LocalDate day(int dayOfMonth) {
+        return LocalDate.of(2024, 3, dayOfMonth);
+    }
+}
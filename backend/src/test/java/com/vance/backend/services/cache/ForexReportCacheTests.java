@@ -0,0 +1,102 @@
+package com.vance.backend.services.cache;
+
+import com.vance.backend.events.ForexDataIngestedEvent;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ForexReportCacheTests {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 6, 30);
+
+    private ForexDataVersions dataVersions;
+    private AtomicInteger renders;
+
+    @BeforeEach
+    void setUp() {
+        dataVersions = new ForexDataVersions();
+        renders = new AtomicInteger();
+    }
+
+    @Test
+    void rendersOncePerDataVersion() {
+        ForexReportCache cache = new ForexReportCache(dataVersions, 10, Duration.ofHours(24), 366);
+
+        byte[] first = cache.get("GBP", "INR", START, END, Frequency.DAILY, renderer());
+        assertThat(cache.get("GBP", "INR", START, END, Frequency.DAILY, renderer())).isSameAs(first);
+        assertThat(renders).hasValue(1);
+
+        // another pair's rows leave this report current
+        ingest("AED", "INR");
+        assertThat(cache.get("GBP", "INR", START, END, Frequency.DAILY, renderer())).isSameAs(first);
+
+        ingest("GBP", "INR");
+        byte[] second = cache.get("GBP", "INR", START, END, Frequency.DAILY, renderer());
+        assertThat(second).isNotSameAs(first);
+        assertThat(cache.get("GBP", "INR", START, END, Frequency.DAILY, renderer())).isSameAs(second);
+        assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void rangesAndFrequenciesAreCachedSeparately() {
+        ForexReportCache cache = new ForexReportCache(dataVersions, 10, Duration.ofHours(24), 366);
+
+        cache.get("GBP", "INR", START, END, Frequency.DAILY, renderer());
+        cache.get("GBP", "INR", START, END, Frequency.WEEKLY, renderer());
+        cache.get("GBP", "INR", START.plusDays(1), END, Frequency.DAILY, renderer());
+
+        assertThat(renders).hasValue(3);
+    }
+
+    @Test
+    void reportsExpireAfterTheMaxAge() throws InterruptedException {
+        ForexReportCache cache = new ForexReportCache(dataVersions, 10, Duration.ofMillis(5), 366);
+
+        cache.get("GBP", "INR", START, END, Frequency.DAILY, renderer());
+        Thread.sleep(20);
+        cache.get("GBP", "INR", START, END, Frequency.DAILY, renderer());
+
+        assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedReport() {
+        ForexReportCache cache = new ForexReportCache(dataVersions, 2, Duration.ofHours(24), 366);
+
+        cache.get("GBP", "INR", START, END, Frequency.DAILY, renderer());
+        cache.get("AED", "INR", START, END, Frequency.DAILY, renderer());
+        cache.get("GBP", "INR", START, END, Frequency.DAILY, renderer());
+        cache.get("USD", "INR", START, END, Frequency.DAILY, renderer());
+        assertThat(renders).hasValue(3);
+
+        cache.get("GBP", "INR", START, END, Frequency.DAILY, renderer());
+        assertThat(renders).hasValue(3);
+        cache.get("AED", "INR", START, END, Frequency.DAILY, renderer());
+        assertThat(renders).hasValue(4);
+    }
+
+    @Test
+    void onlyRangesUpToTheLimitAreCacheable() {
+        ForexReportCache cache = new ForexReportCache(dataVersions, 10, Duration.ofHours(24), 366);
+
+        assertThat(cache.isCacheable(START, START.plusDays(366))).isTrue();
+        assertThat(cache.isCacheable(START, START.plusDays(367))).isFalse();
+    }
+
+    private Supplier<byte[]> renderer() {
+        return () -> new byte[] {(byte) renders.incrementAndGet()};
+    }
+
+    private void ingest(String fromCurrency, String toCurrency) {
+        dataVersions.onIngest(new ForexDataIngestedEvent(1L, fromCurrency, toCurrency, Frequency.DAILY, START, END, 1));
+    }
+}
@@ -0,0 +1,72 @@
+package com.vance.backend.services.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RawPageCacheTests {
+
+    private static final String URL = "https://finance.yahoo.com/quote/GBPINR%3DX/history/?period1=1727740800&period2=1730419200&frequency=1d";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void keysHistoryPagesByQuotePeriodAndFrequency() {
+        RawPageCache.Key key = RawPageCache.Key.fromUrl(URL).orElseThrow();
+
+        assertThat(key).isEqualTo(new RawPageCache.Key("GBPINR%3DX", 1727740800L, 1730419200L, "1d"));
+        assertThat(RawPageCache.Key.fromUrl("https://finance.yahoo.com/quote/GBPINR%3DX/")).isEmpty();
+    }
+
+    @Test
+    void storesPagesCompressedAndReloadsThemOnRestart() throws Exception {
+        RawPageCache.Key key = RawPageCache.Key.fromUrl(URL).orElseThrow();
+        String body = "<table><tr><th>Date</th></tr></table>".repeat(200);
+
+        new RawPageCache(true, directory, DataSize.ofMegabytes(1)).put(key, body);
+        RawPageCache reopened = new RawPageCache(true, directory, DataSize.ofMegabytes(1));
+
+        assertThat(reopened.get(key)).contains(body);
+        assertThat(reopened.sizeBytes()).isLessThan(body.length() / 10);
+        try (var files = Files.list(directory)) {
+            assertThat(files).hasSize(1);
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedPagesBeyondTheSizeCap() {
+        RawPageCache cache = new RawPageCache(true, directory, DataSize.ofKilobytes(20));
+        RawPageCache.Key first = key(1);
+        RawPageCache.Key second = key(2);
+        RawPageCache.Key third = key(3);
+
+        cache.put(first, incompressible(10_000));
+        cache.put(second, incompressible(10_000));
+        cache.get(first);
+        cache.put(third, incompressible(10_000));
+
+        assertThat(cache.keys()).containsExactly(first, third);
+        assertThat(cache.get(second)).isEmpty();
+        assertThat(cache.sizeBytes()).isLessThanOrEqualTo(20 * 1024);
+    }
+
+    private static RawPageCache.Key key(long period) {
+        return new RawPageCache.Key("GBPINR%3DX", period, period + 1, "1d");
+    }
+
+    private static String incompressible(int length) {
+        Random random = new Random(length);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('!' + random.nextInt(90)));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,50 @@
+package com.vance.backend.services.metrics;
+
+import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.repos.CurrencyPairRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// registered the way MetricsConfig does, as Hibernate's statement inspector
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.vance.backend.services.metrics.StatementCounter")
+class StatementCounterTests {
+
+    @Autowired
+    private CurrencyPairRepository currencyPairRepository;
+
+    @AfterEach
+    void stopCounting() {
+        StatementCounter.stop();
+    }
+
+    @Test
+    void countsStatementsHibernateRunsOnThisThread() {
+        currencyPairRepository.saveAndFlush(new CurrencyPair("GBP", "INR"));
+
+        StatementCounter.start();
+        currencyPairRepository.findAll();
+        currencyPairRepository.count();
+        currencyPairRepository.findAll();
+
+        assertThat(StatementCounter.stop()).isEqualTo(3);
+    }
+
+    @Test
+    void ignoresOtherThreadsAndUnstartedCounts() {
+        assertThat(StatementCounter.stop()).isEqualTo(-1);
+
+        StatementCounter.start();
+        CompletableFuture.runAsync(() -> currencyPairRepository.count()).join();
+        assertThat(StatementCounter.stop()).isZero();
+
+        currencyPairRepository.count();
+        assertThat(StatementCounter.stop()).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,124 @@
+package com.vance.backend.services.scrappers;
+
+import com.vance.backend.dto.FetchedPage;
+import com.vance.backend.services.cache.RawPageCache;
+import com.vance.backend.services.scrappers.impl.CachingPageFetcher;
+import com.vance.backend.services.scrappers.impl.HttpClientPageFetcher;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingPageFetcherTests {
+
+    private static final String CLOSED = "https://finance.yahoo.com/quote/GBPINR%3DX/history/?period1=1727740800&period2=1730419200&frequency=1d";
+    private static final String OPEN = "https://finance.yahoo.com/quote/GBPINR%3DX/history/?period1=1727740800&period2=32503680000&frequency=1d";
+
+    @TempDir
+    Path directory;
+
+    private HttpClientPageFetcher delegate;
+    private RawPageCache cache;
+    private SimpleMeterRegistry meterRegistry;
+    private CachingPageFetcher fetcher;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(HttpClientPageFetcher.class);
+        cache = new RawPageCache(true, directory, DataSize.ofMegabytes(1));
+        meterRegistry = new SimpleMeterRegistry();
+        fetcher = new CachingPageFetcher(delegate, cache, meterRegistry);
+    }
+
+    @Test
+    void servesClosedWindowsFromTheCache() {
+        when(delegate.fetch(CLOSED)).thenReturn(page(CLOSED, history()));
+
+        fetcher.fetch(CLOSED);
+        FetchedPage second = fetcher.fetch(CLOSED);
+
+        verify(delegate, times(1)).fetch(CLOSED);
+        assertThat(second.getBody()).isEqualTo(history());
+        assertThat(counter("hit")).isEqualTo(1);
+        assertThat(counter("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void alwaysFetchesWindowsThatAreStillOpenButKeepsThem() {
+        when(delegate.fetchAsync(OPEN)).thenReturn(CompletableFuture.completedFuture(page(OPEN, history())));
+
+        fetcher.fetchAsync(OPEN).join();
+        fetcher.fetchAsync(OPEN).join();
+
+        verify(delegate, times(2)).fetchAsync(OPEN);
+        assertThat(cache.keys()).containsExactly(RawPageCache.Key.fromUrl(OPEN).orElseThrow());
+    }
+
+    @Test
+    void neverKeepsPagesWithoutAHistoryTable() {
+        when(delegate.fetch(CLOSED)).thenReturn(page(CLOSED, consent()), page(CLOSED, history()));
+
+        assertThat(fetcher.fetch(CLOSED).getBody()).isEqualTo(consent());
+        assertThat(cache.keys()).isEmpty();
+
+        assertThat(fetcher.fetch(CLOSED).getBody()).isEqualTo(history());
+        verify(delegate, times(2)).fetch(CLOSED);
+        assertThat(cache.get(RawPageCache.Key.fromUrl(CLOSED).orElseThrow())).contains(history());
+    }
+
+    @Test
+    void ignoresCachedPagesWithoutAHistoryTable() {
+        // written by an earlier version that kept every 2xx body
+        cache.put(RawPageCache.Key.fromUrl(CLOSED).orElseThrow(), consent());
+        when(delegate.fetch(CLOSED)).thenReturn(page(CLOSED, history()));
+
+        assertThat(fetcher.fetch(CLOSED).getBody()).isEqualTo(history());
+        assertThat(counter("miss")).isEqualTo(1);
+        assertThat(counter("hit")).isZero();
+        assertThat(fetcher.fetch(CLOSED).getBody()).isEqualTo(history());
+        verify(delegate, times(1)).fetch(CLOSED);
+    }
+
+    @Test
+    void passesOtherUrlsThrough() {
+        String quote = "https://finance.yahoo.com/quote/GBPINR%3DX/";
+        when(delegate.fetch(quote)).thenReturn(page(quote, history()));
+
+        fetcher.fetch(quote);
+        fetcher.fetch(quote);
+
+        verify(delegate, times(2)).fetch(anyString());
+        verify(delegate, never()).fetchAsync(anyString());
+        assertThat(cache.keys()).isEmpty();
+    }
+
+    private double counter(String result) {
+        return meterRegistry.counter("scraper.page.cache", "result", result).count();
+    }
+
+    private static FetchedPage page(String url, String body) {
+        return new FetchedPage(url, 200, body, 5);
+    }
+
+    static String history() {
+        return new String(FixtureServer.resource("yahoo/gbpinr-daily.html"), StandardCharsets.UTF_8);
+    }
+
+    static String consent() {
+        return new String(FixtureServer.resource("yahoo/consent.html"), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,102 @@
+package com.vance.backend.services.scrappers;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local stand-in for Yahoo Finance serving recorded pages from
+ * {@code src/test/resources/fixtures}. Pages are gzipped when the client
+ * accepts it, and the client ports seen are recorded so tests can tell
+ * whether connections were reused.
+ */
+public class FixtureServer implements AutoCloseable {
+
+    private record Fixture(int status, String resource, Map<String, String> headers) {
+    }
+
+    private final HttpServer server;
+    private final Map<String, Fixture> fixtures = new ConcurrentHashMap<>();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    public FixtureServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /** Serves {@code resource} for every request whose path and query start with {@code prefix}. */
+    public FixtureServer page(String prefix, String resource) {
+        fixtures.put(prefix, new Fixture(200, resource, Map.of("Content-Type", "text/html; charset=utf-8")));
+        return this;
+    }
+
+    public FixtureServer status(String prefix, int status, Map<String, String> headers) {
+        fixtures.put(prefix, new Fixture(status, null, headers));
+        return this;
+    }
+
+    public int connectionsSeen() {
+        return clientPorts.size();
+    }
+
+    public static byte[] resource(String resource) {
+        try (InputStream in = FixtureServer.class.getResourceAsStream("/fixtures/" + resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Missing fixture " + resource);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        String target = exchange.getRequestURI().toString();
+        Fixture fixture = fixtures.entrySet().stream()
+            .filter(entry -> target.startsWith(entry.getKey()))
+            .map(Map.Entry::getValue)
+            .findFirst()
+            .orElse(new Fixture(404, null, Map.of()));
+
+        fixture.headers().forEach((name, value) -> exchange.getResponseHeaders().add(name, value));
+        byte[] body = fixture.resource() == null ? new byte[0] : resource(fixture.resource());
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (body.length > 0 && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            body = gzip(body);
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(fixture.status(), body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
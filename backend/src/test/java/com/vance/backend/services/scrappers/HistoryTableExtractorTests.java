@@ -0,0 +1,101 @@
+package com.vance.backend.services.scrappers;
+
+import com.vance.backend.models.Prices;
+import com.vance.backend.services.scrappers.impl.HistoryTableExtractor;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HistoryTableExtractorTests {
+
+    private record Row(LocalDate date, long open, long high, long low, long close) {
+    }
+
+    private static String fixture() {
+        return new String(FixtureServer.resource("yahoo/gbpinr-daily.html"), StandardCharsets.UTF_8);
+    }
+
+    private static List<Row> extract(String html) {
+        List<Row> rows = new ArrayList<>();
+        int count = HistoryTableExtractor.extract(html, (date, open, high, low, close) ->
+            rows.add(new Row(date, open, high, low, close)));
+        assertThat(count).isEqualTo(rows.size());
+        return rows;
+    }
+
+    @Test
+    void extractsEveryRowOfTheHistoryTable() {
+        List<Row> rows = extract(fixture());
+
+        assertThat(rows).hasSize(60);
+        assertThat(rows.get(0)).isEqualTo(new Row(LocalDate.of(2024, 10, 25), 108_200_000L, 108_367_900L, 107_865_600L, 108_142_900L));
+        assertThat(rows).extracting(Row::date).doesNotHaveDuplicates().isSortedAccordingTo((a, b) -> b.compareTo(a));
+    }
+
+    @Test
+    void reportsMissingPricesAsMissing() {
+        Row missing = extract(fixture()).stream()
+            .filter(row -> row.date().equals(LocalDate.of(2024, 10, 2)))
+            .findFirst()
+            .orElseThrow();
+
+        assertThat(missing.open()).isEqualTo(Prices.MISSING);
+        assertThat(missing.close()).isEqualTo(Prices.MISSING);
+    }
+
+    @Test
+    void findsTheTableByItsHeaderWhenClassNamesChange() {
+        String renamed = fixture().replace("yf-h2urb6", "yf-9zz9zz");
+
+        assertThat(extract(renamed)).hasSize(60);
+    }
+
+    @Test
+    void reportsBodyRowsThatAreNotPrices() {
+        String html = "<table><tr><th>Date</th><th>Open</th><th>High</th><th>Low</th><th>Close</th></tr>"
+            + "<tr><td>Oct 25, 2024</td><td>1</td><td>1</td><td>1</td><td>1</td><td>1</td><td>-</td></tr>"
+            + "<tr><td>Oct 24, 2024</td><td colspan=\"6\">0.25 Dividend</td></tr></table>";
+        int[] rejected = {0};
+
+        int rows = HistoryTableExtractor.extract(html, new HistoryTableExtractor.RowHandler() {
+            @Override
+            public void row(LocalDate date, long open, long high, long low, long close) {
+            }
+
+            @Override
+            public void rejected() {
+                rejected[0]++;
+            }
+        });
+
+        assertThat(rows).isEqualTo(1);
+        assertThat(rejected[0]).isEqualTo(1);
+    }
+
+    @Test
+    void reportsPagesWithoutAHistoryTable() {
+        String html = "<script>var t = '<table><tr><th>Date</th></tr>';</script>"
+            + "<table><tr><th>Previous Close</th><th>Open</th></tr>"
+            + "<tr><td>Oct 25, 2024</td><td>1</td><td>1</td><td>1</td><td>1</td><td>1</td><td>-</td></tr></table>";
+
+        assertThat(HistoryTableExtractor.extract(html, (date, open, high, low, close) -> { }))
+            .isEqualTo(HistoryTableExtractor.NO_TABLE);
+        assertThat(HistoryTableExtractor.hasHistoryTable(html)).isFalse();
+        assertThat(HistoryTableExtractor.hasHistoryTable("<html><form action=\"/consent\"></form></html>")).isFalse();
+    }
+
+    @Test
+    void aHistoryTableWithoutRowsIsStillATable() {
+        String html = "<table><tr><th>Date</th><th>Open</th><th>High</th><th>Low</th><th>Close</th></tr></table>";
+
+        assertThat(extract(html)).isEmpty();
+        assertThat(HistoryTableExtractor.hasHistoryTable(html)).isTrue();
+        assertThat(HistoryTableExtractor.hasHistoryTable(fixture())).isTrue();
+    }
+}
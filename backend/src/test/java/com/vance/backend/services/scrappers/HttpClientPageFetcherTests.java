@@ -0,0 +1,75 @@
+package com.vance.backend.services.scrappers;
+
+import com.vance.backend.dto.FetchedPage;
+import com.vance.backend.services.scrappers.impl.HttpClientPageFetcher;
+import com.vance.backend.services.scrappers.interfaces.FetchException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class HttpClientPageFetcherTests {
+
+    private static final String HISTORY = "/quote/GBPINR%3DX/history/";
+
+    private FixtureServer server;
+    private HttpClientPageFetcher fetcher;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new FixtureServer()
+            .page(HISTORY, "yahoo/gbpinr-daily.html")
+            .status("/quote/THROTTLED", 429, Map.of("Retry-After", "7"));
+        fetcher = new HttpClientPageFetcher(Duration.ofSeconds(2), Duration.ofSeconds(5), ScrapeRateControllerTests.controller(10, 4));
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void decodesGzippedPages() {
+        FetchedPage page = fetcher.fetch(server.baseUrl() + HISTORY + "?period1=1&period2=2&frequency=1d");
+
+        assertThat(page.getStatusCode()).isEqualTo(200);
+        assertThat(page.getBody()).isEqualTo(
+            new String(FixtureServer.resource("yahoo/gbpinr-daily.html"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void repeatedFetchesReuseTheConnection() {
+        for (int i = 0; i < 5; i++) {
+            fetcher.fetch(server.baseUrl() + HISTORY + "?period1=" + i);
+        }
+        assertThat(server.connectionsSeen()).isEqualTo(1);
+    }
+
+    @Test
+    void asyncFetchesComplete() {
+        List<CompletableFuture<FetchedPage>> pages = IntStream.range(0, 4)
+            .mapToObj(i -> fetcher.fetchAsync(server.baseUrl() + HISTORY + "?period1=" + i))
+            .toList();
+
+        assertThat(pages).allSatisfy(page -> assertThat(page.join().getBody()).contains("GBPINR=X"));
+    }
+
+    @Test
+    void throttlingSurfacesStatusAndRetryAfter() {
+        FetchException e = catchThrowableOfType(
+            () -> fetcher.fetch(server.baseUrl() + "/quote/THROTTLED/history/"), FetchException.class);
+
+        assertThat(e.getStatusCode()).isEqualTo(429);
+        assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(7));
+    }
+}
@@ -0,0 +1,140 @@
+package com.vance.backend.services.scrappers;
+
+import com.vance.backend.dto.ReplayResult;
+import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.models.ExchangeRate;
+import com.vance.backend.services.CurrencyPairRegistry;
+import com.vance.backend.services.ForexIngestService;
+import com.vance.backend.services.ScrapeCoverageService;
+import com.vance.backend.services.cache.RawPageCache;
+import com.vance.backend.services.scrappers.impl.PageCacheReplayService;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PageCacheReplayServiceTests {
+
+    private static final String QUOTE = "GBPINR%3DX";
+    // 2024-10-01 to 2024-11-01 and 2024-09-01 to 2024-10-01
+    private static final RawPageCache.Key OCTOBER = new RawPageCache.Key(QUOTE, 1727740800L, 1730419200L, "1d");
+    private static final RawPageCache.Key SEPTEMBER = new RawPageCache.Key(QUOTE, 1725148800L, 1727740800L, "1d");
+
+    @TempDir
+    Path directory;
+
+    private RawPageCache cache;
+    private ForexIngestService ingestService;
+    private ScrapeCoverageService coverageService;
+    private PageCacheReplayService replayService;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RawPageCache(true, directory, DataSize.ofMegabytes(1));
+        CurrencyPairRegistry registry = mock(CurrencyPairRegistry.class);
+        CurrencyPair gbpInr = new CurrencyPair();
+        gbpInr.setId(7L);
+        gbpInr.setFromCurrency("GBP");
+        gbpInr.setToCurrency("INR");
+        when(registry.getOrCreate("GBP", "INR")).thenReturn(gbpInr);
+        ingestService = mock(ForexIngestService.class);
+        coverageService = mock(ScrapeCoverageService.class);
+        replayService = new PageCacheReplayService(cache, registry, ingestService, coverageService, false);
+    }
+
+    @AfterEach
+    void shutdown() {
+        replayService.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void replaysHistoryPagesAndRecordsTheirWindows() {
+        cache.put(OCTOBER, CachingPageFetcherTests.history());
+
+        ReplayResult result = replayService.replay();
+
+        assertThat(result.getStatus()).isEqualTo(PageCacheReplayService.COMPLETED);
+        assertThat(result.getPages()).isEqualTo(1);
+        assertThat(result.getRows()).isEqualTo(60);
+        assertThat(result.getFinishedAt()).isNotNull();
+        ArgumentCaptor<List<ExchangeRate>> saved = ArgumentCaptor.forClass(List.class);
+        verify(ingestService).saveDaily(saved.capture());
+        assertThat(saved.getValue()).hasSize(60)
+            .allSatisfy(rate -> assertThat(rate.getCurrencyPair().getId()).isEqualTo(7L));
+        verify(coverageService).record(7L, Frequency.DAILY, LocalDate.of(2024, 10, 1), LocalDate.of(2024, 10, 31));
+        assertThat(replayService.latest()).contains(result);
+    }
+
+    @Test
+    void skipsPagesWithoutAHistoryTableAndLeavesTheirWindowsUncovered() {
+        cache.put(OCTOBER, CachingPageFetcherTests.history());
+        cache.put(SEPTEMBER, CachingPageFetcherTests.consent());
+
+        ReplayResult result = replayService.replay();
+
+        assertThat(result.getPages()).isEqualTo(1);
+        assertThat(result.getSkippedPages()).isEqualTo(1);
+        verify(coverageService, times(1)).record(any(), any(), any(), any());
+        verify(coverageService).record(7L, Frequency.DAILY, LocalDate.of(2024, 10, 1), LocalDate.of(2024, 10, 31));
+    }
+
+    @Test
+    void startRunsTheReplayInTheBackground() {
+        cache.put(OCTOBER, CachingPageFetcherTests.history());
+
+        ReplayResult started = replayService.start();
+
+        assertThat(started.getStartedAt()).isNotNull();
+        await().atMost(Duration.ofSeconds(10)).until(() ->
+            replayService.latest().map(ReplayResult::getStatus).orElseThrow().equals(PageCacheReplayService.COMPLETED));
+        ReplayResult finished = replayService.latest().orElseThrow();
+        assertThat(finished.getStartedAt()).isEqualTo(started.getStartedAt());
+        assertThat(finished.getRows()).isEqualTo(60);
+    }
+
+    @Test
+    void reportsAFailedReplay() {
+        cache.put(OCTOBER, CachingPageFetcherTests.history());
+        doThrow(new IllegalStateException("database is gone"))
+            .when(coverageService).record(anyLong(), any(), any(), any());
+
+        replayService.start();
+
+        await().atMost(Duration.ofSeconds(10)).until(() ->
+            replayService.latest().map(ReplayResult::getStatus).orElseThrow().equals(PageCacheReplayService.FAILED));
+        assertThat(replayService.latest().orElseThrow().getError()).isEqualTo("database is gone");
+        assertThat(replayService.latest().orElseThrow().getFinishedAt()).isNotNull();
+    }
+
+    @Test
+    void refusesWhenThePageCacheIsDisabled() {
+        RawPageCache disabled = new RawPageCache(false, directory, DataSize.ofMegabytes(1));
+        PageCacheReplayService service = new PageCacheReplayService(disabled, mock(CurrencyPairRegistry.class),
+            ingestService, coverageService, false);
+
+        assertThatThrownBy(service::start).isInstanceOf(IllegalStateException.class);
+        assertThat(service.latest()).isEmpty();
+        service.shutdown();
+    }
+}
@@ -0,0 +1,93 @@
+package com.vance.backend.services.scrappers;
+
+import com.vance.backend.dto.ScrapeResult;
+import com.vance.backend.services.scrappers.impl.ScrapeExecutor;
+import com.vance.backend.services.scrappers.impl.ScrapeExecutor.ScrapeTask;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScrapeExecutorTests {
+
+    private ScrapeExecutor executor;
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void reportsEveryTaskInOrderWhenSomeFail() {
+        executor = new ScrapeExecutor(4, 4);
+        List<ScrapeTask> tasks = List.of(
+            new ScrapeTask("GBP-INR", "a", () -> { }),
+            new ScrapeTask("AED-INR", "a", () -> {
+                throw new IllegalStateException("No history table");
+            }),
+            new ScrapeTask("USD-INR", "a", () -> { }));
+
+        List<ScrapeResult> results = executor.runAll(tasks);
+
+        assertThat(results).extracting(ScrapeResult::getTask).containsExactly("GBP-INR", "AED-INR", "USD-INR");
+        assertThat(results).extracting(ScrapeResult::isSuccess).containsExactly(true, false, true);
+        assertThat(results.get(1).getError()).isEqualTo("No history table");
+    }
+
+    @Test
+    void runsTasksConcurrently() {
+        executor = new ScrapeExecutor(4, 4);
+        // only passable if all four are running at once
+        CyclicBarrier barrier = new CyclicBarrier(4);
+        List<ScrapeTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(new ScrapeTask("task " + i, "a", () -> {
+                try {
+                    barrier.await(5, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+
+        assertThat(executor.runAll(tasks)).allMatch(ScrapeResult::isSuccess);
+    }
+
+    @Test
+    void capsConcurrentRequestsPerHost() {
+        executor = new ScrapeExecutor(8, 2);
+        AtomicInteger yahoo = new AtomicInteger();
+        AtomicInteger maxYahoo = new AtomicInteger();
+        AtomicInteger other = new AtomicInteger();
+        AtomicInteger maxOther = new AtomicInteger();
+        List<ScrapeTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            tasks.add(new ScrapeTask("yahoo " + i, "finance.yahoo.com", () -> hold(yahoo, maxYahoo)));
+            tasks.add(new ScrapeTask("other " + i, "example.com", () -> hold(other, maxOther)));
+        }
+
+        List<ScrapeResult> results = executor.runAll(tasks);
+
+        assertThat(results).hasSize(12).allMatch(ScrapeResult::isSuccess);
+        assertThat(maxYahoo.get()).isEqualTo(2);
+        assertThat(maxOther.get()).isEqualTo(2);
+    }
+
+    private static void hold(AtomicInteger running, AtomicInteger max) {
+        max.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.vance.backend.services.scrappers;
+
+import com.vance.backend.services.scrappers.impl.ScrapeRateController;
+import com.vance.backend.services.scrappers.impl.ScrapeRateController.Permit;
+import com.vance.backend.services.scrappers.interfaces.FetchException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScrapeRateControllerTests {
+
+    static ScrapeRateController controller(double requestsPerSecond, int concurrency) {
+        return controller(requestsPerSecond, concurrency, Duration.ofSeconds(5), new SimpleMeterRegistry());
+    }
+
+    private static ScrapeRateController controller(double requestsPerSecond, int concurrency, Duration maxWait,
+                                                   SimpleMeterRegistry registry) {
+        return new ScrapeRateController(requestsPerSecond, 0.5, 20, concurrency, concurrency, 16,
+            Duration.ofSeconds(5), maxWait, registry);
+    }
+
+    @Test
+    void growsWhileResponsesAreHealthy() {
+        ScrapeRateController controller = controller(4, 2);
+
+        for (int i = 0; i < 8; i++) {
+            controller.onResponse(controller.acquire(), 200, null);
+        }
+
+        assertThat(controller.currentConcurrencyLimit()).isGreaterThan(2);
+        assertThat(controller.currentRate()).isGreaterThan(4);
+        assertThat(controller.currentInFlight()).isZero();
+    }
+
+    @Test
+    void halvesOncePerThrottlingEpisode() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ScrapeRateController controller = controller(16, 8, Duration.ofSeconds(5), registry);
+        List<Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            permits.add(controller.acquire());
+        }
+
+        // all eight were sent before the first 429 came back, so they make one cut between them
+        permits.forEach(permit -> controller.onResponse(permit, 429, null));
+
+        assertThat(controller.currentConcurrencyLimit()).isEqualTo(4);
+        assertThat(controller.currentRate()).isEqualTo(8);
+        assertThat(registry.counter("scraper.rate.throttled").count()).isEqualTo(1);
+
+        // a response to a request sent after the cut makes the next one
+        controller.onResponse(controller.acquire(), 503, null);
+        assertThat(controller.currentConcurrencyLimit()).isEqualTo(2);
+        assertThat(registry.counter("scraper.rate.throttled").count()).isEqualTo(2);
+    }
+
+    @Test
+    void pausesForRetryAfter() {
+        ScrapeRateController controller = controller(10, 4);
+
+        controller.onResponse(controller.acquire(), 429, Duration.ofMillis(300));
+
+        assertThat(controller.pausedFor()).isPositive();
+        long started = System.nanoTime();
+        controller.onResponse(controller.acquire(), 200, null);
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isGreaterThanOrEqualTo(Duration.ofMillis(250));
+    }
+
+    @Test
+    void rejectsWhenNoSlotFreesUpInTime() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ScrapeRateController controller = controller(10, 1, Duration.ofMillis(100), registry);
+        controller.acquire();
+
+        assertThatThrownBy(controller::acquire).isInstanceOf(FetchException.class);
+        assertThat(registry.counter("scraper.rate.rejections").count()).isEqualTo(1);
+        assertThat(registry.get("scraper.concurrency.limit").gauge().value()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,111 @@
+package com.vance.backend.services.scrappers;
+
+import com.vance.backend.dto.PricePoint;
+import com.vance.backend.models.CurrencyPair;
+import com.vance.backend.models.ExchangeRate;
+import com.vance.backend.repos.ExchangeRateRepository;
+import com.vance.backend.services.CurrencyPairRegistry;
+import com.vance.backend.services.ScrapeCoverageService;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService;
+import com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.Frequency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.vance.backend.services.scrappers.impl.YahooFinanceScraperService.dateToUnixTimestamp;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The whole scrape path (HTTP fetch, extraction, ingest and coverage)
+ * against a recorded Yahoo page served by {@link FixtureServer}.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:scraper-e2e;DB_CLOSE_DELAY=-1",
+    "forex.page-cache.enabled=false",
+    "forex.coverage.catch-up-on-startup=false",
+    "forex.maintenance.compact-on-startup=false"
+})
+class YahooFinanceScraperServiceTests {
+
+    private static final FixtureServer SERVER = start();
+
+    @Autowired
+    private YahooFinanceScraperService scraper;
+
+    @Autowired
+    private CurrencyPairRegistry currencyPairRegistry;
+
+    @Autowired
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Autowired
+    private ScrapeCoverageService coverageService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void yahoo(DynamicPropertyRegistry registry) {
+        registry.add("forex.yahoo.base-url", SERVER::baseUrl);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.close();
+    }
+
+    @Test
+    void scrapesPersistsAndCoversTheRecordedPage() {
+        LocalDate from = LocalDate.of(2024, 8, 1);
+        LocalDate to = LocalDate.of(2024, 10, 26);
+
+        List<ExchangeRate> scraped = scraper.scrapeDailyData("GBP", "INR", dateToUnixTimestamp(from), dateToUnixTimestamp(to));
+
+        assertThat(scraped).hasSize(60);
+        CurrencyPair pair = currencyPairRegistry.find("GBP", "INR").orElseThrow();
+        List<PricePoint> stored = exchangeRateRepository.findAllPricePoints(pair.getId());
+        assertThat(stored).hasSize(60);
+        assertThat(stored.get(stored.size() - 1))
+            .isEqualTo(new PricePoint(LocalDate.of(2024, 10, 25), 108_200_000L, 108_367_900L, 107_865_600L, 108_142_900L));
+        assertThat(stored.get(0).getDate()).isEqualTo(LocalDate.of(2024, 8, 5));
+
+        assertThat(coverageService.gaps(pair.getId(), Frequency.DAILY, from, to.minusDays(1))).isEmpty();
+        assertThat(meterRegistry.get("scraper.rows").tags("pair", "GBP-INR", "frequency", "DAILY", "outcome", "persisted")
+            .counter().count()).isEqualTo(60);
+        assertThat(meterRegistry.get("scraper.fetch").tags("pair", "GBP-INR", "outcome", "success")
+            .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void aPageWithoutTheHistoryTableLeavesTheWindowUncovered() {
+        LocalDate from = LocalDate.of(2024, 8, 1);
+        LocalDate to = LocalDate.of(2024, 10, 26);
+
+        List<ExchangeRate> scraped = scraper.scrapeDailyData("EUR", "INR", dateToUnixTimestamp(from), dateToUnixTimestamp(to));
+
+        assertThat(scraped).isEmpty();
+        CurrencyPair pair = currencyPairRegistry.find("EUR", "INR").orElseThrow();
+        assertThat(coverageService.gaps(pair.getId(), Frequency.DAILY, from, to.minusDays(1)))
+            .containsExactly(new ScrapeCoverageService.DateRange(from, to.minusDays(1)));
+    }
+
+    private static FixtureServer start() {
+        try {
+            return new FixtureServer()
+                .page("/quote/GBPINR%3DX/history/", "yahoo/gbpinr-daily.html")
+                .page("/quote/EURINR%3DX/history/", "yahoo/consent.html");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.vance.backend.services.timeseries;
+
+import com.vance.backend.models.Prices;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CrossRatesTests {
+
+    @Test
+    void inverseSwapsHighAndLow() {
+        PriceSeries gbpInr = PriceSeries.builder(1)
+            .add(100, 108_000_000, 110_000_000, 100_000_000, 108_142_900)
+            .build();
+
+        PriceSeries inrGbp = CrossRates.inverse(gbpInr);
+
+        assertThat(inrGbp.high(0)).isEqualTo(10_000);
+        assertThat(inrGbp.low(0)).isEqualTo(9_091);
+        assertThat(inrGbp.close(0)).isEqualTo(9_247);
+    }
+
+    @Test
+    void crossKeepsOnlyDaysBothLegsHave() {
+        PriceSeries gbpInr = PriceSeries.builder(3)
+            .add(100, 108_000_000, 109_000_000, 107_000_000, 108_000_000)
+            .add(101, 108_000_000, 109_000_000, 107_000_000, 108_500_000)
+            .add(103, 108_000_000, 109_000_000, 107_000_000, Prices.MISSING)
+            .build();
+        PriceSeries aedInr = PriceSeries.builder(3)
+            .add(100, 22_500_000, 23_000_000, 22_000_000, 22_500_000)
+            .add(102, 22_500_000, 23_000_000, 22_000_000, 22_600_000)
+            .add(103, 22_500_000, 23_000_000, 22_000_000, 22_700_000)
+            .build();
+
+        PriceSeries gbpAed = CrossRates.cross(gbpInr, aedInr);
+
+        assertThat(gbpAed.size()).isEqualTo(2);
+        assertThat(gbpAed.day(0)).isEqualTo(100);
+        assertThat(gbpAed.close(0)).isEqualTo(4_800_000);
+        assertThat(gbpAed.high(0)).isEqualTo(Prices.ratio(109_000_000, 22_000_000));
+        assertThat(gbpAed.low(0)).isEqualTo(Prices.ratio(107_000_000, 23_000_000));
+        assertThat(gbpAed.day(1)).isEqualTo(103);
+        assertThat(gbpAed.close(1)).isEqualTo(Prices.MISSING);
+    }
+
+    @Test
+    void ratioRoundsHalfUp() {
+        assertThat(Prices.ratio(1, 2_000_000)).isEqualTo(1);
+        assertThat(Prices.ratio(1, 2_000_001)).isEqualTo(0);
+        assertThat(Prices.ratio(Prices.ONE, 3 * Prices.ONE)).isEqualTo(333_333);
+        assertThat(Prices.ratio(Prices.ONE, 0)).isEqualTo(Prices.MISSING);
+        assertThat(Prices.ratio(Long.MAX_VALUE / 2, Prices.ONE)).isEqualTo(Long.MAX_VALUE / 2);
+    }
+}
@@ -0,0 +1,65 @@
+package com.vance.backend.services.timeseries;
+
+import com.vance.backend.models.Prices;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DownsamplerTests {
+
+    @Test
+    void keepsBothEndsAndTheExtremesWithinTheLimit() {
+        Random random = new Random(11);
+        PriceSeries series = randomWalk(7300, random);
+
+        for (int trial = 0; trial < 200; trial++) {
+            int from = random.nextInt(series.size() / 2);
+            int to = from + 1 + random.nextInt(series.size() - from);
+            int maxPoints = Downsampler.MIN_POINTS + random.nextInt(600);
+
+            int[] kept = Downsampler.largestTriangleThreeBuckets(series, from, to, maxPoints);
+
+            assertThat(kept.length).isLessThanOrEqualTo(maxPoints);
+            assertThat(kept).isSorted().doesNotHaveDuplicates();
+            assertThat(kept[0]).isEqualTo(from);
+            assertThat(kept[kept.length - 1]).isEqualTo(to - 1);
+            long[] closes = Arrays.stream(kept).mapToLong(series::close).toArray();
+            assertThat(closes).contains(series.closeIndex().min(from, to), series.closeIndex().max(from, to));
+        }
+    }
+
+    @Test
+    void shortRangesAreReturnedWhole() {
+        PriceSeries series = randomWalk(10, new Random(3));
+
+        assertThat(Downsampler.largestTriangleThreeBuckets(series, 2, 8, 6)).containsExactly(2, 3, 4, 5, 6, 7);
+    }
+
+    @Test
+    void missingClosesAreNeverPicked() {
+        PriceSeries.Builder builder = PriceSeries.builder(1000);
+        for (int i = 0; i < 1000; i++) {
+            long close = i % 3 == 0 ? Prices.MISSING : (100 + i % 17) * Prices.ONE;
+            builder.add(i, close, close, close, close);
+        }
+        PriceSeries series = builder.build();
+
+        int[] kept = Downsampler.largestTriangleThreeBuckets(series, 0, series.size(), 50);
+
+        assertThat(Arrays.stream(kept, 1, kept.length - 1).mapToLong(series::close)).doesNotContain(Prices.MISSING);
+    }
+
+    private static PriceSeries randomWalk(int size, Random random) {
+        PriceSeries.Builder builder = PriceSeries.builder(size);
+        long close = 100 * Prices.ONE;
+        for (int i = 0; i < size; i++) {
+            close += random.nextInt(2_000_001) - 1_000_000;
+            builder.add(i, close, close, close, close);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.vance.backend.services.timeseries;
+
+import com.vance.backend.models.Prices;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class IndicatorStateTests {
+
+    @Test
+    void matchesNaiveWindowsOverTheCloses() {
+        Random random = new Random(5);
+        IndicatorState state = new IndicatorState();
+        List<Long> closes = new ArrayList<>();
+        long close = 100 * Prices.ONE;
+
+        for (int day = 0; day < 1500; day++) {
+            if (day % 9 == 4) {
+                state.fold(day, Prices.MISSING, Prices.MISSING, Prices.MISSING);
+                continue;
+            }
+            close += random.nextInt(2_000_001) - 1_000_000;
+            state.fold(day, close + 300_000, close - 300_000, close);
+            closes.add(close);
+
+            for (int k = 0; k < IndicatorState.SMA_WINDOWS.length; k++) {
+                int window = IndicatorState.SMA_WINDOWS[k];
+                if (closes.size() < window) {
+                    assertThat(state.sma(k)).isEqualTo(Prices.MISSING);
+                } else {
+                    long sum = closes.subList(closes.size() - window, closes.size()).stream().mapToLong(Long::longValue).sum();
+                    assertThat(state.sma(k)).isEqualTo(Prices.average(sum, window));
+                }
+            }
+            if (closes.size() > IndicatorState.VOLATILITY_WINDOW) {
+                assertThat(state.volatility()).isCloseTo(naiveVolatility(closes), within(1e-12));
+            } else {
+                assertThat(state.volatility()).isNull();
+            }
+        }
+        assertThat(state.count()).isEqualTo(closes.size());
+        assertThat(state.lastDay()).isEqualTo(1499);
+    }
+
+    @Test
+    void restoredStateContinuesIdentically() {
+        Random random = new Random(8);
+        IndicatorState original = new IndicatorState();
+        long close = 50 * Prices.ONE;
+        IndicatorState restored = null;
+
+        for (int day = 0; day < 600; day++) {
+            close += random.nextInt(400_001) - 200_000;
+            original.fold(day, close + 100_000, close - 150_000, close);
+            if (restored != null) {
+                restored.fold(day, close + 100_000, close - 150_000, close);
+            } else if (day == 237) {
+                restored = IndicatorState.fromBytes(original.toBytes());
+            }
+        }
+
+        assertThat(restored.toBytes()).isEqualTo(original.toBytes());
+        assertThat(restored.ema(1)).isEqualTo(original.ema(1)).isNotEqualTo(Prices.MISSING);
+        assertThat(restored.atr()).isEqualTo(original.atr()).isNotEqualTo(Prices.MISSING);
+    }
+
+    @Test
+    void rejectsDaysOutOfOrderAndForeignCheckpoints() {
+        IndicatorState state = new IndicatorState();
+        state.fold(10, Prices.ONE, Prices.ONE, Prices.ONE);
+
+        assertThatThrownBy(() -> state.fold(10, Prices.ONE, Prices.ONE, Prices.ONE))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> IndicatorState.fromBytes(new byte[] {0, 0, 0, 9}))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> IndicatorState.fromBytes(new byte[] {0, 0, 0, 1, 0}))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static double naiveVolatility(List<Long> closes) {
+        int n = IndicatorState.VOLATILITY_WINDOW;
+        double[] returns = new double[n];
+        for (int i = 0; i < n; i++) {
+            int at = closes.size() - n + i;
+            returns[i] = Math.log((double) closes.get(at) / closes.get(at - 1));
+        }
+        double mean = 0;
+        for (double r : returns) {
+            mean += r / n;
+        }
+        double squares = 0;
+        for (double r : returns) {
+            squares += (r - mean) * (r - mean);
+        }
+        return Math.sqrt(squares / (n - 1));
+    }
+}
@@ -0,0 +1,89 @@
+package com.vance.backend.services.timeseries;
+
+import com.vance.backend.dto.PricePoint;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PriceSeriesTests {
+
+    @Test
+    void builderGrowsPastItsExpectedSize() {
+        PriceSeries.Builder builder = PriceSeries.builder(1);
+        for (int day = 0; day < 20; day++) {
+            builder.add(day, day, day + 2, day - 1, day + 1);
+        }
+        PriceSeries series = builder.build();
+
+        assertThat(series.size()).isEqualTo(20);
+        assertThat(series.day(19)).isEqualTo(19);
+        assertThat(series.high(19)).isEqualTo(21);
+        assertThat(series.close(0)).isEqualTo(1);
+        assertThat(PriceSeries.builder(4).build()).isSameAs(PriceSeries.EMPTY);
+    }
+
+    @Test
+    void addRejectsRepeatedAndDescendingDays() {
+        PriceSeries.Builder builder = PriceSeries.builder(4).add(10, 1, 1, 1, 1);
+
+        assertThatThrownBy(() -> builder.add(10, 2, 2, 2, 2)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> builder.add(9, 2, 2, 2, 2)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(builder.build().size()).isEqualTo(1);
+    }
+
+    @Test
+    void putKeepsTheLastEntryForARepeatedDay() {
+        PriceSeries.Builder builder = PriceSeries.builder(4)
+            .put(10, 1, 1, 1, 1)
+            .put(11, 2, 2, 2, 2)
+            .put(11, 3, 3, 3, 3)
+            .put(11, 4, 4, 4, 4)
+            .put(12, 5, 5, 5, 5);
+        PriceSeries series = builder.build();
+
+        assertThat(builder.replaced()).isEqualTo(2);
+        assertThat(series.size()).isEqualTo(3);
+        assertThat(series.day(1)).isEqualTo(11);
+        assertThat(series.close(1)).isEqualTo(4);
+        assertThatThrownBy(() -> builder.put(11, 6, 6, 6, 6)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void loadingRowsThatRepeatADaySucceeds() {
+        LocalDate day = LocalDate.of(2024, 3, 1);
+        PriceSeries series = ForexSeriesStore.toSeries(List.of(
+            new PricePoint(day, 1, 1, 1, 1),
+            new PricePoint(day.plusDays(1), 2, 2, 2, 2),
+            new PricePoint(day.plusDays(1), 3, 3, 3, 3)));
+
+        assertThat(series.size()).isEqualTo(2);
+        assertThat(series.date(1)).isEqualTo(day.plusDays(1));
+        assertThat(series.close(1)).isEqualTo(3);
+    }
+
+    @Test
+    void mergeReplacesSameDayEntriesWithUpdates() {
+        PriceSeries stored = PriceSeries.builder(3)
+            .add(1, 1, 1, 1, 1)
+            .add(2, 2, 2, 2, 2)
+            .add(4, 4, 4, 4, 4)
+            .build();
+        PriceSeries updates = PriceSeries.builder(2)
+            .add(2, 20, 20, 20, 20)
+            .add(3, 30, 30, 30, 30)
+            .build();
+
+        PriceSeries merged = stored.merge(updates);
+
+        assertThat(merged.size()).isEqualTo(4);
+        assertThat(merged.close(1)).isEqualTo(20);
+        assertThat(merged.close(2)).isEqualTo(30);
+        assertThat(merged.close(3)).isEqualTo(4);
+        assertThat(stored.merge(PriceSeries.EMPTY)).isSameAs(stored);
+    }
+}
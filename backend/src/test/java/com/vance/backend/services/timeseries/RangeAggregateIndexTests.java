@@ -0,0 +1,61 @@
+package com.vance.backend.services.timeseries;
+
+import com.vance.backend.models.Prices;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RangeAggregateIndexTests {
+
+    @Test
+    void matchesAFullScanForEveryRange() {
+        PriceSeries series = randomSeries(0, 137, new Random(42));
+        assertMatchesScan(series, series.closeIndex());
+    }
+
+    @Test
+    void appendedDaysExtendTheExistingIndex() {
+        Random random = new Random(7);
+        PriceSeries base = randomSeries(0, 100, random);
+        RangeAggregateIndex baseIndex = base.closeIndex();
+
+        PriceSeries grown = base.merge(randomSeries(100, 60, random));
+        RangeAggregateIndex grownIndex = grown.closeIndex();
+        PriceSeries extended = grown.merge(randomSeries(160, 20, random));
+
+        assertMatchesScan(extended, extended.closeIndex());
+        // older snapshots are unaffected by later extensions
+        assertMatchesScan(grown, grownIndex);
+        assertMatchesScan(base, baseIndex);
+    }
+
+    private static void assertMatchesScan(PriceSeries series, RangeAggregateIndex index) {
+        for (int from = 0; from < series.size(); from++) {
+            for (int to = from + 1; to <= series.size(); to++) {
+                long min = Long.MAX_VALUE;
+                long max = Long.MIN_VALUE;
+                long sum = 0;
+                for (int i = from; i < to; i++) {
+                    min = Math.min(min, series.close(i));
+                    max = Math.max(max, series.close(i));
+                    sum += series.close(i);
+                }
+                assertThat(index.min(from, to)).isEqualTo(min);
+                assertThat(index.max(from, to)).isEqualTo(max);
+                assertThat(index.average(from, to)).isEqualTo(Prices.average(sum, to - from));
+            }
+        }
+    }
+
+    private static PriceSeries randomSeries(int firstDay, int size, Random random) {
+        PriceSeries.Builder builder = PriceSeries.builder(size);
+        for (int i = 0; i < size; i++) {
+            long close = 80 * Prices.ONE + random.nextInt(20_000_000);
+            builder.add(firstDay + i, close, close + Prices.ONE, close - Prices.ONE, close);
+        }
+        return builder.build();
+    }
+}